@@ -0,0 +1,31 @@
+package com.packagetracking.command.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Política de retry da DLQ: cada tentativa espera na fila do tier correspondente (backoff exponencial com jitter);
+ * tentativas além do último tier reutilizam o último tier, até max-retry-attempts
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.dlq")
+public class DlqRetryProperties {
+    
+    private int maxRetryAttempts = 4;
+    private List<Duration> retryTiers = List.of(
+        Duration.ofSeconds(1), Duration.ofSeconds(10), Duration.ofMinutes(1), Duration.ofMinutes(10));
+    /** Variação aleatória aplicada ao atraso de cada tier (0.2 = ±20%) */
+    private double jitter = 0.2;
+    
+    /**
+     * Índice do tier usado pela tentativa (1 = primeira retentativa)
+     */
+    public int tierFor(int attempt) {
+        return Math.min(Math.max(attempt, 1), retryTiers.size()) - 1;
+    }
+}
@@ -0,0 +1,43 @@
+package com.packagetracking.command.config;
+
+import com.packagetracking.command.dto.tracking.ErrorCatalogEntry;
+import com.packagetracking.command.service.ErrorCatalogService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Expõe o catálogo de erros em /actuator/errorcatalog (resumo) e /actuator/errorcatalog/{fingerprint} (stack trace).
+ * Fora da exposição web padrão; habilitado via MANAGEMENT_ENDPOINTS_INCLUDE
+ */
+@Component
+@Endpoint(id = "errorcatalog")
+@RequiredArgsConstructor
+public class ErrorCatalogEndpoint {
+    
+    private final ErrorCatalogService errorCatalogService;
+    
+    @ReadOperation
+    public List<ErrorSummary> errors() {
+        return errorCatalogService.findAll().stream()
+            .sorted(Comparator.comparingLong(ErrorCatalogEntry::getOccurrences).reversed())
+            .map(entry -> new ErrorSummary(entry.getFingerprint(), entry.getErrorType(), entry.getFirstMessage(),
+                                           entry.getOccurrences(), entry.getFirstSeen(), entry.getLastSeen()))
+            .toList();
+    }
+    
+    @ReadOperation
+    public ErrorCatalogEntry error(@Selector String fingerprint) {
+        return errorCatalogService.find(fingerprint);
+    }
+    
+    public record ErrorSummary(String fingerprint, String errorType, String firstMessage, long occurrences,
+                               Instant firstSeen, Instant lastSeen) {
+    }
+}
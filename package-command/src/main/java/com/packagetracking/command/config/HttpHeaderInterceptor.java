@@ -2,34 +2,67 @@ package com.packagetracking.command.config;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
 
-import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Headers padrão das respostas e IDs de correlação no MDC, presentes em todo log da requisição.
+ * X-Request-ID e X-Correlation-ID recebidos são reaproveitados quando válidos; senão o ID vem do RequestContext.
+ * Os headers fixos são montados uma única vez; por requisição só variam os IDs e o X-Timestamp
+ */
 @Component
+@RequiredArgsConstructor
 @Slf4j
-public class HttpHeaderInterceptor implements HandlerInterceptor {
+public class HttpHeaderInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-ID";
+    public static final String CORRELATION_ID_HEADER = "X-Correlation-ID";
+    public static final String TIMESTAMP_HEADER = "X-Timestamp";
+
+    private static final List<Map.Entry<String, String>> STATIC_HEADERS = List.of(
+        Map.entry("X-Service-Name", "package-command"),
+        Map.entry("X-API-Version", "1.0"),
+        Map.entry("X-Content-Type-Options", "nosniff"),
+        Map.entry("X-Frame-Options", "DENY"),
+        Map.entry("X-XSS-Protection", "1; mode=block"));
+
+    private final RequestContext requestContext;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
-        response.setHeader("X-Request-ID", generateRequestId());
-        response.setHeader("X-Service-Name", "package-command");
-        response.setHeader("X-Timestamp", Instant.now().toString());
-        response.setHeader("X-API-Version", "1.0");
-        
-        response.setHeader("X-Content-Type-Options", "nosniff");
-        response.setHeader("X-Frame-Options", "DENY");
-        response.setHeader("X-XSS-Protection", "1; mode=block");
+        String incomingRequestId = RequestContext.validIdOrElse(request.getHeader(REQUEST_ID_HEADER), null);
+        String requestId = incomingRequestId != null ? incomingRequestId : requestContext.nextId();
+        String correlationId = RequestContext.validIdOrElse(request.getHeader(CORRELATION_ID_HEADER), requestId);
+        RequestContext.bind(new RequestContext.Ids(requestId, correlationId));
+
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        response.setHeader(CORRELATION_ID_HEADER, correlationId);
+        response.setHeader(TIMESTAMP_HEADER, requestContext.currentTimestamp());
+        for (Map.Entry<String, String> header : STATIC_HEADERS) {
+            response.setHeader(header.getKey(), header.getValue());
+        }
         
         log.debug("Requisição processada: {} {} - Request-ID: {}", 
-                 request.getMethod(), request.getRequestURI(), response.getHeader("X-Request-ID"));
+                 request.getMethod(), request.getRequestURI(), requestId);
         
         return true;
     }
 
-    private String generateRequestId() {
-        return "req-" + System.currentTimeMillis() + "-" + Thread.currentThread().getId();
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestContext.clear();
+    }
+
+    /**
+     * Em requisições assíncronas a thread volta ao pool antes do afterCompletion
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestContext.clear();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+package com.packagetracking.command.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Amostragem dos logs de alta frequência (configurada no logback-spring.xml): nos loggers listados,
+ * só 1 em cada N requisições ou mensagens tem os eventos até INFO registrados; WARN e ERROR passam sempre.
+ * A decisão vem do ID de requisição no MDC, então as linhas de um mesmo processamento ficam todas ou nenhuma,
+ * inclusive nos serviços que recebem o ID pelos headers AMQP.
+ * Como TurboFilter, descarta antes de o evento ser criado e formatado
+ */
+public class LogSamplingTurboFilter extends TurboFilter {
+
+    private static final LongAdder SAMPLED_OUT = new LongAdder();
+
+    private final List<String> loggers = new ArrayList<>();
+    private int every = 1;
+
+    public void addLogger(String loggerPrefix) {
+        loggers.add(loggerPrefix.trim());
+    }
+
+    public void setEvery(int every) {
+        this.every = Math.max(1, every);
+    }
+
+    /**
+     * Eventos descartados pela amostragem desde a subida da JVM
+     */
+    public static long sampledOut() {
+        return SAMPLED_OUT.sum();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format nulo vem de isXxxEnabled(): a amostragem vale só para eventos de fato registrados
+        if (every == 1 || format == null || level.isGreaterOrEqual(Level.WARN)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel()) || !sampled(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        if (keep()) {
+            return FilterReply.NEUTRAL;
+        }
+        SAMPLED_OUT.increment();
+        return FilterReply.DENY;
+    }
+
+    /**
+     * Mesmo resultado para todas as linhas do ID de requisição; sem ID no MDC (jobs, inicialização) decide por linha
+     */
+    private boolean keep() {
+        String requestId = MDC.get(RequestContext.REQUEST_ID_MDC);
+        if (requestId == null) {
+            return ThreadLocalRandom.current().nextInt(every) == 0;
+        }
+        return Math.floorMod(mix(requestId.hashCode()), every) == 0;
+    }
+
+    /**
+     * Espalha os bits do hashCode (finalizador do murmur3): IDs sequenciais diferem só nos últimos caracteres
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        return hash ^ (hash >>> 16);
+    }
+
+    private boolean sampled(String loggerName) {
+        for (String prefix : loggers) {
+            if (loggerName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,24 @@
+package com.packagetracking.command.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exporta os descartes do pipeline de logs: eventos perdidos com o ring buffer cheio e eventos
+ * removidos pela amostragem. Os contadores ficam no logback, que é configurado antes do contexto Spring
+ */
+@Component
+public class LoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("logging.async.dropped", AsyncLogDropListener.class, ignored -> AsyncLogDropListener.dropped())
+            .description("Eventos de log descartados com o ring buffer do appender assíncrono cheio")
+            .register(registry);
+        FunctionCounter.builder("logging.sampled.out", LogSamplingTurboFilter.class, ignored -> LogSamplingTurboFilter.sampledOut())
+            .description("Eventos de log de alta frequência descartados pela amostragem")
+            .register(registry);
+    }
+}
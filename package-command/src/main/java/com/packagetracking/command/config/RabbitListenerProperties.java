@@ -0,0 +1,38 @@
+package com.packagetracking.command.config;
+
+import lombok.Data;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ajustes dos containers de listener RabbitMQ e do autoscaling de consumers
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.rabbitmq.listener")
+public class RabbitListenerProperties {
+    
+    public enum ContainerType { SIMPLE, DIRECT }
+    
+    private ContainerType containerType = ContainerType.SIMPLE;
+    private boolean virtualThreads = true;
+    private int prefetch = 250;
+    private int minConsumers = 4;
+    private int maxConsumers = 32;
+    private int batchSize = 1;
+    private AcknowledgeMode acknowledgeMode = AcknowledgeMode.AUTO;
+    private Autoscaling autoscaling = new Autoscaling();
+    
+    @Data
+    public static class Autoscaling {
+        
+        private boolean enabled = false;
+        private long intervalMs = 5000;
+        /** Mensagens em fila por consumer acima das quais a concorrência aumenta */
+        private int queueDepthPerConsumer = 500;
+        /** Tempo médio de uso de conexão do pool acima do qual a concorrência diminui */
+        private long dbLatencyThresholdMs = 200;
+        private int step = 2;
+    }
+}
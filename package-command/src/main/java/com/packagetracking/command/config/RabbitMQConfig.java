@@ -2,16 +2,26 @@ package com.packagetracking.command.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.packagetracking.command.entity.OutboxEventType;
+import org.aopalliance.intercept.MethodInterceptor;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.AbstractRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.DirectRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.rabbit.listener.RabbitListenerContainerFactory;
-import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.amqp.ConnectionFactoryCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
 
 @Configuration
 @ConditionalOnProperty(name = "app.resources.queues", havingValue = "true", matchIfMissing = false)
@@ -21,11 +31,21 @@ public class RabbitMQConfig {
     
     public static final String TRACKING_EVENTS_QUEUE = "tracking.events.queue";
     
-    public static final String TRACKING_EVENTS_RETRY_QUEUE = "tracking.events.retry.queue";
+    public static final String TRACKING_EVENTS_BATCH_QUEUE = "tracking.events.batch.queue";
+    
+    public static final String TRACKING_EVENTS_BATCH_ROUTING_KEY = "tracking.events.batch";
+    
+    public static final String TRACKING_EVENTS_SHARD_PREFIX = "tracking.events.shard.";
+    
+    public static final String TRACKING_EVENTS_RETRY_TIER_PREFIX = "tracking.events.retry.tier.";
     
     public static final String TRACKING_EVENTS_DLQ = "tracking.events.dlq";
     
-    public static final String TRACKING_EVENTS_DLQ_RETRY_QUEUE = "tracking.events.dlq.retry.queue";
+    public static final String TRACKING_EVENTS_PARKING_LOT = "tracking.events.parking-lot";
+    
+    public static final String TRACKING_EVENTS_PARKING_LOT_ROUTING_KEY = "tracking.events.parking-lot";
+    
+    public static final String PACKAGE_CHANGES_EXCHANGE = "package.changes";
 
     public RabbitMQConfig() {
         System.out.println("Configuração RabbitMQ habilitada (automaticamente ativada pelo producer/consumer de tracking)");
@@ -43,19 +63,75 @@ public class RabbitMQConfig {
         
         rabbitTemplate.setRetryTemplate(null);
         rabbitTemplate.setMandatory(true);
+        // Timer spring.rabbit.template e propagação do trace nos headers da mensagem
+        rabbitTemplate.setObservationEnabled(true);
         
         return rabbitTemplate;
     }
 
     @Bean
-    public RabbitListenerContainerFactory<SimpleMessageListenerContainer> rabbitListenerContainerFactory(ConnectionFactory connectionFactory, MessageConverter jsonMessageConverter) {
-        org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory factory = 
-            new org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory();
+    public AbstractRabbitListenerContainerFactory<?> rabbitListenerContainerFactory(ConnectionFactory connectionFactory,
+                                                                                    MessageConverter jsonMessageConverter,
+                                                                                    RabbitListenerProperties listenerProperties,
+                                                                                    RequestContext requestContext) {
+        AbstractRabbitListenerContainerFactory<?> factory;
+        if (listenerProperties.getContainerType() == RabbitListenerProperties.ContainerType.DIRECT) {
+            DirectRabbitListenerContainerFactory directFactory = new DirectRabbitListenerContainerFactory();
+            directFactory.setConsumersPerQueue(listenerProperties.getMinConsumers());
+            factory = directFactory;
+        } else {
+            SimpleRabbitListenerContainerFactory simpleFactory = new SimpleRabbitListenerContainerFactory();
+            simpleFactory.setConcurrentConsumers(listenerProperties.getMinConsumers());
+            // Com autoscaling, a concorrência é controlada pelo ListenerConcurrencyAutoscaler e não pelo próprio container
+            if (!listenerProperties.getAutoscaling().isEnabled()) {
+                simpleFactory.setMaxConcurrentConsumers(listenerProperties.getMaxConsumers());
+            }
+            simpleFactory.setBatchSize(listenerProperties.getBatchSize());
+            factory = simpleFactory;
+        }
+        
         factory.setConnectionFactory(connectionFactory);
         factory.setMessageConverter(jsonMessageConverter);
+        factory.setPrefetchCount(listenerProperties.getPrefetch());
+        factory.setAcknowledgeMode(listenerProperties.getAcknowledgeMode());
+        // Timer spring.rabbit.listener (despacho ao listener) e continuação do trace do produtor
+        factory.setObservationEnabled(true);
+        factory.setAdviceChain(requestIdsAdvice(requestContext));
+        if (listenerProperties.isVirtualThreads()) {
+            factory.setTaskExecutor(new VirtualThreadTaskExecutor("rabbit-listener-"));
+        }
         return factory;
     }
 
+    /**
+     * IDs de requisição do produtor (headers x-request-id/x-correlation-id) no MDC durante a entrega ao listener.
+     * O advice envolve invokeListener(Channel, Object): o segundo argumento é a mensagem
+     */
+    private static MethodInterceptor requestIdsAdvice(RequestContext requestContext) {
+        return invocation -> {
+            if (!(invocation.getArguments()[1] instanceof Message message)) {
+                return invocation.proceed();
+            }
+            requestContext.bind(message.getMessageProperties());
+            try {
+                return invocation.proceed();
+            } finally {
+                RequestContext.clear();
+            }
+        };
+    }
+
+    /**
+     * No DirectMessageListenerContainer o listener roda nas threads de despacho do cliente AMQP,
+     * por isso as Virtual Threads são configuradas na ConnectionFactory do cliente
+     */
+    @Bean
+    @ConditionalOnExpression("'${app.rabbitmq.listener.container-type:simple}'.equalsIgnoreCase('direct') and ${app.rabbitmq.listener.virtual-threads:true}")
+    public ConnectionFactoryCustomizer virtualThreadConsumerDispatchCustomizer() {
+        return rabbitConnectionFactory -> rabbitConnectionFactory.setSharedExecutor(
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("rabbit-dispatch-", 0).factory()));
+    }
+
     @Bean
     public DirectExchange trackingEventsExchange() {
         return new DirectExchange(TRACKING_EVENTS_EXCHANGE);
@@ -63,36 +139,91 @@ public class RabbitMQConfig {
 
     @Bean
     public Queue trackingEventsQueue() {
+        // Mensagens rejeitadas (ex.: malformadas) saem da fila principal direto para o parking lot
         return QueueBuilder.durable(TRACKING_EVENTS_QUEUE)
                 .withArgument("x-dead-letter-exchange", TRACKING_EVENTS_EXCHANGE)
-                .withArgument("x-dead-letter-routing-key", "tracking.events.retry")
+                .withArgument("x-dead-letter-routing-key", TRACKING_EVENTS_PARKING_LOT_ROUTING_KEY)
                 .build();
     }
 
+    /**
+     * Fila de lotes: o consumer trata falhas evento a evento e envia à DLQ apenas os que falharem.
+     * Lotes rejeitados (malformados ou com falhas que não chegaram à DLQ) vão para o parking lot, como na fila principal
+     */
     @Bean
-    public Queue trackingEventsRetryQueue() {
-        return QueueBuilder.durable(TRACKING_EVENTS_RETRY_QUEUE)
+    public Queue trackingEventsBatchQueue() {
+        return QueueBuilder.durable(TRACKING_EVENTS_BATCH_QUEUE)
                 .withArgument("x-dead-letter-exchange", TRACKING_EVENTS_EXCHANGE)
-                .withArgument("x-dead-letter-routing-key", "tracking.events.dlq")
-                .withArgument("x-message-ttl", 30000) // 30 segundos
+                .withArgument("x-dead-letter-routing-key", TRACKING_EVENTS_PARKING_LOT_ROUTING_KEY)
                 .build();
     }
 
+    /**
+     * Filas particionadas por hash de packageId, declaradas apenas com app.rabbitmq.sharding.enabled=true
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.rabbitmq.sharding.enabled", havingValue = "true")
+    public Declarables trackingEventsShardDeclarables(TrackingEventShardingProperties shardingProperties) {
+        List<Declarable> declarables = new ArrayList<>();
+        for (int shard = 0; shard < shardingProperties.getShards(); shard++) {
+            Queue queue = QueueBuilder.durable(shardQueue(shard))
+                    .withArgument("x-dead-letter-exchange", TRACKING_EVENTS_EXCHANGE)
+                    .withArgument("x-dead-letter-routing-key", TRACKING_EVENTS_PARKING_LOT_ROUTING_KEY)
+                    .build();
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue).to(trackingEventsExchange()).with(shardRoutingKey(shard)));
+        }
+        return new Declarables(declarables);
+    }
+
+    public static String shardQueue(int shard) {
+        return TRACKING_EVENTS_SHARD_PREFIX + shard + ".queue";
+    }
+
+    public static String shardRoutingKey(int shard) {
+        return TRACKING_EVENTS_SHARD_PREFIX + shard;
+    }
+
+    /**
+     * Filas de espera do retry, uma por tier de backoff. Não têm consumer: o atraso vem da expiração
+     * definida por mensagem (com jitter) e, ao expirar, a mensagem volta para a DLQ
+     */
+    @Bean
+    public Declarables trackingEventsRetryTierDeclarables(DlqRetryProperties retryProperties) {
+        List<Declarable> declarables = new ArrayList<>();
+        for (int tier = 0; tier < retryProperties.getRetryTiers().size(); tier++) {
+            Queue queue = QueueBuilder.durable(retryTierQueue(tier))
+                    .withArgument("x-dead-letter-exchange", TRACKING_EVENTS_EXCHANGE)
+                    .withArgument("x-dead-letter-routing-key", "tracking.events.dlq")
+                    .build();
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue).to(trackingEventsExchange()).with(retryTierRoutingKey(tier)));
+        }
+        return new Declarables(declarables);
+    }
+
+    public static String retryTierQueue(int tier) {
+        return TRACKING_EVENTS_RETRY_TIER_PREFIX + tier + ".queue";
+    }
+
+    public static String retryTierRoutingKey(int tier) {
+        return TRACKING_EVENTS_RETRY_TIER_PREFIX + tier;
+    }
+
     @Bean
     public Queue trackingEventsDLQ() {
         return QueueBuilder.durable(TRACKING_EVENTS_DLQ)
                 .withArgument("x-dead-letter-exchange", TRACKING_EVENTS_EXCHANGE)
-                .withArgument("x-dead-letter-routing-key", "tracking.events.dlq.retry")
+                .withArgument("x-dead-letter-routing-key", TRACKING_EVENTS_PARKING_LOT_ROUTING_KEY)
                 .build();
     }
 
+    /**
+     * Mensagens que esgotaram as tentativas ou não puderam ser processadas; não há consumer automático
+     */
     @Bean
-    public Queue trackingEventsDLQRetryQueue() {
-        return QueueBuilder.durable(TRACKING_EVENTS_DLQ_RETRY_QUEUE)
-                .withArgument("x-dead-letter-exchange", TRACKING_EVENTS_EXCHANGE)
-                .withArgument("x-dead-letter-routing-key", "tracking.events.dlq")
-                .withArgument("x-message-ttl", 300000) // 5 minutos
-                .build();
+    public Queue trackingEventsParkingLot() {
+        return QueueBuilder.durable(TRACKING_EVENTS_PARKING_LOT).build();
     }
 
     @Bean
@@ -103,10 +234,10 @@ public class RabbitMQConfig {
     }
 
     @Bean
-    public Binding trackingEventsRetryBinding() {
-        return BindingBuilder.bind(trackingEventsRetryQueue())
+    public Binding trackingEventsBatchBinding() {
+        return BindingBuilder.bind(trackingEventsBatchQueue())
                 .to(trackingEventsExchange())
-                .with("tracking.events.retry");
+                .with(TRACKING_EVENTS_BATCH_ROUTING_KEY);
     }
 
     @Bean
@@ -117,9 +248,22 @@ public class RabbitMQConfig {
     }
 
     @Bean
-    public Binding trackingEventsDLQRetryBinding() {
-        return BindingBuilder.bind(trackingEventsDLQRetryQueue())
+    public Binding trackingEventsParkingLotBinding() {
+        return BindingBuilder.bind(trackingEventsParkingLot())
                 .to(trackingEventsExchange())
-                .with("tracking.events.dlq.retry");
+                .with(TRACKING_EVENTS_PARKING_LOT_ROUTING_KEY);
+    }
+
+    /**
+     * Notificações de mudança publicadas pelo outbox. Topic exchange: cada consumidor (cache, projeções, push)
+     * declara a própria fila e escolhe os tipos de mudança pela routing key package.<tipo>
+     */
+    @Bean
+    public TopicExchange packageChangesExchange() {
+        return new TopicExchange(PACKAGE_CHANGES_EXCHANGE);
+    }
+
+    public static String packageChangeRoutingKey(OutboxEventType eventType) {
+        return "package." + eventType.routingSuffix();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,137 @@
+package com.packagetracking.command.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * IDs de requisição e timestamp das respostas sem locks no caminho da requisição.
+ * O ID é o nó (app.node-id, ou aleatório se vazio) + o instante de subida em base 36, seguidos de um contador atômico:
+ * único entre Virtual Threads, reinícios e instâncias, com cerca de 20 caracteres.
+ * O mesmo ID segue nos headers das mensagens AMQP e volta ao MDC no consumidor, correlacionando os logs de ponta a ponta
+ */
+@Component
+@Slf4j
+public class RequestContext {
+
+    public static final String REQUEST_ID_MDC = "requestId";
+    public static final String CORRELATION_ID_MDC = "correlationId";
+    public static final String REQUEST_ID_AMQP_HEADER = "x-request-id";
+    public static final String CORRELATION_ID_AMQP_HEADER = "x-correlation-id";
+    /** Chave do ThreadLocalAccessor que leva os IDs do MDC para as tarefas do externalApiExecutor */
+    public static final String CONTEXT_KEY = "packagetracking.request-ids";
+
+    /** IDs recebidos vão para os logs: só caracteres seguros e tamanho limitado */
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9._:-]{1,64}");
+    private static final Pattern NODE_ID_INVALID_CHARS = Pattern.compile("[^a-z0-9]");
+    private static final int NODE_ID_MAX_LENGTH = 12;
+
+    private final String idPrefix;
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongSupplier clock;
+    private volatile CachedTimestamp timestamp = new CachedTimestamp(Long.MIN_VALUE, null);
+
+    @Autowired
+    public RequestContext(@Value("${app.node-id:}") String nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    RequestContext(String nodeId, LongSupplier clock) {
+        this.clock = clock;
+        this.idPrefix = normalizeNodeId(nodeId) + "-" + Long.toString(clock.getAsLong() / 1000, 36) + "-";
+        log.info("IDs de requisição gerados com o prefixo {}", idPrefix);
+    }
+
+    public String nextId() {
+        return idPrefix + Long.toString(sequence.incrementAndGet(), 36);
+    }
+
+    /**
+     * Instante atual em ISO-8601, formatado uma vez por milissegundo e compartilhado entre as requisições
+     */
+    public String currentTimestamp() {
+        long now = clock.getAsLong();
+        CachedTimestamp cached = timestamp;
+        if (cached.epochMilli() != now) {
+            cached = new CachedTimestamp(now, Instant.ofEpochMilli(now).toString());
+            timestamp = cached;
+        }
+        return cached.formatted();
+    }
+
+    public static String validIdOrElse(String candidate, String fallback) {
+        return candidate != null && VALID_ID.matcher(candidate).matches() ? candidate : fallback;
+    }
+
+    /**
+     * IDs da requisição ou mensagem em processamento na thread atual, ou null fora de uma
+     */
+    public static Ids current() {
+        String requestId = MDC.get(REQUEST_ID_MDC);
+        return requestId != null ? new Ids(requestId, MDC.get(CORRELATION_ID_MDC)) : null;
+    }
+
+    public static void bind(Ids ids) {
+        MDC.put(REQUEST_ID_MDC, ids.requestId());
+        MDC.put(CORRELATION_ID_MDC, ids.correlationId());
+    }
+
+    public static void clear() {
+        MDC.remove(REQUEST_ID_MDC);
+        MDC.remove(CORRELATION_ID_MDC);
+    }
+
+    /**
+     * Grava os IDs de origem nos headers da mensagem publicada
+     */
+    public static void stamp(MessageProperties properties, Ids ids) {
+        if (ids != null) {
+            properties.setHeader(REQUEST_ID_AMQP_HEADER, ids.requestId());
+            properties.setHeader(CORRELATION_ID_AMQP_HEADER, ids.correlationId());
+        }
+    }
+
+    /**
+     * Restaura no MDC os IDs recebidos na mensagem; mensagens sem IDs (produtores antigos, reprocessamento da DLQ)
+     * recebem um ID novo para que os logs do mesmo processamento continuem correlacionados
+     */
+    public void bind(MessageProperties properties) {
+        String requestId = validIdOrElse(header(properties, REQUEST_ID_AMQP_HEADER), null);
+        if (requestId == null) {
+            requestId = nextId();
+        }
+        bind(new Ids(requestId, validIdOrElse(header(properties, CORRELATION_ID_AMQP_HEADER), requestId)));
+    }
+
+    private static String header(MessageProperties properties, String name) {
+        Object value = properties.getHeader(name);
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * Prefixo curto do nó: o final do hostname/ID do container é a parte que diferencia as réplicas
+     */
+    private static String normalizeNodeId(String nodeId) {
+        String normalized = nodeId == null ? "" : NODE_ID_INVALID_CHARS.matcher(nodeId.toLowerCase(Locale.ROOT)).replaceAll("");
+        if (normalized.isEmpty()) {
+            return Long.toString(new SecureRandom().nextLong() >>> 24, 36);
+        }
+        return normalized.length() > NODE_ID_MAX_LENGTH ? normalized.substring(normalized.length() - NODE_ID_MAX_LENGTH) : normalized;
+    }
+
+    public record Ids(String requestId, String correlationId) {
+    }
+
+    private record CachedTimestamp(long epochMilli, String formatted) {
+    }
+}
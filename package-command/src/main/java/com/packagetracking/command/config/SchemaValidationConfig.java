@@ -0,0 +1,26 @@
+package com.packagetracking.command.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.MigrationInfo;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Nenhum nó executa DDL na subida: as migrações são aplicadas pelo package-migration antes do deploy.
+ * Aqui o Flyway apenas confere o histórico do banco contra as migrações empacotadas;
+ * migração pendente ou com checksum divergente impede a subida em vez de alterar o esquema.
+ */
+@Configuration
+@Slf4j
+public class SchemaValidationConfig {
+
+    @Bean
+    public FlywayMigrationStrategy validateOnlyMigrationStrategy() {
+        return flyway -> {
+            flyway.validate();
+            MigrationInfo current = flyway.info().current();
+            log.info("Esquema do banco validado - Versão: {}", current != null ? current.getVersion() : "nenhuma");
+        };
+    }
+}
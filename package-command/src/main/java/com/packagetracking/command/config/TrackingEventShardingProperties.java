@@ -0,0 +1,33 @@
+package com.packagetracking.command.config;
+
+import com.google.common.hash.Hashing;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Topologia opcional de filas de rastreamento particionadas por packageId.
+ * Eventos de um mesmo pacote sempre caem na mesma shard, consumida por um único consumer,
+ * preservando a ordem por pacote enquanto as shards são processadas em paralelo.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.rabbitmq.sharding")
+public class TrackingEventShardingProperties {
+    
+    private boolean enabled = false;
+    private int shards = 4;
+    
+    /**
+     * Hash consistente: ao alterar o número de shards, apenas ~1/N dos pacotes muda de fila
+     */
+    public int shardFor(String packageId) {
+        return Hashing.consistentHash(Hashing.murmur3_32_fixed().hashString(packageId, StandardCharsets.UTF_8), shards);
+    }
+    
+    public String routingKeyFor(String packageId) {
+        return RabbitMQConfig.shardRoutingKey(shardFor(packageId));
+    }
+}
@@ -1,5 +1,10 @@
 package com.packagetracking.command.config;
 
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -21,13 +26,22 @@ public class VirtualThreadConfig {
             .factory();
     }
 
+    /**
+     * O timer executor.idle (name=externalApiExecutor) mede o agendamento da tarefa na Virtual Thread;
+     * o contexto da observação (trace/span) e os IDs de requisição do MDC da thread que submete seguem para a tarefa
+     */
     @Bean("externalApiExecutor")
-    public Executor externalApiExecutor() {
+    public Executor externalApiExecutor(MeterRegistry meterRegistry) {
         ExecutorService executor = Executors.newThreadPerTaskExecutor(
             createVirtualThreadFactory()
         );
+        ContextRegistry.getInstance().registerThreadLocalAccessor(
+            RequestContext.CONTEXT_KEY, RequestContext::current, RequestContext::bind, RequestContext::clear);
+        ContextSnapshotFactory snapshotFactory = ContextSnapshotFactory.builder().build();
         
         log.info("External API Virtual Thread Executor configurado");
-        return executor;
+        return ContextExecutorService.wrap(
+            ExecutorServiceMetrics.monitor(meterRegistry, executor, "externalApiExecutor"),
+            snapshotFactory::captureAll);
     }
-} 
\ No newline at end of file
+}
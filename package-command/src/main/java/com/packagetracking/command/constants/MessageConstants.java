@@ -20,10 +20,31 @@ public final class MessageConstants {
     public static final String DELIVERED_STATUS_ERROR = "Pacote já foi entregue, não pode ter status alterado";
     public static final String CANCELLED_STATUS_ERROR = "Pacote cancelado não pode ter status alterado";
     public static final String CANNOT_CANCEL_PACKAGE_IN_TRANSIT = "Não é possível cancelar pacote que já saiu para entrega";
+    public static final String CONCURRENT_STATUS_CHANGE_ERROR = "Status do pacote foi alterado concorrentemente, tente novamente";
     
     public static final String PACKAGE_CREATED_SUCCESS = "Pacote criado e salvo com sucesso: {}";
     public static final String PACKAGE_STATUS_UPDATED_SUCCESS = "Status do pacote atualizado com sucesso: {} -> {}";
     public static final String PACKAGE_CANCELED_SUCCESS = "Pacote cancelado com sucesso: {}";
     
+    public static final String BULK_MANIFEST_EMPTY = "Manifesto vazio: informe ao menos um pacote";
+    public static final String BULK_MANIFEST_TOO_LARGE = "Manifesto excede o limite de %d pacotes";
+    public static final String BULK_MANIFEST_INVALID = "Manifesto em formato inválido: esperado array JSON ou NDJSON";
+    public static final String BULK_ITEM_EMPTY = "Item vazio no manifesto";
+    public static final String BULK_INVALID_DELIVERY_DATE = "Data estimada de entrega inválida";
+    public static final String BULK_BATCH_INSERT_ERROR = "Erro ao inserir lote de pacotes";
+    public static final String PACKAGES_BULK_CREATED_SUCCESS = "Manifesto processado: {} pacotes criados, {} rejeitados, {} com falha";
+    
+    public static final String TRACKING_BATCH_EMPTY = "Lote vazio: informe ao menos um evento de rastreamento";
+    public static final String TRACKING_BATCH_TOO_LARGE = "Lote excede o limite de %d eventos de rastreamento";
+    public static final String TRACKING_BATCH_ITEM_EMPTY = "Evento vazio no lote";
+    public static final String TRACKING_BATCH_PROCESSING_ERROR = "Erro ao processar lote de eventos de rastreamento";
+    
+    public static final String DLQ_REPLAY_ALREADY_RUNNING = "Já existe um replay do parking lot em execução";
+    public static final String DLQ_REPLAY_NOT_FOUND = "Replay não encontrado: %s";
+    public static final String DLQ_REPLAY_ACK_ERROR = "Erro ao confirmar mensagem do parking lot";
+    
+    public static final String OUTBOX_PUBLISH_NACK = "Publicação do outbox não confirmada pelo broker (%s): %s";
+    public static final String OUTBOX_PUBLISH_INTERRUPTED = "Relay do outbox interrompido aguardando confirms";
+    
     public static final String PACKAGE_ID_PREFIX = "pacote-";
 } 
\ No newline at end of file
@@ -0,0 +1,181 @@
+package com.packagetracking.command.consumer;
+
+import com.packagetracking.command.config.RabbitListenerProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.DirectMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.packagetracking.command.config.RabbitMQConfig.TRACKING_EVENTS_BATCH_QUEUE;
+import static com.packagetracking.command.config.RabbitMQConfig.TRACKING_EVENTS_QUEUE;
+import static com.packagetracking.command.consumer.TrackingEventConsumer.TRACKING_EVENTS_BATCH_LISTENER_ID;
+import static com.packagetracking.command.consumer.TrackingEventConsumer.TRACKING_EVENTS_LISTENER_ID;
+
+/**
+ * Ajusta periodicamente a quantidade de consumers dos listeners de rastreamento.
+ * Aumenta a concorrência quando a fila acumula mensagens e reduz quando o banco fica lento,
+ * já que mais consumers só aumentariam a disputa por conexões.
+ * As filas particionadas não são ajustadas: cada shard precisa de um único consumer para preservar a ordem.
+ */
+@Component
+@Slf4j
+@ConditionalOnExpression("'${app.resources.endpoints:}' == 'none' and ${app.rabbitmq.listener.autoscaling.enabled:false}")
+public class ListenerConcurrencyAutoscaler implements SmartLifecycle {
+
+    private static final String DB_LATENCY_TIMER = "hikari.connections.usage";
+
+    private static final Map<String, String> QUEUES_BY_LISTENER = Map.of(
+        TRACKING_EVENTS_LISTENER_ID, TRACKING_EVENTS_QUEUE,
+        TRACKING_EVENTS_BATCH_LISTENER_ID, TRACKING_EVENTS_BATCH_QUEUE
+    );
+
+    private final RabbitListenerEndpointRegistry listenerRegistry;
+    private final AmqpAdmin amqpAdmin;
+    private final MeterRegistry meterRegistry;
+    private final RabbitListenerProperties listenerProperties;
+
+    private final Map<String, AtomicLong> consumers = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> queueDepths = new ConcurrentHashMap<>();
+    private final AtomicLong dbLatencyMs = new AtomicLong();
+    private long lastLatencyCount;
+    private double lastLatencyTotalMs;
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public ListenerConcurrencyAutoscaler(RabbitListenerEndpointRegistry listenerRegistry,
+                                        AmqpAdmin amqpAdmin,
+                                        MeterRegistry meterRegistry,
+                                        RabbitListenerProperties listenerProperties) {
+        this.listenerRegistry = listenerRegistry;
+        this.amqpAdmin = amqpAdmin;
+        this.meterRegistry = meterRegistry;
+        this.listenerProperties = listenerProperties;
+
+        QUEUES_BY_LISTENER.keySet().forEach(listenerId -> {
+            AtomicLong current = consumers.computeIfAbsent(listenerId, id -> new AtomicLong(listenerProperties.getMinConsumers()));
+            AtomicLong depth = queueDepths.computeIfAbsent(listenerId, id -> new AtomicLong());
+            Gauge.builder("tracking.listener.consumers", current, AtomicLong::get)
+                .description("Consumers configurados no listener")
+                .tag("listener", listenerId)
+                .register(meterRegistry);
+            Gauge.builder("tracking.listener.queue.depth", depth, AtomicLong::get)
+                .description("Mensagens prontas na fila do listener na última verificação")
+                .tag("listener", listenerId)
+                .register(meterRegistry);
+        });
+        Gauge.builder("tracking.listener.db.latency", dbLatencyMs, AtomicLong::get)
+            .description("Tempo médio de uso de conexão do pool no último intervalo (ms)")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        long interval = listenerProperties.getAutoscaling().getIntervalMs();
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("listener-autoscaler").factory());
+        scheduler.scheduleWithFixedDelay(this::adjust, interval, interval, TimeUnit.MILLISECONDS);
+        running = true;
+        log.info("Autoscaling de consumers habilitado: {}-{} consumers, verificação a cada {} ms",
+                 listenerProperties.getMinConsumers(), listenerProperties.getMaxConsumers(), interval);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    void adjust() {
+        try {
+            double latencyMs = sampleDbLatencyMs();
+            dbLatencyMs.set(Math.round(latencyMs));
+
+            QUEUES_BY_LISTENER.forEach((listenerId, queue) -> {
+                MessageListenerContainer container = listenerRegistry.getListenerContainer(listenerId);
+                QueueInformation queueInfo = amqpAdmin.getQueueInfo(queue);
+                if (container == null || queueInfo == null) {
+                    return;
+                }
+
+                queueDepths.get(listenerId).set(queueInfo.getMessageCount());
+                AtomicLong current = consumers.get(listenerId);
+                int target = targetConsumers((int) current.get(), queueInfo.getMessageCount(), latencyMs, listenerProperties);
+
+                if (target != current.get()) {
+                    applyConcurrency(container, target);
+                    log.info("Listener {} ajustado de {} para {} consumers (fila: {}, latência DB: {} ms)",
+                             listenerId, current.get(), target, queueInfo.getMessageCount(), Math.round(latencyMs));
+                    current.set(target);
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Erro no autoscaling de consumers: {}", e.getMessage());
+        }
+    }
+
+    static int targetConsumers(int current, long queueDepth, double dbLatencyMs, RabbitListenerProperties properties) {
+        RabbitListenerProperties.Autoscaling autoscaling = properties.getAutoscaling();
+        int target = current;
+
+        if (dbLatencyMs > autoscaling.getDbLatencyThresholdMs()) {
+            target = current - autoscaling.getStep();
+        } else if (queueDepth > (long) current * autoscaling.getQueueDepthPerConsumer()) {
+            target = current + autoscaling.getStep();
+        } else if (queueDepth == 0) {
+            target = current - 1;
+        }
+
+        return Math.max(properties.getMinConsumers(), Math.min(properties.getMaxConsumers(), target));
+    }
+
+    private void applyConcurrency(MessageListenerContainer container, int consumers) {
+        if (container instanceof SimpleMessageListenerContainer simpleContainer) {
+            simpleContainer.setConcurrentConsumers(consumers);
+        } else if (container instanceof DirectMessageListenerContainer directContainer) {
+            directContainer.setConsumersPerQueue(consumers);
+        }
+    }
+
+    /**
+     * Média do tempo de uso de conexões do Hikari desde a última verificação
+     */
+    private double sampleDbLatencyMs() {
+        long count = 0;
+        double totalMs = 0;
+        for (Timer timer : meterRegistry.find(DB_LATENCY_TIMER).timers()) {
+            count += timer.count();
+            totalMs += timer.totalTime(TimeUnit.MILLISECONDS);
+        }
+
+        long deltaCount = count - lastLatencyCount;
+        double deltaMs = totalMs - lastLatencyTotalMs;
+        lastLatencyCount = count;
+        lastLatencyTotalMs = totalMs;
+
+        return deltaCount > 0 ? deltaMs / deltaCount : 0;
+    }
+}
@@ -0,0 +1,67 @@
+package com.packagetracking.command.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.packagetracking.command.config.TrackingEventShardingProperties;
+import com.packagetracking.command.dto.tracking.TrackingEventBatchMessage;
+import com.packagetracking.command.dto.tracking.TrackingEventRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+import static com.packagetracking.command.config.RabbitMQConfig.shardQueue;
+
+/**
+ * Registra um listener com um único consumer para cada fila particionada.
+ * Cada shard é processada sequencialmente (ordem por pacote) e as shards em paralelo entre si.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnExpression("'${app.resources.endpoints:}' == 'none' and '${app.rabbitmq.sharding.enabled:false}' == 'true'")
+public class ShardedTrackingEventListener implements RabbitListenerConfigurer {
+    
+    private final TrackingEventConsumer trackingEventConsumer;
+    private final TrackingEventShardingProperties shardingProperties;
+    private final ObjectMapper objectMapper;
+    
+    @Override
+    public void configureRabbitListeners(RabbitListenerEndpointRegistrar registrar) {
+        for (int shard = 0; shard < shardingProperties.getShards(); shard++) {
+            SimpleRabbitListenerEndpoint endpoint = new SimpleRabbitListenerEndpoint();
+            endpoint.setId("tracking-events-shard-" + shard);
+            endpoint.setQueueNames(shardQueue(shard));
+            endpoint.setConcurrency("1");
+            endpoint.setMessageListener(this::onMessage);
+            registrar.registerEndpoint(endpoint);
+        }
+        
+        log.info("Consumers particionados registrados para {} shards", shardingProperties.getShards());
+    }
+    
+    void onMessage(Message message) {
+        // A mesma shard recebe eventos avulsos e lotes; o tipo vem do header gravado pelo Jackson2JsonMessageConverter
+        String payloadType = message.getMessageProperties().getHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME);
+        
+        try {
+            if (TrackingEventBatchMessage.class.getName().equals(payloadType)) {
+                trackingEventConsumer.processTrackingEventBatch(
+                    objectMapper.readValue(message.getBody(), TrackingEventBatchMessage.class), message);
+            } else {
+                trackingEventConsumer.processTrackingEventInOrder(
+                    objectMapper.readValue(message.getBody(), TrackingEventRequest.class), message);
+            }
+        } catch (IOException e) {
+            log.error("Mensagem malformada na fila {}: {}", message.getMessageProperties().getConsumerQueue(), e.getMessage());
+            throw new AmqpRejectAndDontRequeueException("Mensagem de rastreamento malformada", e);
+        }
+    }
+}
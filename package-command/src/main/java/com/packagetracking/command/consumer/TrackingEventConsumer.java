@@ -1,8 +1,12 @@
 package com.packagetracking.command.consumer;
 
+import com.packagetracking.command.config.RequestContext;
+import com.packagetracking.command.dto.tracking.TrackingEventBatchMessage;
 import com.packagetracking.command.dto.tracking.TrackingEventDLQMessage;
 import com.packagetracking.command.dto.tracking.TrackingEventRequest;
+import com.packagetracking.command.service.ErrorCatalogService;
 import com.packagetracking.command.service.TrackingEventService;
+import com.packagetracking.command.service.TrackingPipelineMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.AmqpRejectAndDontRequeueException;
@@ -12,10 +16,13 @@ import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import static com.packagetracking.command.config.RabbitMQConfig.TRACKING_EVENTS_BATCH_QUEUE;
 import static com.packagetracking.command.config.RabbitMQConfig.TRACKING_EVENTS_DLQ;
 import static com.packagetracking.command.config.RabbitMQConfig.TRACKING_EVENTS_EXCHANGE;
+import static com.packagetracking.command.config.RabbitMQConfig.TRACKING_EVENTS_QUEUE;
 
 @Component
 @RequiredArgsConstructor
@@ -23,16 +30,22 @@ import static com.packagetracking.command.config.RabbitMQConfig.TRACKING_EVENTS_
 @ConditionalOnProperty(name = "app.resources.endpoints", havingValue = "none")
 public class TrackingEventConsumer {
     
+    public static final String TRACKING_EVENTS_LISTENER_ID = "tracking-events";
+    public static final String TRACKING_EVENTS_BATCH_LISTENER_ID = "tracking-events-batch";
+    
     private final TrackingEventService trackingEventService;
     private final RabbitTemplate rabbitTemplate;
+    private final ErrorCatalogService errorCatalogService;
+    private final TrackingPipelineMetrics pipelineMetrics;
     
     /**
      * Consome eventos de rastreamento da fila RabbitMQ com processamento assíncrono
      */
-    @RabbitListener(queues = "tracking.events.queue")
+    @RabbitListener(id = TRACKING_EVENTS_LISTENER_ID, queues = TRACKING_EVENTS_QUEUE)
     public void processTrackingEvent(TrackingEventRequest event, Message message) {
         String threadName = Thread.currentThread().getName();
         String messageId = message.getMessageProperties().getMessageId();
+        pipelineMetrics.recordQueueWait(message);
         
         log.info("=== INÍCIO DO PROCESSAMENTO ===");
         log.info("Recebido evento de rastreamento - Pacote: {}, Thread: {}, MessageId: {}", 
@@ -44,6 +57,7 @@ public class TrackingEventConsumer {
             
             trackingEventService.processTrackingEventAsync(event)
                 .orTimeout(1000, TimeUnit.MILLISECONDS)
+                .thenRun(() -> pipelineMetrics.recordQueryable(List.of(event), message))
                 .exceptionally(throwable -> {
                     log.error("=== ERRO NO PROCESSAMENTO ASSÍNCRONO ===");
                     log.error("Timeout ou erro no processamento do evento para pacote {}: {}", 
@@ -81,25 +95,106 @@ public class TrackingEventConsumer {
     }
     
     /**
-     * Envia mensagem enriquecida para a DLQ com informações detalhadas do erro
+     * Processa um evento de forma síncrona, usado pelas filas particionadas para preservar a ordem por pacote.
+     * Falhas vão para a DLQ sem bloquear os próximos eventos da shard.
      */
-    private void sendToDLQ(TrackingEventRequest originalMessage, Exception exception, String threadName) {
+    public void processTrackingEventInOrder(TrackingEventRequest event, Message message) {
+        pipelineMetrics.recordQueueWait(message);
+        try {
+            trackingEventService.processTrackingEvent(event);
+            pipelineMetrics.recordQueryable(List.of(event), message);
+        } catch (Exception e) {
+            log.error("Erro ao processar evento de rastreamento em ordem para pacote {}: {}", 
+                      event.packageId(), e.getMessage());
+            sendToDLQ(event, e, Thread.currentThread().getName());
+        }
+    }
+    
+    /**
+     * Consome lotes de eventos de rastreamento. O lote é persistido em uma única transação;
+     * se falhar, os eventos são reprocessados individualmente e apenas os que falharem vão para a DLQ.
+     */
+    @RabbitListener(id = TRACKING_EVENTS_BATCH_LISTENER_ID, queues = TRACKING_EVENTS_BATCH_QUEUE)
+    public void processTrackingEventBatch(TrackingEventBatchMessage batch, Message message) {
+        String threadName = Thread.currentThread().getName();
+        
+        if (batch == null || batch.getEvents() == null) {
+            log.error("Lote de eventos malformado enviado ao parking lot - MessageId: {}", 
+                      message.getMessageProperties().getMessageId());
+            throw new AmqpRejectAndDontRequeueException("Lote de eventos de rastreamento malformado");
+        }
+        if (batch.getEvents().isEmpty()) {
+            log.warn("Lote de eventos vazio descartado - MessageId: {}", message.getMessageProperties().getMessageId());
+            return;
+        }
+        pipelineMetrics.recordQueueWait(message);
+        
+        log.info("Recebido lote {} com {} eventos de rastreamento - Thread: {}", 
+                 batch.getBatchId(), batch.getEvents().size(), threadName);
+        
+        try {
+            trackingEventService.processTrackingEventBatch(batch.getEvents());
+            pipelineMetrics.recordQueryable(batch.getEvents(), message);
+            return;
+            
+        } catch (Exception e) {
+            log.warn("Falha ao persistir lote {}, reprocessando {} eventos individualmente: {}", 
+                     batch.getBatchId(), batch.getEvents().size(), e.getMessage());
+        }
+        
+        int failed = 0;
+        int notSentToDlq = 0;
+        for (TrackingEventRequest event : batch.getEvents()) {
+            try {
+                trackingEventService.processTrackingEvent(event);
+                pipelineMetrics.recordQueryable(List.of(event), message);
+            } catch (Exception e) {
+                failed++;
+                if (!sendToDLQ(event, e, threadName)) {
+                    notSentToDlq++;
+                }
+            }
+        }
+        
+        log.info("Lote {} reprocessado individualmente: {} eventos salvos, {} enviados para DLQ", 
+                 batch.getBatchId(), batch.getEvents().size() - failed, failed - notSentToDlq);
+        
+        if (notSentToDlq > 0) {
+            // O lote inteiro vai para o parking lot; o replay expande o lote e descarta pela chave do evento os que já foram salvos
+            throw new AmqpRejectAndDontRequeueException("Lote " + batch.getBatchId() + ": " + notSentToDlq +
+                                                        " eventos com falha não chegaram à DLQ");
+        }
+    }
+    
+    /**
+     * Envia mensagem enriquecida para a DLQ com informações detalhadas do erro; retorna false se o envio falhar
+     */
+    private boolean sendToDLQ(TrackingEventRequest originalMessage, Exception exception, String threadName) {
         try {
             log.info("=== ENVIANDO PARA DLQ ===");
             log.info("Pacote: {}, Erro: {}, Tipo: {}", 
                      originalMessage.packageId(), exception.getMessage(), exception.getClass().getSimpleName());
             
-            TrackingEventDLQMessage dlqMessage = TrackingEventDLQMessage.fromException(originalMessage, exception, threadName);
+            TrackingEventDLQMessage dlqMessage = TrackingEventDLQMessage.fromException(
+                originalMessage, exception, threadName, errorCatalogService.register(exception));
             
-            rabbitTemplate.convertAndSend(TRACKING_EVENTS_EXCHANGE, "tracking.events.dlq", dlqMessage);
+            // Mantém os IDs da requisição de origem para correlacionar as retentativas da DLQ
+            RequestContext.Ids origin = RequestContext.current();
+            rabbitTemplate.convertAndSend(TRACKING_EVENTS_EXCHANGE, "tracking.events.dlq", dlqMessage, dlq -> {
+                RequestContext.stamp(dlq.getMessageProperties(), origin);
+                return dlq;
+            });
             
-            log.warn("Mensagem enviada para DLQ - Pacote: {}, Erro: {}, Tipo: {}", 
-                     originalMessage.packageId(), exception.getMessage(), exception.getClass().getSimpleName());
+            log.warn("Mensagem enviada para DLQ - Pacote: {}, Tipo: {}, Fingerprint: {} ({} ocorrências)", 
+                     originalMessage.packageId(), exception.getClass().getSimpleName(), 
+                     dlqMessage.getErrorFingerprint(), dlqMessage.getErrorOccurrences());
+            return true;
             
         } catch (Exception dlqException) {
             log.error("=== ERRO AO ENVIAR PARA DLQ ===");
             log.error("Erro ao enviar mensagem para DLQ - Pacote: {}, Erro original: {}, Erro DLQ: {}", 
                       originalMessage.packageId(), exception.getMessage(), dlqException.getMessage(), dlqException);
+            return false;
         }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.packagetracking.command.controller;
+
+import com.packagetracking.command.constants.MessageConstants;
+import com.packagetracking.command.dto.tracking.DlqReplayJob;
+import com.packagetracking.command.dto.tracking.DlqReplayRequest;
+import com.packagetracking.command.exception.ResourceNotFoundException;
+import com.packagetracking.command.service.DlqReplayService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collection;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/dlq-replay")
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "app.resources.endpoints", havingValue = "none")
+@Tag(name = "DLQ Replay", description = "APIs administrativas para reprocessamento do parking lot")
+public class DlqReplayController {
+
+    private final DlqReplayService dlqReplayService;
+
+    @Operation(
+        summary = "Iniciar replay do parking lot",
+        description = "Reprocessa em lotes as mensagens do parking lot que atendem aos filtros, limitando a vazão " +
+                      "em eventos por segundo. Eventos já persistidos são descartados como duplicados"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Replay iniciado"),
+        @ApiResponse(responseCode = "400", description = "Parâmetros inválidos"),
+        @ApiResponse(responseCode = "409", description = "Já existe um replay em execução")
+    })
+    @PostMapping
+    public ResponseEntity<?> startReplay(@Valid @RequestBody DlqReplayRequest request) {
+        try {
+            DlqReplayJob job = dlqReplayService.start(request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalStateException e) {
+            log.warn("Replay do parking lot recusado: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Listar replays", description = "Lista os replays executados desde o início da instância com o progresso de cada um")
+    @GetMapping
+    public ResponseEntity<Collection<DlqReplayJob>> listReplays() {
+        return ResponseEntity.ok(dlqReplayService.findAll());
+    }
+
+    @Operation(summary = "Consultar replay", description = "Retorna o estado e os contadores de progresso de um replay")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Replay encontrado"),
+        @ApiResponse(responseCode = "404", description = "Replay não encontrado")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<DlqReplayJob> getReplay(@Parameter(description = "ID do replay") @PathVariable String id) {
+        DlqReplayJob job = dlqReplayService.find(id);
+        if (job == null) {
+            throw new ResourceNotFoundException(String.format(MessageConstants.DLQ_REPLAY_NOT_FOUND, id));
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    @Operation(summary = "Cancelar replay", description = "Interrompe o replay após o lote em andamento; mensagens não lidas permanecem no parking lot")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cancelamento solicitado"),
+        @ApiResponse(responseCode = "404", description = "Replay não encontrado")
+    })
+    @DeleteMapping("/{id}")
+    public ResponseEntity<DlqReplayJob> cancelReplay(@Parameter(description = "ID do replay") @PathVariable String id) {
+        DlqReplayJob job = dlqReplayService.cancel(id);
+        if (job == null) {
+            throw new ResourceNotFoundException(String.format(MessageConstants.DLQ_REPLAY_NOT_FOUND, id));
+        }
+        log.info("Cancelamento solicitado para o replay {}", id);
+        return ResponseEntity.ok(job);
+    }
+}
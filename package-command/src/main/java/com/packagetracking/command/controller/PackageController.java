@@ -1,15 +1,25 @@
 package com.packagetracking.command.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.packagetracking.command.constants.MessageConstants;
+import com.packagetracking.command.dto.packages.PackageBulkItemResult;
 import com.packagetracking.command.dto.packages.PackageCancelResponse;
 import com.packagetracking.command.dto.packages.PackageCreateRequest;
 import com.packagetracking.command.dto.packages.PackageResponse;
 import com.packagetracking.command.dto.packages.PackageUpdateRequest;
+import com.packagetracking.command.service.PackageBulkService;
 import com.packagetracking.command.service.PackageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
@@ -21,8 +31,15 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import java.time.format.DateTimeFormatter;
 
@@ -35,6 +52,11 @@ import java.time.format.DateTimeFormatter;
 public class PackageController {
     
     private final PackageService packageService;
+    private final PackageBulkService packageBulkService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.bulk.max-items:10000}")
+    private int bulkMaxItems;
 
     @Operation(
         summary = "Criar novo pacote",
@@ -69,7 +91,7 @@ public class PackageController {
     
     @Operation(
         summary = "Atualizar status do pacote",
-        description = "Atualiza o status de um pacote existente"
+        description = "Atualiza o status de um pacote existente; a resposta traz apenas id, status e datas da transição"
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Status atualizado com sucesso",
@@ -123,6 +145,119 @@ public class PackageController {
                 .header("X-Cancellation-Date", response.getDataAtualizacao().toString())
                 .body(response);
     }
-    
 
-} 
\ No newline at end of file
+    @Operation(
+        summary = "Criar pacotes em lote",
+        description = "Recebe um manifesto (array JSON ou NDJSON) e responde em NDJSON, um resultado por pacote, " +
+                      "emitido à medida que cada bloco é lido, validado e persistido. Um erro de leitura depois do primeiro " +
+                      "bloco encerra a resposta com um item FAILED no índice do primeiro pacote não processado"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Manifesto processado; verifique o status de cada item",
+            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                schema = @Schema(implementation = PackageBulkItemResult.class))),
+        @ApiResponse(responseCode = "400", description = "Manifesto vazio, inválido ou acima do limite"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping(value = "/bulk",
+                 consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+                 produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void createPackagesBulk(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        try (ManifestIterator manifest = openManifest(request)) {
+            if (!manifest.hasNext()) {
+                throw new IllegalArgumentException(MessageConstants.BULK_MANIFEST_EMPTY);
+            }
+            log.info("Processando manifesto em streaming (limite de {} pacotes)", bulkMaxItems);
+
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+
+            // Escrita síncrona na resposta: manifestos grandes excederiam o timeout de requisições assíncronas do MVC
+            ObjectWriter itemWriter = objectMapper.writerFor(PackageBulkItemResult.class);
+            OutputStream out = response.getOutputStream();
+            AtomicInteger emitted = new AtomicInteger();
+            try {
+                packageBulkService.createPackages(manifest, results -> {
+                    writeResults(out, itemWriter, results);
+                    emitted.addAndGet(results.size());
+                });
+            } catch (IllegalArgumentException e) {
+                if (!response.isCommitted()) {
+                    throw e;
+                }
+                // O 200 já foi enviado: o erro de leitura vira a última linha, no índice do primeiro item não processado
+                log.warn("Manifesto interrompido após {} itens: {}", emitted.get(), e.getMessage());
+                writeResults(out, itemWriter, List.of(PackageBulkItemResult.builder()
+                    .index(emitted.get())
+                    .status(PackageBulkItemResult.FAILED)
+                    .message(e.getMessage())
+                    .build()));
+            }
+        }
+    }
+
+    private ManifestIterator openManifest(HttpServletRequest request) {
+        try {
+            return new ManifestIterator(objectMapper.readerFor(PackageCreateRequest.class)
+                .readValues(request.getInputStream()), bulkMaxItems);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(MessageConstants.BULK_MANIFEST_INVALID, e);
+        }
+    }
+
+    private static void writeResults(OutputStream out, ObjectWriter itemWriter, List<PackageBulkItemResult> results) {
+        try {
+            for (PackageBulkItemResult result : results) {
+                out.write(itemWriter.writeValueAsBytes(result));
+                out.write('\n');
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Lê o manifesto item a item do corpo da requisição, aplicando o limite de itens durante a leitura.
+     * Erros de formato viram IllegalArgumentException, como na validação do restante da API
+     */
+    private static final class ManifestIterator implements Iterator<PackageCreateRequest>, Closeable {
+
+        private final MappingIterator<PackageCreateRequest> items;
+        private final int maxItems;
+        private int read;
+
+        private ManifestIterator(MappingIterator<PackageCreateRequest> items, int maxItems) {
+            this.items = items;
+            this.maxItems = maxItems;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                return items.hasNextValue();
+            } catch (IOException e) {
+                throw new IllegalArgumentException(MessageConstants.BULK_MANIFEST_INVALID, e);
+            }
+        }
+
+        @Override
+        public PackageCreateRequest next() {
+            if (read >= maxItems) {
+                throw new IllegalArgumentException(String.format(MessageConstants.BULK_MANIFEST_TOO_LARGE, maxItems));
+            }
+            try {
+                PackageCreateRequest item = items.nextValue();
+                read++;
+                return item;
+            } catch (IOException e) {
+                throw new IllegalArgumentException(MessageConstants.BULK_MANIFEST_INVALID, e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            items.close();
+        }
+    }
+}
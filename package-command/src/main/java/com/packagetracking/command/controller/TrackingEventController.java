@@ -1,10 +1,15 @@
 package com.packagetracking.command.controller;
 
+import com.packagetracking.command.constants.MessageConstants;
+import com.packagetracking.command.dto.tracking.TrackingEventBatchResponse;
 import com.packagetracking.command.dto.tracking.TrackingEventRequest;
 import com.packagetracking.command.producer.TrackingEventProducer;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -21,7 +26,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -33,6 +41,10 @@ import java.util.Map;
 public class TrackingEventController {
     
     private final TrackingEventProducer trackingEventProducer;
+    private final Validator validator;
+    
+    @Value("${app.tracking.batch.max-events:5000}")
+    private int maxBatchEvents;
 
     @Operation(
         summary = "Receber evento de rastreamento",
@@ -68,4 +80,64 @@ public class TrackingEventController {
                 .header("X-Event-Location", request.location())
                 .build();
     }
-} 
\ No newline at end of file
+    
+    @Operation(
+        summary = "Receber lote de eventos de rastreamento",
+        description = "Recebe vários eventos de rastreamento em uma única requisição. Eventos válidos são publicados " +
+                      "agrupados em mensagens de lote; eventos inválidos são rejeitados individualmente"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Eventos válidos aceitos para processamento",
+            content = @Content(schema = @Schema(implementation = TrackingEventBatchResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Lote vazio, acima do limite ou sem nenhum evento válido"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<TrackingEventBatchResponse> receiveTrackingEventBatch(
+            @Parameter(description = "Eventos de rastreamento", required = true)
+            @RequestBody List<TrackingEventRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException(MessageConstants.TRACKING_BATCH_EMPTY);
+        }
+        if (requests.size() > maxBatchEvents) {
+            throw new IllegalArgumentException(String.format(MessageConstants.TRACKING_BATCH_TOO_LARGE, maxBatchEvents));
+        }
+        
+        List<TrackingEventRequest> validEvents = new ArrayList<>(requests.size());
+        Map<Integer, Map<String, String>> errors = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            TrackingEventRequest request = requests.get(i);
+            if (request == null) {
+                errors.put(i, Map.of("event", MessageConstants.TRACKING_BATCH_ITEM_EMPTY));
+                continue;
+            }
+            
+            Map<String, String> violations = new HashMap<>();
+            for (ConstraintViolation<TrackingEventRequest> violation : validator.validate(request)) {
+                violations.put(violation.getPropertyPath().toString(), violation.getMessage());
+            }
+            
+            if (violations.isEmpty()) {
+                validEvents.add(request);
+            } else {
+                errors.put(i, violations);
+            }
+        }
+        
+        log.info("Recebido lote de {} eventos de rastreamento: {} válidos, {} rejeitados", 
+                 requests.size(), validEvents.size(), errors.size());
+        
+        int messagesPublished = validEvents.isEmpty() ? 0 : trackingEventProducer.sendTrackingEventBatch(validEvents);
+        
+        TrackingEventBatchResponse response = TrackingEventBatchResponse.builder()
+                .received(requests.size())
+                .accepted(validEvents.size())
+                .rejected(errors.size())
+                .messagesPublished(messagesPublished)
+                .errors(errors)
+                .build();
+        
+        HttpStatus status = validEvents.isEmpty() ? HttpStatus.BAD_REQUEST : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status).body(response);
+    }
+}
@@ -0,0 +1,23 @@
+package com.packagetracking.command.dto.outbox;
+
+import com.packagetracking.command.entity.OutboxEvent;
+
+import java.time.Instant;
+
+/**
+ * Notificação compacta de mudança publicada no exchange package.changes.
+ * Carrega apenas o suficiente para invalidar cache ou disparar a releitura do pacote.
+ */
+public record PackageChangeEvent(
+    long sequence,
+    String type,
+    String packageId,
+    String status,
+    Instant occurredAt
+) {
+    
+    public static PackageChangeEvent from(OutboxEvent event) {
+        return new PackageChangeEvent(event.getId(), event.getEventType().name(), event.getPackageId(),
+                                      event.getStatus(), event.getCreatedAt());
+    }
+}
@@ -0,0 +1,30 @@
+package com.packagetracking.command.dto.packages;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Resultado de um item do manifesto de criação em lote, emitido como uma linha NDJSON
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PackageBulkItemResult {
+    
+    public static final String CREATED = "CREATED";
+    public static final String REJECTED = "REJECTED";
+    public static final String FAILED = "FAILED";
+    
+    private int index;
+    private String id;
+    private String status;
+    private String message;
+    private Map<String, String> errors;
+}
@@ -0,0 +1,55 @@
+package com.packagetracking.command.dto.tracking;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estado e progresso de um replay do parking lot
+ */
+@Getter
+public class DlqReplayJob {
+    
+    public enum State { RUNNING, COMPLETED, CANCELLED, FAILED }
+    
+    private final String id;
+    private final DlqReplayRequest request;
+    private final Instant startedAt = Instant.now();
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong matched = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong requeued = new AtomicLong();
+    private volatile long totalToScan;
+    private volatile State state = State.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    
+    public DlqReplayJob(String id, DlqReplayRequest request) {
+        this.id = id;
+        this.request = request;
+    }
+    
+    public void setTotalToScan(long totalToScan) {
+        this.totalToScan = totalToScan;
+    }
+    
+    public boolean isCancelled() {
+        return state == State.CANCELLED;
+    }
+    
+    public void cancel() {
+        if (state == State.RUNNING) {
+            state = State.CANCELLED;
+        }
+    }
+    
+    public void finish(State finalState, String error) {
+        if (state == State.RUNNING) {
+            state = finalState;
+        }
+        this.error = error;
+        this.finishedAt = Instant.now();
+    }
+}
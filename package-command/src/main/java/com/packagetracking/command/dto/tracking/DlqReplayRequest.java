@@ -0,0 +1,61 @@
+package com.packagetracking.command.dto.tracking;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtros e limites de um replay do parking lot. Filtros nulos não restringem a seleção.
+ */
+public record DlqReplayRequest(
+    String packageId,
+    String errorType,
+    LocalDateTime failedFrom,
+    LocalDateTime failedTo,
+    Mode mode,
+    
+    @Min(value = 1, message = "batchSize deve ser no mínimo 1")
+    @Max(value = 5000, message = "batchSize deve ser no máximo 5000")
+    Integer batchSize,
+    
+    @Min(value = 1, message = "eventsPerSecond deve ser no mínimo 1")
+    Integer eventsPerSecond
+) {
+    
+    public enum Mode {
+        /** Publica o evento original de volta na fila principal */
+        REPUBLISH,
+        /** Insere os eventos diretamente no banco em lotes */
+        BULK_INSERT
+    }
+    
+    public Mode modeOrDefault() {
+        return mode != null ? mode : Mode.BULK_INSERT;
+    }
+    
+    public int batchSizeOrDefault() {
+        return batchSize != null ? batchSize : 500;
+    }
+    
+    public int eventsPerSecondOrDefault() {
+        return eventsPerSecond != null ? eventsPerSecond : 1000;
+    }
+    
+    public boolean matches(TrackingEventDLQMessage message) {
+        if (message.getOriginalMessage() == null) {
+            return false;
+        }
+        if (packageId != null && !packageId.equals(message.getOriginalMessage().packageId())) {
+            return false;
+        }
+        if (errorType != null && !errorType.equals(message.getErrorType()) && !errorType.equals(message.getErrorFingerprint())) {
+            return false;
+        }
+        LocalDateTime failedAt = message.getFailedAt();
+        if (failedFrom != null && (failedAt == null || failedAt.isBefore(failedFrom))) {
+            return false;
+        }
+        return failedTo == null || (failedAt != null && !failedAt.isAfter(failedTo));
+    }
+}
@@ -0,0 +1,36 @@
+package com.packagetracking.command.dto.tracking;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Erro registrado no catálogo local: o stack trace completo é guardado uma única vez por fingerprint
+ */
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ErrorCatalogEntry {
+    
+    private final String fingerprint;
+    private final String errorType;
+    private final String firstMessage;
+    private final String stackTrace;
+    private final Instant firstSeen;
+    private volatile Instant lastSeen;
+    private volatile long occurrences;
+    
+    public ErrorCatalogEntry(String fingerprint, String errorType, String firstMessage, String stackTrace) {
+        this.fingerprint = fingerprint;
+        this.errorType = errorType;
+        this.firstMessage = firstMessage;
+        this.stackTrace = stackTrace;
+        this.firstSeen = Instant.now();
+        this.lastSeen = firstSeen;
+    }
+    
+    public synchronized long recordOccurrence() {
+        lastSeen = Instant.now();
+        return ++occurrences;
+    }
+}
@@ -0,0 +1,20 @@
+package com.packagetracking.command.dto.tracking;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Mensagem AMQP com vários eventos de rastreamento, publicada pelo endpoint de lote
+ * e desempacotada pelo consumer em uma única inserção em lote
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrackingEventBatchMessage {
+    
+    private String batchId;
+    private List<TrackingEventRequest> events;
+}
@@ -0,0 +1,26 @@
+package com.packagetracking.command.dto.tracking;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Resumo do recebimento de um lote de eventos; erros são indexados pela posição do evento no lote
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class TrackingEventBatchResponse {
+    
+    private int received;
+    private int accepted;
+    private int rejected;
+    private int messagesPublished;
+    private Map<Integer, Map<String, String>> errors;
+}
@@ -1,6 +1,7 @@
 package com.packagetracking.command.dto.tracking;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -8,44 +9,47 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 /**
- * DTO para mensagens que falharam no processamento e foram enviadas para DLQ
+ * DTO para mensagens que falharam no processamento e foram enviadas para DLQ.
+ * O stack trace não viaja com a mensagem: errorFingerprint referencia a entrada do catálogo de erros do consumer.
  */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class TrackingEventDLQMessage {
-    
+
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 200;
+
     private TrackingEventRequest originalMessage;
     private String errorMessage;
     private String errorType;
-    private String stackTrace;
-    
+    private String errorFingerprint;
+    private long errorOccurrences;
+
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime failedAt;
-    
+
     private String consumerThread;
     private String consumerInstance;
-    
-    public static TrackingEventDLQMessage fromException(TrackingEventRequest originalMessage, Exception exception, String threadName) {
+
+    public static TrackingEventDLQMessage fromException(TrackingEventRequest originalMessage, Exception exception,
+                                                        String threadName, ErrorCatalogEntry catalogEntry) {
         return new TrackingEventDLQMessage(
             originalMessage,
-            exception.getMessage(),
+            truncate(exception.getMessage()),
             exception.getClass().getSimpleName(),
-            getStackTraceAsString(exception),
+            catalogEntry.getFingerprint(),
+            catalogEntry.getOccurrences(),
             LocalDateTime.now(),
             threadName,
             "event-consumer-" + System.getProperty("server.port", "8080")
         );
     }
-    
-    private static String getStackTraceAsString(Exception exception) {
-        StringBuilder sb = new StringBuilder();
-        sb.append(exception.toString()).append("\n");
-        
-        for (StackTraceElement element : exception.getStackTrace()) {
-            sb.append("\tat ").append(element.toString()).append("\n");
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_MESSAGE_LENGTH) {
+            return message;
         }
-        
-        return sb.toString();
+        return message.substring(0, MAX_ERROR_MESSAGE_LENGTH) + "...";
     }
-} 
\ No newline at end of file
+}
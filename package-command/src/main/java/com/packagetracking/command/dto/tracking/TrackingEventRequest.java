@@ -25,5 +25,17 @@ public record TrackingEventRequest(
     @NotNull(message = "Data do evento é obrigatória")
     @PastOrPresent(message = "A data deve ser no passado ou presente")
     @JsonProperty("date")
-    LocalDateTime date
-) {} 
\ No newline at end of file
+    LocalDateTime date,
+    
+    /**
+     * Chave de idempotência opcional enviada pelo cliente; quando ausente, a chave do evento é derivada do seu conteúdo
+     */
+    @Size(max = 64, message = "Idempotency key must have at most 64 characters")
+    @Pattern(regexp = "^[a-zA-Z0-9._:-]*$", message = "Idempotency key must contain only letters, numbers, '.', '_', ':' and '-'")
+    String idempotencyKey
+) {
+    
+    public TrackingEventRequest(String packageId, String location, String description, LocalDateTime date) {
+        this(packageId, location, description, date, null);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.packagetracking.command.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Registro de mudança gravado na mesma transação da alteração do pacote ou do evento.
+ * É removido pelo OutboxRelay depois que o broker confirma a publicação.
+ */
+@Entity
+@Table(name = "outbox_events")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    
+    /**
+     * Sequencial: define a ordem de publicação
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private OutboxEventType eventType;
+    
+    @Column(name = "package_id", nullable = false, length = 50)
+    private String packageId;
+    
+    @Column(name = "status", length = 20)
+    private String status;
+    
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
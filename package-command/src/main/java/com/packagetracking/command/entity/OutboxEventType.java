@@ -0,0 +1,20 @@
+package com.packagetracking.command.entity;
+
+/**
+ * Tipos de mudança publicados pelo outbox. O sufixo compõe a routing key no exchange package.changes.
+ */
+public enum OutboxEventType {
+    PACKAGE_CREATED("created"),
+    PACKAGE_STATUS_CHANGED("status-changed"),
+    TRACKING_EVENT_ADDED("tracking-event-added");
+    
+    private final String routingSuffix;
+    
+    OutboxEventType(String routingSuffix) {
+        this.routingSuffix = routingSuffix;
+    }
+    
+    public String routingSuffix() {
+        return routingSuffix;
+    }
+}
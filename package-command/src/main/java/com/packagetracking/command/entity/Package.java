@@ -1,5 +1,6 @@
 package com.packagetracking.command.entity;
 
+import com.packagetracking.command.util.LookupHash;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -13,10 +14,15 @@ import java.time.LocalDate;
 
 @Entity
 @Table(name = "packages", indexes = {
-    @Index(name = "idx_package_sender", columnList = "sender"),
-    @Index(name = "idx_package_recipient", columnList = "recipient"),
+    @Index(name = "idx_package_sender_lookup", columnList = "sender_hash, recipient_hash, createdAt"),
+    @Index(name = "idx_package_recipient_lookup", columnList = "recipient_hash, createdAt"),
+    @Index(name = "idx_package_sender_created", columnList = "sender, createdAt"),
+    @Index(name = "idx_package_recipient_created", columnList = "recipient, createdAt"),
     @Index(name = "idx_package_createdAt", columnList = "createdAt"),
-    @Index(name = "idx_package_status", columnList = "status")
+    @Index(name = "idx_package_status_updated", columnList = "status, updatedAt"),
+    @Index(name = "idx_package_updated", columnList = "updatedAt"),
+    @Index(name = "idx_package_status_created", columnList = "status, createdAt"),
+    @Index(name = "idx_package_estimated_delivery", columnList = "estimatedDeliveryDate")
 })
 @Data
 @Builder
@@ -40,6 +46,15 @@ public class Package {
     @Column(name = "recipient", nullable = false, length = 200)
     private String recipient;
     
+    /**
+     * Chaves de busca derivadas de sender/recipient (LookupHash); índices de 16 bytes no lugar do texto livre
+     */
+    @Column(name = "sender_hash", columnDefinition = "binary(16)")
+    private byte[] senderHash;
+    
+    @Column(name = "recipient_hash", columnDefinition = "binary(16)")
+    private byte[] recipientHash;
+    
     @Column(name = "isHolliday", nullable = false)
     private Boolean isHolliday;
     
@@ -60,4 +75,11 @@ public class Package {
 
     @Column(name = "deliveredAt")
     private Instant deliveredAt;
+
+    @PrePersist
+    @PreUpdate
+    void updateLookupHashes() {
+        senderHash = LookupHash.of(sender);
+        recipientHash = LookupHash.of(recipient);
+    }
 } 
\ No newline at end of file
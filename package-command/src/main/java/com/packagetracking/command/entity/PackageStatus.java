@@ -1,8 +1,24 @@
 package com.packagetracking.command.entity;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum PackageStatus {
     CREATED,
     IN_TRANSIT,
     DELIVERED,
-    CANCELLED
-} 
\ No newline at end of file
+    CANCELLED;
+
+    /**
+     * Status a partir dos quais é permitido transicionar para este status
+     * Fluxo obrigatório: CREATED -> IN_TRANSIT -> DELIVERED
+     * Cancelamento: CREATED -> CANCELLED
+     */
+    public Set<PackageStatus> allowedPredecessors() {
+        return switch (this) {
+            case IN_TRANSIT, CANCELLED -> EnumSet.of(CREATED);
+            case DELIVERED -> EnumSet.of(IN_TRANSIT);
+            case CREATED -> EnumSet.noneOf(PackageStatus.class);
+        };
+    }
+}
@@ -5,14 +5,15 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.Instant;
 
 @Entity
 @Table(name = "tracking_events", indexes = {
-    @Index(name = "idx_tracking_packageId", columnList = "packageId"),
+    @Index(name = "idx_tracking_package_date", columnList = "packageId, date"),
     @Index(name = "idx_tracking_date", columnList = "date")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_tracking_event_key", columnNames = "event_key")
 })
 @Data
 @Builder
@@ -35,8 +36,16 @@ public class TrackingEvent {
     @Column(name = "description", nullable = false, length = 500)
     private String description;
 
-    @CreationTimestamp
+    /**
+     * Data do evento informada pelo scanner. Faz parte da chave do evento, por isso não é sobrescrita na inserção.
+     */
     @Column(name = "date", nullable = false, updatable = false)
     private Instant date;
+    
+    /**
+     * SHA-256 determinístico do evento (ver TrackingEventKey), protegido por índice único
+     */
+    @Column(name = "event_key", length = 64, updatable = false)
+    private String eventKey;
 
 } 
\ No newline at end of file
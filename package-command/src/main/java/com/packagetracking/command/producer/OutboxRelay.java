@@ -0,0 +1,159 @@
+package com.packagetracking.command.producer;
+
+import com.packagetracking.command.constants.MessageConstants;
+import com.packagetracking.command.dto.outbox.PackageChangeEvent;
+import com.packagetracking.command.entity.OutboxEvent;
+import com.packagetracking.command.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.packagetracking.command.config.RabbitMQConfig.PACKAGE_CHANGES_EXCHANGE;
+import static com.packagetracking.command.config.RabbitMQConfig.packageChangeRoutingKey;
+
+/**
+ * Publica os registros do outbox no exchange package.changes.
+ * Cada ciclo reserva um lote com SELECT ... FOR UPDATE SKIP LOCKED, publica, aguarda os confirms do broker
+ * e só então remove os registros, na mesma transação. Falhas deixam o lote para o próximo ciclo (at-least-once).
+ */
+@Component
+@Slf4j
+@ConditionalOnExpression("${app.resources.queues:false} and ${app.outbox.relay.enabled:true}")
+public class OutboxRelay implements SmartLifecycle {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final long confirmTimeoutMs;
+
+    private final Counter published;
+    private final Counter failures;
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       RabbitTemplate rabbitTemplate,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.outbox.relay.batch-size:200}") int batchSize,
+                       @Value("${app.outbox.relay.poll-interval-ms:200}") long pollIntervalMs,
+                       @Value("${app.outbox.relay.confirm-timeout-ms:5000}") long confirmTimeoutMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.pollIntervalMs = pollIntervalMs;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+
+        this.published = Counter.builder("package.outbox.published")
+            .description("Notificações de mudança publicadas a partir do outbox")
+            .register(meterRegistry);
+        this.failures = Counter.builder("package.outbox.relay.failures")
+            .description("Ciclos do relay interrompidos por erro de publicação ou de banco")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("outbox-relay").factory());
+        scheduler.scheduleWithFixedDelay(this::drain, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        running = true;
+        log.info("Relay do outbox iniciado - lotes de {} registros a cada {} ms", batchSize, pollIntervalMs);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Publica lotes em sequência enquanto houver backlog; com o outbox vazio, aguarda o próximo ciclo
+     */
+    void drain() {
+        try {
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize && running);
+        } catch (Exception e) {
+            failures.increment();
+            log.warn("Erro no relay do outbox, lote mantido para o próximo ciclo: {}", e.getMessage());
+        }
+    }
+
+    int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            publishAndAwaitConfirms(batch);
+            outboxEventRepository.deleteAllByIdInBatch(batch.stream().map(OutboxEvent::getId).toList());
+            return batch.size();
+        });
+
+        int count = relayed != null ? relayed : 0;
+        if (count > 0) {
+            published.increment(count);
+            log.debug("{} notificações de mudança publicadas pelo outbox", count);
+        }
+        return count;
+    }
+
+    private void publishAndAwaitConfirms(List<OutboxEvent> batch) {
+        List<CorrelationData> correlations = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            CorrelationData correlationData = new CorrelationData("outbox-" + event.getId());
+            rabbitTemplate.convertAndSend(PACKAGE_CHANGES_EXCHANGE, packageChangeRoutingKey(event.getEventType()),
+                                          PackageChangeEvent.from(event), correlationData);
+            correlations.add(correlationData);
+        }
+
+        if (!rabbitTemplate.getConnectionFactory().isPublisherConfirms()) {
+            return;
+        }
+
+        for (CorrelationData correlationData : correlations) {
+            try {
+                CorrelationData.Confirm confirm = correlationData.getFuture().get(confirmTimeoutMs, TimeUnit.MILLISECONDS);
+                if (!confirm.isAck()) {
+                    throw new RuntimeException(String.format(MessageConstants.OUTBOX_PUBLISH_NACK, correlationData.getId(), confirm.getReason()));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(MessageConstants.OUTBOX_PUBLISH_INTERRUPTED, e);
+            } catch (Exception e) {
+                if (e instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new RuntimeException(String.format(MessageConstants.OUTBOX_PUBLISH_NACK, correlationData.getId(), e.getMessage()), e);
+            }
+        }
+    }
+}
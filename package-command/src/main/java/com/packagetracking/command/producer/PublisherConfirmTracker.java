@@ -0,0 +1,222 @@
+package com.packagetracking.command.producer;
+
+import com.packagetracking.command.config.RequestContext;
+import com.packagetracking.command.service.TrackingPipelineMetrics;
+import com.packagetracking.command.util.UuidGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publica mensagens com publisher confirms assíncronos.
+ * Cada publicação recebe um CorrelationData e ocupa uma vaga da janela de confirms pendentes;
+ * a vaga é liberada quando o broker confirma (ack) ou rejeita (nack) a mensagem.
+ * Mensagens com nack são republicadas até o limite de tentativas, sem bloquear a requisição HTTP.
+ * Toda mensagem leva o instante de entrada no pipeline (header x-ingested-at) e o timestamp AMQP do envio,
+ * usados pelo consumidor para medir a espera na fila e a latência ponta a ponta, além dos IDs da requisição de origem
+ * (headers x-request-id/x-correlation-id), mantidos também nas republicações feitas fora da thread da requisição.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.resources.endpoints", havingValue = "events")
+public class PublisherConfirmTracker {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final TrackingPipelineMetrics pipelineMetrics;
+    private final Executor retryExecutor;
+    private final Semaphore window;
+    private final Map<String, PendingPublish> pending = new ConcurrentHashMap<>();
+    private final long acquireTimeoutMs;
+    private final int maxRetries;
+
+    private final Timer ackLatency;
+    private final Timer nackLatency;
+    private final Timer returnedLatency;
+    private final Counter retried;
+    private final Counter failed;
+    private final Counter returned;
+
+    private volatile boolean confirmsEnabled;
+
+    public PublisherConfirmTracker(RabbitTemplate rabbitTemplate,
+                                   MeterRegistry meterRegistry,
+                                   TrackingPipelineMetrics pipelineMetrics,
+                                   @Qualifier("externalApiExecutor") Executor retryExecutor,
+                                   @Value("${app.rabbitmq.publisher-confirms.max-outstanding:1000}") int maxOutstanding,
+                                   @Value("${app.rabbitmq.publisher-confirms.acquire-timeout-ms:500}") long acquireTimeoutMs,
+                                   @Value("${app.rabbitmq.publisher-confirms.max-retries:3}") int maxRetries) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.pipelineMetrics = pipelineMetrics;
+        this.retryExecutor = retryExecutor;
+        this.window = new Semaphore(maxOutstanding);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.maxRetries = maxRetries;
+
+        this.ackLatency = confirmLatencyTimer(meterRegistry, "ack");
+        this.nackLatency = confirmLatencyTimer(meterRegistry, "nack");
+        this.returnedLatency = confirmLatencyTimer(meterRegistry, "returned");
+        this.retried = Counter.builder("tracking.publisher.confirms.retried")
+            .description("Mensagens republicadas após nack do broker")
+            .register(meterRegistry);
+        this.failed = Counter.builder("tracking.publisher.confirms.failed")
+            .description("Mensagens descartadas após esgotar as tentativas de publicação")
+            .register(meterRegistry);
+        this.returned = Counter.builder("tracking.publisher.returns")
+            .description("Mensagens devolvidas pelo broker por falta de rota")
+            .register(meterRegistry);
+        Gauge.builder("tracking.publisher.confirms.outstanding", pending, Map::size)
+            .description("Publicações aguardando confirm do broker")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void registerCallbacks() {
+        confirmsEnabled = rabbitTemplate.getConnectionFactory().isPublisherConfirms();
+        if (!confirmsEnabled) {
+            log.warn("Publisher confirms desabilitados na ConnectionFactory " +
+                     "(spring.rabbitmq.publisher-confirm-type=correlated); publicações não serão confirmadas");
+            return;
+        }
+
+        rabbitTemplate.setConfirmCallback(this::handleConfirm);
+        rabbitTemplate.setReturnsCallback(this::handleReturn);
+        log.info("Publisher confirms habilitados - janela de {} confirms pendentes", window.availablePermits());
+    }
+
+    /**
+     * Publica a mensagem sem aguardar o confirm. Bloqueia apenas quando a janela de confirms pendentes está cheia,
+     * por no máximo app.rabbitmq.publisher-confirms.acquire-timeout-ms.
+     */
+    public void publish(String exchange, String routingKey, Object payload) {
+        pipelineMetrics.observe(TrackingPipelineMetrics.STAGE_PUBLISH, () -> doPublish(exchange, routingKey, payload));
+    }
+
+    private void doPublish(String exchange, String routingKey, Object payload) {
+        long ingestedAt = System.currentTimeMillis();
+        RequestContext.Ids origin = RequestContext.current();
+        if (!confirmsEnabled) {
+            rabbitTemplate.convertAndSend(exchange, routingKey, payload, stampHeaders(ingestedAt, origin));
+            return;
+        }
+
+        try {
+            if (!window.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new RuntimeException("Janela de publisher confirms cheia: " + pending.size() + " publicações pendentes");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Publicação interrompida aguardando janela de publisher confirms", e);
+        }
+
+        send(new PendingPublish(exchange, routingKey, payload, 1, System.nanoTime(), ingestedAt, origin));
+    }
+
+    int outstanding() {
+        return pending.size();
+    }
+
+    private void send(PendingPublish publish) {
+        CorrelationData correlationData = new CorrelationData(UuidGenerator.generateOptimizedUuid());
+        pending.put(correlationData.getId(), publish);
+
+        try {
+            rabbitTemplate.convertAndSend(publish.exchange(), publish.routingKey(), publish.payload(),
+                                          stampHeaders(publish.ingestedAt(), publish.origin()), correlationData);
+        } catch (RuntimeException e) {
+            pending.remove(correlationData.getId());
+            window.release();
+            throw e;
+        }
+    }
+
+    private void handleConfirm(CorrelationData correlationData, boolean ack, String cause) {
+        if (correlationData == null || correlationData.getId() == null) {
+            return;
+        }
+
+        PendingPublish publish = pending.remove(correlationData.getId());
+        if (publish == null) {
+            return;
+        }
+
+        Timer latency = !ack ? nackLatency : correlationData.getReturned() != null ? returnedLatency : ackLatency;
+        latency.record(System.nanoTime() - publish.startNanos(), TimeUnit.NANOSECONDS);
+
+        if (ack) {
+            // Mensagens devolvidas (sem rota) também recebem ack; republicar não resolveria a falta de rota
+            window.release();
+            return;
+        }
+
+        if (publish.attempt() > maxRetries) {
+            window.release();
+            failed.increment();
+            log.error("Publicação descartada após {} tentativas - Exchange: {}, RoutingKey: {}, Causa: {}",
+                      publish.attempt(), publish.exchange(), publish.routingKey(), cause);
+            return;
+        }
+
+        // A vaga da janela é mantida para a republicação, feita fora da thread de callback do canal AMQP
+        retried.increment();
+        log.warn("Nack do broker, republicando - Exchange: {}, RoutingKey: {}, Tentativa: {}, Causa: {}",
+                 publish.exchange(), publish.routingKey(), publish.attempt() + 1, cause);
+        retryExecutor.execute(() -> retry(publish));
+    }
+
+    private void retry(PendingPublish publish) {
+        try {
+            send(new PendingPublish(publish.exchange(), publish.routingKey(), publish.payload(),
+                                    publish.attempt() + 1, System.nanoTime(), publish.ingestedAt(), publish.origin()));
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.error("Erro ao republicar mensagem - Exchange: {}, RoutingKey: {}: {}",
+                      publish.exchange(), publish.routingKey(), e.getMessage(), e);
+        }
+    }
+
+    private void handleReturn(ReturnedMessage returnedMessage) {
+        returned.increment();
+        log.error("Mensagem devolvida pelo broker - Exchange: {}, RoutingKey: {}, Código: {}, Motivo: {}",
+                  returnedMessage.getExchange(), returnedMessage.getRoutingKey(),
+                  returnedMessage.getReplyCode(), returnedMessage.getReplyText());
+    }
+
+    private static MessagePostProcessor stampHeaders(long ingestedAt, RequestContext.Ids origin) {
+        return message -> {
+            message.getMessageProperties().setHeader(TrackingPipelineMetrics.INGESTED_AT_HEADER, ingestedAt);
+            message.getMessageProperties().setTimestamp(new Date());
+            RequestContext.stamp(message.getMessageProperties(), origin);
+            return message;
+        };
+    }
+
+    private static Timer confirmLatencyTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("tracking.publisher.confirm.latency")
+            .description("Tempo entre a publicação e o confirm do broker")
+            .tag("outcome", outcome)
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+    }
+
+    private record PendingPublish(String exchange, String routingKey, Object payload, int attempt, long startNanos,
+                                  long ingestedAt, RequestContext.Ids origin) {
+    }
+}
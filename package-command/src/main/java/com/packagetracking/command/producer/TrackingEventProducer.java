@@ -1,12 +1,21 @@
 package com.packagetracking.command.producer;
 
+import com.packagetracking.command.config.TrackingEventShardingProperties;
+import com.packagetracking.command.dto.tracking.TrackingEventBatchMessage;
 import com.packagetracking.command.dto.tracking.TrackingEventRequest;
+import com.packagetracking.command.util.UuidGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.packagetracking.command.config.RabbitMQConfig.TRACKING_EVENTS_BATCH_ROUTING_KEY;
 import static com.packagetracking.command.config.RabbitMQConfig.TRACKING_EVENTS_EXCHANGE;
 
 @Component
@@ -15,7 +24,11 @@ import static com.packagetracking.command.config.RabbitMQConfig.TRACKING_EVENTS_
 @ConditionalOnProperty(name = "app.resources.endpoints", havingValue = "events")
 public class TrackingEventProducer {
     
-    private final RabbitTemplate rabbitTemplate;
+    private final PublisherConfirmTracker publisherConfirmTracker;
+    private final TrackingEventShardingProperties shardingProperties;
+    
+    @Value("${app.tracking.batch.events-per-message:200}")
+    private int eventsPerMessage;
     
     /**
      * Envia evento de rastreamento para a fila RabbitMQ
@@ -24,9 +37,9 @@ public class TrackingEventProducer {
         try {
             log.info("Enviando evento de rastreamento para fila: {}", event.packageId());
             
-            rabbitTemplate.convertAndSend(
+            publisherConfirmTracker.publish(
                 TRACKING_EVENTS_EXCHANGE,
-                "tracking.events",
+                shardingProperties.isEnabled() ? shardingProperties.routingKeyFor(event.packageId()) : "tracking.events",
                 event
             );
             
@@ -38,4 +51,50 @@ public class TrackingEventProducer {
             throw new RuntimeException("Erro ao enviar evento de rastreamento", e);
         }
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Envia eventos de rastreamento agrupados em mensagens de até app.tracking.batch.events-per-message eventos.
+     * Com sharding habilitado, os eventos são agrupados por shard antes de serem fatiados, preservando a ordem por pacote.
+     * Retorna a quantidade de mensagens publicadas.
+     */
+    public int sendTrackingEventBatch(List<TrackingEventRequest> events) {
+        Map<String, List<TrackingEventRequest>> eventsByRoutingKey = new LinkedHashMap<>();
+        if (shardingProperties.isEnabled()) {
+            for (TrackingEventRequest event : events) {
+                eventsByRoutingKey.computeIfAbsent(shardingProperties.routingKeyFor(event.packageId()), key -> new ArrayList<>())
+                    .add(event);
+            }
+        } else {
+            eventsByRoutingKey.put(TRACKING_EVENTS_BATCH_ROUTING_KEY, events);
+        }
+        
+        int messages = 0;
+        for (Map.Entry<String, List<TrackingEventRequest>> entry : eventsByRoutingKey.entrySet()) {
+            messages += publishBatches(entry.getKey(), entry.getValue());
+        }
+        
+        log.info("{} eventos de rastreamento enviados em {} mensagens", events.size(), messages);
+        return messages;
+    }
+    
+    private int publishBatches(String routingKey, List<TrackingEventRequest> events) {
+        int messages = 0;
+        for (int offset = 0; offset < events.size(); offset += eventsPerMessage) {
+            List<TrackingEventRequest> slice = events.subList(offset, Math.min(offset + eventsPerMessage, events.size()));
+            TrackingEventBatchMessage batch = new TrackingEventBatchMessage(UuidGenerator.generateOptimizedUuid(), List.copyOf(slice));
+            
+            try {
+                publisherConfirmTracker.publish(TRACKING_EVENTS_EXCHANGE, routingKey, batch);
+                messages++;
+                
+                log.debug("Lote {} enviado para {} com {} eventos", batch.getBatchId(), routingKey, slice.size());
+                
+            } catch (Exception e) {
+                log.error("Erro ao enviar lote {} de eventos de rastreamento ({} eventos): {}", 
+                          batch.getBatchId(), slice.size(), e.getMessage(), e);
+                throw new RuntimeException("Erro ao enviar lote de eventos de rastreamento", e);
+            }
+        }
+        return messages;
+    }
+}
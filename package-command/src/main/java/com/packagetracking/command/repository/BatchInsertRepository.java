@@ -0,0 +1,16 @@
+package com.packagetracking.command.repository;
+
+import java.util.List;
+
+/**
+ * Fragmento de repositório para inserção em lote de entidades novas
+ */
+public interface BatchInsertRepository<T> {
+    
+    /**
+     * Persiste entidades novas em lotes JDBC (persist + flush/clear a cada hibernate.jdbc.batch_size).
+     * Diferente de saveAll, não executa o SELECT de merge que o Spring Data faz
+     * para entidades com ID atribuído, permitindo que o driver agrupe os INSERTs.
+     */
+    void persistAllInBatches(List<T> entities);
+}
@@ -0,0 +1,17 @@
+package com.packagetracking.command.repository;
+
+import com.packagetracking.command.entity.TrackingEvent;
+
+import java.util.List;
+
+/**
+ * Fragmento de repositório para inserção de eventos que ignora chaves de evento já existentes
+ */
+public interface IdempotentInsertRepository {
+    
+    /**
+     * Insere os eventos com INSERT IGNORE multi-linha, delegando a deduplicação ao índice único de event_key.
+     * Retorna quantos eventos foram de fato inseridos; a diferença para o total são duplicados.
+     */
+    int insertIgnoringDuplicates(List<TrackingEvent> events);
+}
@@ -0,0 +1,49 @@
+package com.packagetracking.command.repository;
+
+import com.packagetracking.command.entity.TrackingEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class IdempotentInsertRepositoryImpl implements IdempotentInsertRepository {
+    
+    private static final String INSERT_PREFIX =
+        "INSERT IGNORE INTO tracking_events (id, package_id, location, description, date, event_key) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+    
+    public IdempotentInsertRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    public int insertIgnoringDuplicates(List<TrackingEvent> events) {
+        int inserted = 0;
+        for (int from = 0; from < events.size(); from += batchSize) {
+            List<TrackingEvent> chunk = events.subList(from, Math.min(from + batchSize, events.size()));
+            
+            // Um único statement por lote: o total de linhas afetadas conta apenas as inseridas,
+            // o que não acontece com batchUpdate quando o driver reescreve o lote (rewriteBatchedStatements)
+            String sql = INSERT_PREFIX + String.join(", ", Collections.nCopies(chunk.size(), ROW_PLACEHOLDERS));
+            List<Object> args = new ArrayList<>(chunk.size() * 6);
+            for (TrackingEvent event : chunk) {
+                args.add(event.getId());
+                args.add(event.getPackageId());
+                args.add(event.getLocation());
+                args.add(event.getDescription());
+                args.add(Timestamp.from(event.getDate()));
+                args.add(event.getEventKey());
+            }
+            inserted += jdbcTemplate.update(sql, args.toArray());
+        }
+        return inserted;
+    }
+}
@@ -0,0 +1,17 @@
+package com.packagetracking.command.repository;
+
+import com.packagetracking.command.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Fragmento de repositório para gravação em lote no outbox
+ */
+public interface OutboxAppendRepository {
+    
+    /**
+     * Insere os registros com INSERT multi-linha. O ID é IDENTITY, o que impediria o Hibernate
+     * de agrupar os INSERTs em lotes JDBC.
+     */
+    void append(List<OutboxEvent> events);
+}
@@ -0,0 +1,42 @@
+package com.packagetracking.command.repository;
+
+import com.packagetracking.command.entity.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class OutboxAppendRepositoryImpl implements OutboxAppendRepository {
+    
+    private static final String INSERT_PREFIX = "INSERT INTO outbox_events (event_type, package_id, status, created_at) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+    
+    public OutboxAppendRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    public void append(List<OutboxEvent> events) {
+        for (int from = 0; from < events.size(); from += batchSize) {
+            List<OutboxEvent> chunk = events.subList(from, Math.min(from + batchSize, events.size()));
+            
+            String sql = INSERT_PREFIX + String.join(", ", Collections.nCopies(chunk.size(), ROW_PLACEHOLDERS));
+            List<Object> args = new ArrayList<>(chunk.size() * 4);
+            for (OutboxEvent event : chunk) {
+                args.add(event.getEventType().name());
+                args.add(event.getPackageId());
+                args.add(event.getStatus());
+                args.add(Timestamp.from(event.getCreatedAt()));
+            }
+            jdbcTemplate.update(sql, args.toArray());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.packagetracking.command.repository;
+
+import com.packagetracking.command.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long>, OutboxAppendRepository {
+    
+    /**
+     * Reserva o próximo lote pendente. SKIP LOCKED permite várias instâncias do relay sem publicar o mesmo registro duas vezes
+     */
+    @Query(value = "SELECT * FROM outbox_events ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+}
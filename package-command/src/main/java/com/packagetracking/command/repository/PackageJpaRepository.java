@@ -1,20 +1,24 @@
 package com.packagetracking.command.repository;
 
 import com.packagetracking.command.entity.Package;
+import com.packagetracking.command.entity.PackageStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface PackageJpaRepository extends JpaRepository<Package, String> {
+public interface PackageJpaRepository extends JpaRepository<Package, String>, BatchInsertRepository<Package> {
     
     /**
      * Verifica se existe pacote com ID
@@ -26,6 +30,32 @@ public interface PackageJpaRepository extends JpaRepository<Package, String> {
      */
     Optional<Package> findById(String id);
     
+    /**
+     * Transição de status condicional em um único UPDATE.
+     * Só altera a linha se o status atual estiver entre os predecessores permitidos;
+     * o número de linhas afetadas indica se a transição foi aplicada.
+     * deliveredAt só é gravado enquanto a coluna estiver nula; nulo preserva o valor atual.
+     * Limpa o contexto de persistência para que leituras seguintes na transação enxerguem a linha atualizada.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Package p SET p.status = :newStatus, p.updatedAt = :updatedAt, " +
+           "p.deliveredAt = COALESCE(p.deliveredAt, :deliveredAt) " +
+           "WHERE p.id = :id AND p.status IN :allowedStatuses")
+    int transitionStatus(@Param("id") String id,
+                         @Param("newStatus") PackageStatus newStatus,
+                         @Param("allowedStatuses") Collection<PackageStatus> allowedStatuses,
+                         @Param("updatedAt") Instant updatedAt,
+                         @Param("deliveredAt") Instant deliveredAt);
+    
+    /**
+     * Leitura com lock (SELECT ... FOR UPDATE) usada para diagnosticar uma transição recusada.
+     * É uma leitura corrente: sob REPEATABLE READ não devolve o snapshot anterior ao UPDATE,
+     * e segura a linha até o fim da transação para que o diagnóstico não mude durante a verificação.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Package p WHERE p.id = :id")
+    Optional<Package> findByIdForUpdate(@Param("id") String id);
+    
     @Query(value = "SELECT p.* FROM packages p WHERE p.status = :status ORDER BY p.updated_at DESC", nativeQuery = true)
     Page<Package> findByStatusWithPagination(@Param("status") String status, Pageable pageable);
     
@@ -39,9 +69,12 @@ public interface PackageJpaRepository extends JpaRepository<Package, String> {
     @Query(value = "SELECT COUNT(*) FROM packages WHERE status = :status", nativeQuery = true)
     long countByStatus(@Param("status") String status);
     
-    @Query(value = "SELECT p.* FROM packages p WHERE p.sender = :sender ORDER BY p.created_at DESC", nativeQuery = true)
-    Page<Package> findBySenderWithPagination(@Param("sender") String sender, Pageable pageable);
+    /**
+     * Busca por remetente/destinatário pela chave normalizada (LookupHash.of)
+     */
+    @Query(value = "SELECT p.* FROM packages p WHERE p.sender_hash = :senderHash ORDER BY p.created_at DESC", nativeQuery = true)
+    Page<Package> findBySenderWithPagination(@Param("senderHash") byte[] senderHash, Pageable pageable);
     
-    @Query(value = "SELECT p.* FROM packages p WHERE p.recipient = :recipient ORDER BY p.created_at DESC", nativeQuery = true)
-    Page<Package> findByRecipientWithPagination(@Param("recipient") String recipient, Pageable pageable);
+    @Query(value = "SELECT p.* FROM packages p WHERE p.recipient_hash = :recipientHash ORDER BY p.created_at DESC", nativeQuery = true)
+    Page<Package> findByRecipientWithPagination(@Param("recipientHash") byte[] recipientHash, Pageable pageable);
 } 
\ No newline at end of file
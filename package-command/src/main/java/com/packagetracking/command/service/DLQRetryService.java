@@ -1,118 +1,124 @@
 package com.packagetracking.command.service;
 
+import com.packagetracking.command.config.DlqRetryProperties;
+import com.packagetracking.command.config.RequestContext;
 import com.packagetracking.command.dto.tracking.TrackingEventDLQMessage;
-import com.packagetracking.command.dto.tracking.TrackingEventRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
-import static com.packagetracking.command.config.RabbitMQConfig.TRACKING_EVENTS_DLQ;
 import static com.packagetracking.command.config.RabbitMQConfig.TRACKING_EVENTS_EXCHANGE;
+import static com.packagetracking.command.config.RabbitMQConfig.TRACKING_EVENTS_PARKING_LOT_ROUTING_KEY;
+import static com.packagetracking.command.config.RabbitMQConfig.retryTierRoutingKey;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class DLQRetryService {
-    
+
+    /**
+     * Contador de tentativas controlado pela aplicação. O x-death não serve para isso:
+     * o RabbitMQ agrupa as entradas por fila/motivo, então a lista não cresce a cada volta.
+     */
+    public static final String RETRY_ATTEMPT_HEADER = "x-retry-attempt";
+
     private final RabbitTemplate rabbitTemplate;
-    
-    @Value("${app.dlq.max-retry-attempts:3}")
-    private int maxRetryAttempts;
-    
-    @Value("${app.dlq.retry-delay-minutes:5}")
-    private int retryDelayMinutes;
-    
+    private final DlqRetryProperties retryProperties;
+
     /**
      * Verifica se uma mensagem deve ser reprocessada baseado na política de retry
      */
     public boolean shouldRetry(Message message) {
         int retryCount = getRetryCount(message);
-        return retryCount < maxRetryAttempts;
+        return retryCount < retryProperties.getMaxRetryAttempts();
     }
-    
+
     /**
-     * Obtém o número de tentativas de reprocessamento
+     * Obtém o número de tentativas de reprocessamento já realizadas
      */
     public int getRetryCount(Message message) {
-        try {
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> deathRecords = (List<Map<String, Object>>) 
-                message.getMessageProperties().getHeaders().get("x-death");
-            
-            if (deathRecords != null && !deathRecords.isEmpty()) {
-                return deathRecords.size();
+        Object attempt = message.getMessageProperties().getHeaders().get(RETRY_ATTEMPT_HEADER);
+        if (attempt instanceof Number number) {
+            return number.intValue();
+        }
+        if (attempt != null) {
+            try {
+                return Integer.parseInt(attempt.toString());
+            } catch (NumberFormatException e) {
+                log.warn("Header {} inválido: {}", RETRY_ATTEMPT_HEADER, attempt);
             }
-        } catch (Exception e) {
-            log.warn("Erro ao obter contagem de tentativas: {}", e.getMessage());
         }
         return 0;
     }
-    
+
     /**
-     * Obtém informações detalhadas sobre as tentativas de reprocessamento
+     * Obtém informações sobre as tentativas de reprocessamento
      */
     public String getRetryInfo(Message message) {
-        try {
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> deathRecords = (List<Map<String, Object>>) 
-                message.getMessageProperties().getHeaders().get("x-death");
-            
-            if (deathRecords != null && !deathRecords.isEmpty()) {
-                StringBuilder info = new StringBuilder();
-                info.append("Tentativas: ").append(deathRecords.size()).append("/").append(maxRetryAttempts);
-                
-                for (int i = 0; i < deathRecords.size(); i++) {
-                    Map<String, Object> record = deathRecords.get(i);
-                    info.append("\n  Tentativa ").append(i + 1).append(": ")
-                        .append("Exchange=").append(record.get("exchange"))
-                        .append(", Queue=").append(record.get("queue"))
-                        .append(", Reason=").append(record.get("reason"))
-                        .append(", Time=").append(record.get("time"));
-                }
-                
-                return info.toString();
-            }
-        } catch (Exception e) {
-            log.warn("Erro ao obter informações de retry: {}", e.getMessage());
-        }
-        return "Informações de retry não disponíveis";
+        int retryCount = getRetryCount(message);
+        return "Tentativas: " + retryCount + "/" + retryProperties.getMaxRetryAttempts() +
+               (retryCount > 0 ? ", último tier: " + retryProperties.getRetryTiers().get(retryProperties.tierFor(retryCount)) : "");
     }
-    
+
     /**
-     * Envia mensagem para retry com delay configurado
+     * Envia mensagem para a fila de espera do tier correspondente à próxima tentativa.
+     * O atraso é definido por mensagem, com jitter, para que falhas simultâneas não voltem todas juntas.
      */
     public void sendToRetry(TrackingEventDLQMessage dlqMessage, int retryCount) {
+        int attempt = retryCount + 1;
+        int tier = retryProperties.tierFor(attempt);
+        long delayMs = retryDelayMs(attempt);
+
         try {
-            // Adiciona informações de retry à mensagem
             dlqMessage.setFailedAt(LocalDateTime.now());
-            
-            // Envia para a fila de retry da DLQ
-            rabbitTemplate.convertAndSend(TRACKING_EVENTS_EXCHANGE, "tracking.events.dlq.retry", dlqMessage);
-            
-            log.info("Mensagem enviada para retry - Pacote: {}, Tentativa: {}/{}, Delay: {} minutos", 
-                     dlqMessage.getOriginalMessage().packageId(), retryCount + 1, maxRetryAttempts, retryDelayMinutes);
-            
+
+            rabbitTemplate.convertAndSend(TRACKING_EVENTS_EXCHANGE, retryTierRoutingKey(tier), dlqMessage, message -> {
+                message.getMessageProperties().setHeader(RETRY_ATTEMPT_HEADER, attempt);
+                message.getMessageProperties().setExpiration(String.valueOf(delayMs));
+                RequestContext.stamp(message.getMessageProperties(), RequestContext.current());
+                return message;
+            });
+
+            log.info("Mensagem enviada para retry - Pacote: {}, Tentativa: {}/{}, Tier: {}, Delay: {} ms",
+                     dlqMessage.getOriginalMessage().packageId(), attempt, retryProperties.getMaxRetryAttempts(), tier, delayMs);
+
         } catch (Exception e) {
-            log.error("Erro ao enviar mensagem para retry - Pacote: {}, Erro: {}", 
+            log.error("Erro ao enviar mensagem para retry - Pacote: {}, Erro: {}",
                       dlqMessage.getOriginalMessage().packageId(), e.getMessage(), e);
         }
     }
-    
+
     /**
-     * Marca mensagem como definitivamente falhada após esgotar tentativas
+     * Marca mensagem como definitivamente falhada após esgotar tentativas, movendo-a para o parking lot
      */
     public void markAsPermanentlyFailed(TrackingEventDLQMessage dlqMessage, int retryCount) {
-        log.error("Mensagem marcada como definitivamente falhada - Pacote: {}, Tentativas esgotadas: {}/{}, Erro: {}", 
-                  dlqMessage.getOriginalMessage().packageId(), retryCount, maxRetryAttempts, dlqMessage.getErrorMessage());
-        
-        // Aqui você pode implementar notificações, alertas, etc.
-        // Por exemplo, enviar para um sistema de monitoramento ou notificação
+        log.error("Mensagem marcada como definitivamente falhada - Pacote: {}, Tentativas esgotadas: {}/{}, Erro: {}",
+                  dlqMessage.getOriginalMessage().packageId(), retryCount, retryProperties.getMaxRetryAttempts(), dlqMessage.getErrorMessage());
+
+        try {
+            rabbitTemplate.convertAndSend(TRACKING_EVENTS_EXCHANGE, TRACKING_EVENTS_PARKING_LOT_ROUTING_KEY, dlqMessage, message -> {
+                message.getMessageProperties().setHeader(RETRY_ATTEMPT_HEADER, retryCount);
+                RequestContext.stamp(message.getMessageProperties(), RequestContext.current());
+                return message;
+            });
+        } catch (Exception e) {
+            log.error("Erro ao enviar mensagem para o parking lot - Pacote: {}, Erro: {}",
+                      dlqMessage.getOriginalMessage().packageId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Atraso da tentativa: duração do tier com variação aleatória de ±jitter
+     */
+    long retryDelayMs(int attempt) {
+        long baseMs = retryProperties.getRetryTiers().get(retryProperties.tierFor(attempt)).toMillis();
+        double jitter = retryProperties.getJitter();
+        double factor = jitter > 0 ? ThreadLocalRandom.current().nextDouble(1 - jitter, 1 + jitter) : 1;
+        return Math.max(1, Math.round(baseMs * factor));
     }
-} 
\ No newline at end of file
+}
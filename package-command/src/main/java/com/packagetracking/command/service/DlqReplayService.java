@@ -0,0 +1,283 @@
+package com.packagetracking.command.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.RateLimiter;
+import com.packagetracking.command.config.TrackingEventShardingProperties;
+import com.packagetracking.command.constants.MessageConstants;
+import com.packagetracking.command.dto.tracking.DlqReplayJob;
+import com.packagetracking.command.dto.tracking.DlqReplayRequest;
+import com.packagetracking.command.dto.tracking.TrackingEventBatchMessage;
+import com.packagetracking.command.dto.tracking.TrackingEventDLQMessage;
+import com.packagetracking.command.dto.tracking.TrackingEventRequest;
+import com.packagetracking.command.repository.TrackingEventRepository;
+import com.packagetracking.command.util.TrackingEventKey;
+import com.packagetracking.command.util.UuidGenerator;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.GetResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import static com.packagetracking.command.config.RabbitMQConfig.TRACKING_EVENTS_EXCHANGE;
+import static com.packagetracking.command.config.RabbitMQConfig.TRACKING_EVENTS_PARKING_LOT;
+import static com.packagetracking.command.config.RabbitMQConfig.TRACKING_EVENTS_PARKING_LOT_ROUTING_KEY;
+
+/**
+ * Replay em lote das mensagens do parking lot, disparado manualmente após incidentes.
+ * Lê o parking lot com ack manual, devolve ao fim da fila as mensagens que não casam com os filtros
+ * e reprocessa as demais em lotes limitados por um token bucket, descartando eventos cuja chave já está gravada.
+ * Lotes rejeitados são expandidos e filtrados evento a evento.
+ * Cada mensagem do parking lot é examinada no máximo uma vez por replay.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "app.resources.endpoints", havingValue = "none")
+public class DlqReplayService {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final TrackingEventService trackingEventService;
+    private final TrackingEventRepository trackingEventRepository;
+    private final ObjectMapper objectMapper;
+    private final TrackingEventShardingProperties shardingProperties;
+    private final Executor replayExecutor;
+    private final Map<String, DlqReplayJob> jobs = new ConcurrentHashMap<>();
+
+    public DlqReplayService(RabbitTemplate rabbitTemplate,
+                            TrackingEventService trackingEventService,
+                            TrackingEventRepository trackingEventRepository,
+                            ObjectMapper objectMapper,
+                            TrackingEventShardingProperties shardingProperties,
+                            @Qualifier("externalApiExecutor") Executor replayExecutor) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.trackingEventService = trackingEventService;
+        this.trackingEventRepository = trackingEventRepository;
+        this.objectMapper = objectMapper;
+        this.shardingProperties = shardingProperties;
+        this.replayExecutor = replayExecutor;
+    }
+
+    /**
+     * Inicia um replay em background. Apenas um replay roda por vez para não sobrecarregar o banco.
+     */
+    public synchronized DlqReplayJob start(DlqReplayRequest request) {
+        boolean running = jobs.values().stream().anyMatch(job -> job.getState() == DlqReplayJob.State.RUNNING);
+        if (running) {
+            throw new IllegalStateException(MessageConstants.DLQ_REPLAY_ALREADY_RUNNING);
+        }
+
+        DlqReplayJob job = new DlqReplayJob(UuidGenerator.generateOptimizedUuid(), request);
+        jobs.put(job.getId(), job);
+        log.info("Iniciando replay {} do parking lot - Modo: {}, Filtros: {}", job.getId(), request.modeOrDefault(), request);
+
+        replayExecutor.execute(() -> run(job));
+        return job;
+    }
+
+    public DlqReplayJob find(String id) {
+        return jobs.get(id);
+    }
+
+    public Collection<DlqReplayJob> findAll() {
+        return jobs.values();
+    }
+
+    public DlqReplayJob cancel(String id) {
+        DlqReplayJob job = jobs.get(id);
+        if (job != null) {
+            job.cancel();
+        }
+        return job;
+    }
+
+    void run(DlqReplayJob job) {
+        RateLimiter rateLimiter = RateLimiter.create(job.getRequest().eventsPerSecondOrDefault());
+        try {
+            rabbitTemplate.execute(channel -> {
+                replay(channel, job, rateLimiter);
+                return null;
+            });
+            job.finish(DlqReplayJob.State.COMPLETED, null);
+            log.info("Replay {} concluído - Examinadas: {}, Reprocessadas: {}, Duplicadas: {}, Devolvidas: {}",
+                     job.getId(), job.getScanned(), job.getReplayed(), job.getDuplicates(), job.getRequeued());
+        } catch (Exception e) {
+            job.finish(DlqReplayJob.State.FAILED, e.getMessage());
+            log.error("Replay {} interrompido por erro: {}", job.getId(), e.getMessage(), e);
+        }
+    }
+
+    private void replay(Channel channel, DlqReplayJob job, RateLimiter rateLimiter) throws IOException {
+        DlqReplayRequest request = job.getRequest();
+        List<Long> deliveryTags = new ArrayList<>();
+        List<TrackingEventRequest> batch = new ArrayList<>();
+
+        while (!job.isCancelled()) {
+            if (job.getTotalToScan() > 0 && job.getScanned().get() >= job.getTotalToScan()) {
+                break;
+            }
+
+            GetResponse response = channel.basicGet(TRACKING_EVENTS_PARKING_LOT, false);
+            if (response == null) {
+                break;
+            }
+            if (job.getTotalToScan() == 0) {
+                // Limita o replay ao conteúdo atual da fila: mensagens devolvidas ao fim não são examinadas de novo
+                job.setTotalToScan(response.getMessageCount() + 1L);
+            }
+            job.getScanned().incrementAndGet();
+
+            long deliveryTag = response.getEnvelope().getDeliveryTag();
+            ParkedMessage parked = parse(response);
+            List<TrackingEventRequest> matching = new ArrayList<>();
+            List<TrackingEventRequest> others = new ArrayList<>();
+            for (TrackingEventDLQMessage event : parked.events()) {
+                (request.matches(event) ? matching : others).add(event.getOriginalMessage());
+            }
+
+            if (matching.isEmpty()) {
+                channel.basicPublish(TRACKING_EVENTS_EXCHANGE, TRACKING_EVENTS_PARKING_LOT_ROUTING_KEY,
+                                     response.getProps(), response.getBody());
+                channel.basicAck(deliveryTag, false);
+                job.getRequeued().incrementAndGet();
+                continue;
+            }
+            if (!others.isEmpty()) {
+                // Lote selecionado em parte: o restante volta ao parking lot como um lote menor.
+                // Se o flush falhar, o lote original volta inteiro e a chave do evento descarta a repetição
+                channel.basicPublish(TRACKING_EVENTS_EXCHANGE, TRACKING_EVENTS_PARKING_LOT_ROUTING_KEY, response.getProps(),
+                                     objectMapper.writeValueAsBytes(new TrackingEventBatchMessage(parked.batchId(), others)));
+                job.getRequeued().incrementAndGet();
+            }
+
+            job.getMatched().addAndGet(matching.size());
+            deliveryTags.add(deliveryTag);
+            batch.addAll(matching);
+
+            if (batch.size() >= request.batchSizeOrDefault()) {
+                flush(channel, job, rateLimiter, batch, deliveryTags);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            flush(channel, job, rateLimiter, batch, deliveryTags);
+        }
+    }
+
+    private void flush(Channel channel, DlqReplayJob job, RateLimiter rateLimiter,
+                       List<TrackingEventRequest> batch, List<Long> deliveryTags) throws IOException {
+        rateLimiter.acquire(batch.size());
+
+        try {
+            int replayed;
+            if (job.getRequest().modeOrDefault() == DlqReplayRequest.Mode.BULK_INSERT) {
+                // O INSERT IGNORE por chave de evento já descarta o que estiver gravado
+                replayed = trackingEventService.processTrackingEventBatch(List.copyOf(batch));
+            } else {
+                List<TrackingEventRequest> fresh = deduplicate(batch);
+                fresh.forEach(event -> rabbitTemplate.convertAndSend(TRACKING_EVENTS_EXCHANGE, routingKeyFor(event), event));
+                replayed = fresh.size();
+            }
+            job.getDuplicates().addAndGet(batch.size() - replayed);
+
+            deliveryTags.forEach(tag -> ack(channel, tag));
+            job.getReplayed().addAndGet(replayed);
+
+        } catch (RuntimeException e) {
+            // O lote volta para o parking lot intacto e o replay é encerrado como FAILED
+            for (Long tag : deliveryTags) {
+                channel.basicNack(tag, false, true);
+            }
+            throw e;
+        } finally {
+            batch.clear();
+            deliveryTags.clear();
+        }
+    }
+
+    /**
+     * Remove eventos cuja chave já está gravada e repetições dentro do próprio lote
+     */
+    private List<TrackingEventRequest> deduplicate(List<TrackingEventRequest> events) {
+        Map<String, TrackingEventRequest> byKey = new LinkedHashMap<>();
+        events.forEach(event -> byKey.putIfAbsent(TrackingEventKey.of(event), event));
+        trackingEventRepository.findExistingEventKeys(byKey.keySet()).forEach(byKey::remove);
+        return new ArrayList<>(byKey.values());
+    }
+
+    private String routingKeyFor(TrackingEventRequest event) {
+        return shardingProperties.isEnabled() ? shardingProperties.routingKeyFor(event.packageId()) : "tracking.events";
+    }
+
+    /**
+     * O parking lot recebe três formatos, identificados pelo header de tipo do Jackson2JsonMessageConverter:
+     * TrackingEventDLQMessage (tentativas da DLQ esgotadas), TrackingEventRequest (rejeitado na fila principal ou
+     * na shard) e TrackingEventBatchMessage (lote rejeitado). Eventos crus e lotes não têm o erro da aplicação:
+     * cada evento é envolvido em uma TrackingEventDLQMessage com o horário da rejeição do x-death, então só o filtro
+     * por errorType os exclui. Mensagens ilegíveis voltam sem eventos e são devolvidas ao parking lot
+     */
+    private ParkedMessage parse(GetResponse response) {
+        Map<String, Object> headers = response.getProps().getHeaders();
+        String payloadType = headers != null ? String.valueOf(headers.get(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME)) : null;
+        try {
+            if (TrackingEventBatchMessage.class.getName().equals(payloadType)) {
+                TrackingEventBatchMessage batch = objectMapper.readValue(response.getBody(), TrackingEventBatchMessage.class);
+                LocalDateTime failedAt = rejectedAt(headers);
+                List<TrackingEventDLQMessage> events = batch.getEvents() == null ? List.of() : batch.getEvents().stream()
+                    .map(event -> rejected(event, failedAt))
+                    .toList();
+                return new ParkedMessage(batch.getBatchId(), events);
+            }
+            if (TrackingEventRequest.class.getName().equals(payloadType)) {
+                TrackingEventRequest event = objectMapper.readValue(response.getBody(), TrackingEventRequest.class);
+                return new ParkedMessage(null, List.of(rejected(event, rejectedAt(headers))));
+            }
+            return new ParkedMessage(null, List.of(objectMapper.readValue(response.getBody(), TrackingEventDLQMessage.class)));
+        } catch (IOException e) {
+            log.warn("Mensagem do parking lot ignorada no replay - Tipo: {}, Erro: {}", payloadType, e.getMessage());
+            return new ParkedMessage(null, List.of());
+        }
+    }
+
+    private static TrackingEventDLQMessage rejected(TrackingEventRequest event, LocalDateTime failedAt) {
+        TrackingEventDLQMessage message = new TrackingEventDLQMessage();
+        message.setOriginalMessage(event);
+        message.setFailedAt(failedAt);
+        return message;
+    }
+
+    /**
+     * Horário da primeira rejeição registrado pelo broker no header x-death
+     */
+    private static LocalDateTime rejectedAt(Map<String, Object> headers) {
+        if (headers != null && headers.get("x-death") instanceof List<?> deaths
+            && !deaths.isEmpty() && deaths.get(0) instanceof Map<?, ?> death && death.get("time") instanceof Date time) {
+            return LocalDateTime.ofInstant(time.toInstant(), ZoneId.systemDefault());
+        }
+        return null;
+    }
+
+    private record ParkedMessage(String batchId, List<TrackingEventDLQMessage> events) {
+    }
+
+    private static void ack(Channel channel, long deliveryTag) {
+        try {
+            channel.basicAck(deliveryTag, false);
+        } catch (IOException e) {
+            throw new RuntimeException(MessageConstants.DLQ_REPLAY_ACK_ERROR, e);
+        }
+    }
+}
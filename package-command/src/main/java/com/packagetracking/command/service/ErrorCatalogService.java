@@ -0,0 +1,64 @@
+package com.packagetracking.command.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.packagetracking.command.dto.tracking.ErrorCatalogEntry;
+import com.packagetracking.command.util.ErrorFingerprint;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Catálogo local de erros do consumer. Mensagens da DLQ carregam apenas o fingerprint;
+ * o stack trace completo fica aqui, uma vez por fingerprint, consultável pelo endpoint /actuator/errorcatalog.
+ */
+@Service
+@Slf4j
+public class ErrorCatalogService {
+    
+    private final Cache<String, ErrorCatalogEntry> entries;
+    
+    public ErrorCatalogService(@Value("${app.dlq.error-catalog.max-entries:500}") int maxEntries) {
+        this.entries = CacheBuilder.newBuilder()
+            .maximumSize(maxEntries)
+            .build();
+    }
+    
+    /**
+     * Registra uma ocorrência do erro e retorna a entrada do catálogo com a contagem atualizada
+     */
+    public ErrorCatalogEntry register(Throwable throwable) {
+        String fingerprint = ErrorFingerprint.of(throwable);
+        try {
+            ErrorCatalogEntry entry = entries.get(fingerprint, () -> {
+                log.warn("Novo erro catalogado - Fingerprint: {}, Tipo: {}, Mensagem: {}", 
+                         fingerprint, throwable.getClass().getSimpleName(), throwable.getMessage());
+                return new ErrorCatalogEntry(fingerprint, throwable.getClass().getName(), 
+                                             throwable.getMessage(), stackTraceOf(throwable));
+            });
+            entry.recordOccurrence();
+            return entry;
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Erro ao registrar erro no catálogo", e);
+        }
+    }
+    
+    public ErrorCatalogEntry find(String fingerprint) {
+        return entries.getIfPresent(fingerprint);
+    }
+    
+    public Collection<ErrorCatalogEntry> findAll() {
+        return entries.asMap().values();
+    }
+    
+    private static String stackTraceOf(Throwable throwable) {
+        StringWriter writer = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(writer));
+        return writer.toString();
+    }
+}
@@ -0,0 +1,48 @@
+package com.packagetracking.command.service;
+
+import com.packagetracking.command.entity.OutboxEvent;
+import com.packagetracking.command.entity.OutboxEventType;
+import com.packagetracking.command.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Grava notificações de mudança no outbox. Exige uma transação ativa: o registro só existe
+ * se a alteração que ele descreve também for confirmada, sem escrita dupla banco/broker.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+    
+    private final OutboxEventRepository outboxEventRepository;
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OutboxEventType eventType, String packageId, String status) {
+        outboxEventRepository.append(List.of(newEvent(eventType, packageId, status)));
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(OutboxEventType eventType, Collection<String> packageIds, String status) {
+        if (packageIds.isEmpty()) {
+            return;
+        }
+        outboxEventRepository.append(packageIds.stream()
+            .map(packageId -> newEvent(eventType, packageId, status))
+            .toList());
+    }
+    
+    private static OutboxEvent newEvent(OutboxEventType eventType, String packageId, String status) {
+        return OutboxEvent.builder()
+            .eventType(eventType)
+            .packageId(packageId)
+            .status(status)
+            .createdAt(Instant.now())
+            .build();
+    }
+}
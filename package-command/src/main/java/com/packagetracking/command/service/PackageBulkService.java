@@ -0,0 +1,200 @@
+package com.packagetracking.command.service;
+
+import com.packagetracking.command.constants.MessageConstants;
+import com.packagetracking.command.dto.packages.PackageBulkItemResult;
+import com.packagetracking.command.dto.packages.PackageCreateRequest;
+import com.packagetracking.command.entity.OutboxEventType;
+import com.packagetracking.command.entity.Package;
+import com.packagetracking.command.entity.PackageStatus;
+import com.packagetracking.command.repository.PackageJpaRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Criação de pacotes em lote a partir de manifestos de embarcadores.
+ * O manifesto é lido em blocos à medida que chega: cada bloco é validado em paralelo em Virtual Threads,
+ * inserido em lotes JDBC em uma única transação e tem seus resultados emitidos
+ * antes da leitura do próximo, então só um bloco do manifesto fica em memória.
+ */
+@Service
+@Slf4j
+public class PackageBulkService {
+
+    private static final DateTimeFormatter DELIVERY_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/uuuu")
+        .withResolverStyle(ResolverStyle.STRICT);
+
+    private final ExternalApiService externalApiService;
+    private final PackageJpaRepository packageJpaRepository;
+    private final Validator validator;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor externalApiExecutor;
+    private final int chunkSize;
+
+    public PackageBulkService(ExternalApiService externalApiService,
+                              PackageJpaRepository packageJpaRepository,
+                              Validator validator,
+                              OutboxService outboxService,
+                              PlatformTransactionManager transactionManager,
+                              @Qualifier("externalApiExecutor") Executor externalApiExecutor,
+                              @Value("${app.bulk.chunk-size:500}") int chunkSize) {
+        this.externalApiService = externalApiService;
+        this.packageJpaRepository = packageJpaRepository;
+        this.validator = validator;
+        this.outboxService = outboxService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.externalApiExecutor = externalApiExecutor;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Processa o manifesto e entrega os resultados de cada bloco ao sink, na ordem dos itens.
+     * Exceções do iterador interrompem o processamento; os blocos já emitidos continuam gravados
+     */
+    public void createPackages(Iterator<PackageCreateRequest> requests, Consumer<List<PackageBulkItemResult>> resultSink) {
+        // Feriado e fun fact são compartilhados por todo o manifesto: uma consulta externa por requisição, não por pacote
+        Boolean isHoliday = externalApiService.isHoliday(LocalDate.now()).block();
+        String funFact = externalApiService.getDogFunFact().block();
+
+        int created = 0;
+        int rejected = 0;
+        int failed = 0;
+
+        int offset = 0;
+        while (requests.hasNext()) {
+            List<PackageCreateRequest> chunk = new ArrayList<>(chunkSize);
+            while (chunk.size() < chunkSize && requests.hasNext()) {
+                chunk.add(requests.next());
+            }
+            List<PackageBulkItemResult> results = processChunk(chunk, offset, isHoliday, funFact);
+            offset += chunk.size();
+
+            for (PackageBulkItemResult result : results) {
+                switch (result.getStatus()) {
+                    case PackageBulkItemResult.CREATED -> created++;
+                    case PackageBulkItemResult.REJECTED -> rejected++;
+                    default -> failed++;
+                }
+            }
+            resultSink.accept(results);
+        }
+
+        log.info(MessageConstants.PACKAGES_BULK_CREATED_SUCCESS, created, rejected, failed);
+    }
+
+    private List<PackageBulkItemResult> processChunk(List<PackageCreateRequest> chunk, int offset,
+                                                     Boolean isHoliday, String funFact) {
+        List<CompletableFuture<Map<String, String>>> validations = chunk.stream()
+            .map(request -> CompletableFuture.supplyAsync(() -> validate(request), externalApiExecutor))
+            .toList();
+
+        List<PackageBulkItemResult> results = new ArrayList<>(chunk.size());
+        List<Package> entities = new ArrayList<>(chunk.size());
+        List<PackageBulkItemResult> pending = new ArrayList<>(chunk.size());
+        Instant now = Instant.now();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            Map<String, String> errors = validations.get(i).join();
+
+            if (!errors.isEmpty()) {
+                results.add(PackageBulkItemResult.builder()
+                    .index(offset + i)
+                    .status(PackageBulkItemResult.REJECTED)
+                    .errors(errors)
+                    .build());
+                continue;
+            }
+
+            Package packageEntity = toEntity(chunk.get(i), isHoliday, funFact, now);
+            PackageBulkItemResult result = PackageBulkItemResult.builder()
+                .index(offset + i)
+                .id(packageEntity.getId())
+                .build();
+
+            entities.add(packageEntity);
+            pending.add(result);
+            results.add(result);
+        }
+
+        if (entities.isEmpty()) {
+            return results;
+        }
+
+        try {
+            // Pacotes e registros do outbox do bloco são confirmados juntos
+            transactionTemplate.executeWithoutResult(status -> {
+                packageJpaRepository.persistAllInBatches(entities);
+                outboxService.recordAll(OutboxEventType.PACKAGE_CREATED,
+                                        entities.stream().map(Package::getId).toList(), PackageStatus.CREATED.name());
+            });
+            pending.forEach(result -> result.setStatus(PackageBulkItemResult.CREATED));
+        } catch (Exception e) {
+            log.error("{} (itens {}-{}): {}", MessageConstants.BULK_BATCH_INSERT_ERROR,
+                      offset, offset + chunk.size() - 1, e.getMessage(), e);
+            pending.forEach(result -> {
+                result.setStatus(PackageBulkItemResult.FAILED);
+                result.setId(null);
+                result.setMessage(MessageConstants.BULK_BATCH_INSERT_ERROR);
+            });
+        }
+
+        return results;
+    }
+
+    private Map<String, String> validate(PackageCreateRequest request) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        if (request == null) {
+            errors.put("item", MessageConstants.BULK_ITEM_EMPTY);
+            return errors;
+        }
+
+        for (ConstraintViolation<PackageCreateRequest> violation : validator.validate(request)) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+
+        // O @Pattern só garante o formato dd/MM/yyyy; datas como 31/02/2025 falhariam apenas na inserção
+        if (!errors.containsKey("estimatedDeliveryDate")) {
+            try {
+                LocalDate.parse(request.getEstimatedDeliveryDate(), DELIVERY_DATE_FORMATTER);
+            } catch (DateTimeParseException e) {
+                errors.put("estimatedDeliveryDate", MessageConstants.BULK_INVALID_DELIVERY_DATE);
+            }
+        }
+        return errors;
+    }
+
+    private Package toEntity(PackageCreateRequest request, Boolean isHoliday, String funFact, Instant now) {
+        return Package.builder()
+            .id(PackageService.generatePackageId())
+            .description(request.getDescription())
+            .funFact(funFact)
+            .sender(request.getSender())
+            .recipient(request.getRecipient())
+            .isHolliday(isHoliday)
+            .estimatedDeliveryDate(LocalDate.parse(request.getEstimatedDeliveryDate(), DELIVERY_DATE_FORMATTER))
+            .status(PackageStatus.CREATED)
+            .createdAt(now)
+            .updatedAt(now)
+            .build();
+    }
+}
@@ -5,9 +5,11 @@ import com.packagetracking.command.dto.packages.PackageCancelResponse;
 import com.packagetracking.command.dto.packages.PackageCreateEnrichedRequest;
 import com.packagetracking.command.dto.packages.PackageCreateRequest;
 import com.packagetracking.command.dto.packages.PackageResponse;
+import com.packagetracking.command.entity.OutboxEventType;
 import com.packagetracking.command.entity.Package;
 import com.packagetracking.command.entity.PackageStatus;
 import com.packagetracking.command.repository.PackageJpaRepository;
+import com.packagetracking.command.util.UuidGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -15,7 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.LocalDate;
-import java.util.UUID;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -24,6 +26,7 @@ public class PackageService {
     
     private final ExternalApiService externalApiService;
     private final PackageJpaRepository packageJpaRepository;
+    private final OutboxService outboxService;
 
     @Transactional
     public PackageResponse createPackageSync(PackageCreateRequest request) {
@@ -63,6 +66,7 @@ public class PackageService {
                 .build();
 
             Package savedPackage = packageJpaRepository.save(packageEntity);
+            outboxService.record(OutboxEventType.PACKAGE_CREATED, savedPackage.getId(), savedPackage.getStatus().name());
             
             log.info(MessageConstants.PACKAGE_CREATED_SUCCESS, packageId);
             
@@ -82,38 +86,40 @@ public class PackageService {
         }
     }
 
-    private String generatePackageId() {
-        return MessageConstants.PACKAGE_ID_PREFIX + UUID.randomUUID().toString().substring(0, 8);
+    /**
+     * ID com os 128 bits do UUID, o mesmo para criação unitária e em lote: com 8 caracteres (32 bits) a chance
+     * de colisão chega a cerca de 1% em um manifesto de 10 mil itens, e uma chave duplicada derruba o bloco inteiro
+     */
+    static String generatePackageId() {
+        return MessageConstants.PACKAGE_ID_PREFIX + UuidGenerator.generateOptimizedUuid();
     }
 
+    /**
+     * Atualiza o status com um único UPDATE condicional (WHERE status IN predecessores permitidos).
+     * Evita o merge da entidade e é seguro sob concorrência sem lock pessimista:
+     * transições concorrentes conflitantes afetam 0 linhas.
+     * Como no cancelamento, a resposta é montada com os valores gravados pelo UPDATE, sem reler a linha;
+     * os dados cadastrais do pacote ficam com o package-query.
+     */
     @Transactional
     public PackageResponse updatePackageStatus(String id, String newStatus) {
         try {
-            Package packageEntity = packageJpaRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException(MessageConstants.PACKAGE_NOT_FOUND + id));
-            
-            validateStatusTransition(packageEntity.getStatus(), newStatus);
-            
             PackageStatus status = PackageStatus.valueOf(newStatus);
-            packageEntity.setStatus(status);
+            Instant now = Instant.now();
+            Instant deliveredAt = status == PackageStatus.DELIVERED ? now : null;
             
-            if (status == PackageStatus.DELIVERED) {
-                packageEntity.setDeliveredAt(Instant.now());
+            if (!applyTransition(id, status, status.allowedPredecessors(), now, deliveredAt)) {
+                rejectTransition(id, status);
             }
-            
-            Package savedPackage = packageJpaRepository.save(packageEntity);
+            outboxService.record(OutboxEventType.PACKAGE_STATUS_CHANGED, id, status.name());
             
             log.info(MessageConstants.PACKAGE_STATUS_UPDATED_SUCCESS, id, newStatus);
             
             return PackageResponse.builder()
-                .id(savedPackage.getId())
-                .description(savedPackage.getDescription())
-                .sender(savedPackage.getSender())
-                .recipient(savedPackage.getRecipient())
-                .status(savedPackage.getStatus().name())
-                .createdAt(savedPackage.getCreatedAt())
-                .updatedAt(savedPackage.getUpdatedAt())
-                .deliveredAt(savedPackage.getDeliveredAt())
+                .id(id)
+                .status(status.name())
+                .updatedAt(now)
+                .deliveredAt(deliveredAt)
                 .build();
                 
         } catch (Exception e) {
@@ -122,6 +128,32 @@ public class PackageService {
         }
     }
 
+    private boolean applyTransition(String id, PackageStatus status, Set<PackageStatus> allowedPredecessors,
+                                    Instant updatedAt, Instant deliveredAt) {
+        if (allowedPredecessors.isEmpty()) {
+            return false;
+        }
+        return packageJpaRepository.transitionStatus(id, status, allowedPredecessors, updatedAt, deliveredAt) > 0;
+    }
+
+    /**
+     * Diagnostica por que o UPDATE condicional não afetou nenhuma linha.
+     * Só é executado no caminho de falha, com leitura travada do status atual (ver findByIdForUpdate).
+     */
+    private void rejectTransition(String id, PackageStatus targetStatus) {
+        Package packageEntity = findForDiagnosis(id);
+        
+        validateStatusTransition(packageEntity.getStatus(), targetStatus.name());
+        
+        // A transição é válida para o status atual, logo o status mudou entre o UPDATE e a leitura
+        throw new IllegalStateException(MessageConstants.CONCURRENT_STATUS_CHANGE_ERROR);
+    }
+
+    private Package findForDiagnosis(String id) {
+        return packageJpaRepository.findByIdForUpdate(id)
+            .orElseThrow(() -> new RuntimeException(MessageConstants.PACKAGE_NOT_FOUND + id));
+    }
+
     /**
      * Valida transição de status do pacote
      * Fluxo obrigatório: CREATED -> IN_TRANSIT -> DELIVERED
@@ -152,22 +184,24 @@ public class PackageService {
     @Transactional
     public PackageCancelResponse cancelPackage(String id) {
         try {
-            Package packageEntity = packageJpaRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException(MessageConstants.PACKAGE_NOT_FOUND + id));
+            Instant now = Instant.now();
             
-            if (packageEntity.getStatus() != PackageStatus.CREATED) {
-                throw new IllegalArgumentException(MessageConstants.CANNOT_CANCEL_PACKAGE_IN_TRANSIT);
+            if (!applyTransition(id, PackageStatus.CANCELLED, PackageStatus.CANCELLED.allowedPredecessors(), now, null)) {
+                Package packageEntity = findForDiagnosis(id);
+                
+                if (packageEntity.getStatus() != PackageStatus.CREATED) {
+                    throw new IllegalArgumentException(MessageConstants.CANNOT_CANCEL_PACKAGE_IN_TRANSIT);
+                }
+                throw new IllegalStateException(MessageConstants.CONCURRENT_STATUS_CHANGE_ERROR);
             }
-            
-            packageEntity.setStatus(PackageStatus.CANCELLED);
-            Package savedPackage = packageJpaRepository.save(packageEntity);
+            outboxService.record(OutboxEventType.PACKAGE_STATUS_CHANGED, id, PackageStatus.CANCELLED.name());
             
             log.info(MessageConstants.PACKAGE_CANCELED_SUCCESS, id);
             
             return PackageCancelResponse.builder()
-                .id(savedPackage.getId())
-                .status(savedPackage.getStatus().name())
-                .dataAtualizacao(savedPackage.getUpdatedAt())
+                .id(id)
+                .status(PackageStatus.CANCELLED.name())
+                .dataAtualizacao(now)
                 .build();
                 
         } catch (Exception e) {
@@ -175,4 +209,4 @@ public class PackageService {
             throw new RuntimeException(MessageConstants.ERROR_CANCELING_PACKAGE, e);
         }
     }
-} 
\ No newline at end of file
+}
@@ -1,24 +1,46 @@
 package com.packagetracking.command.service;
 
+import com.packagetracking.command.constants.MessageConstants;
 import com.packagetracking.command.dto.tracking.TrackingEventRequest;
+import com.packagetracking.command.entity.OutboxEventType;
 import com.packagetracking.command.entity.TrackingEvent;
 import com.packagetracking.command.repository.TrackingEventRepository;
+import com.packagetracking.command.util.TrackingEventKey;
 import com.packagetracking.command.util.UuidGenerator;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class TrackingEventService {
     
     private final TrackingEventRepository trackingEventRepository;
+    private final OutboxService outboxService;
+    private final TrackingPipelineMetrics pipelineMetrics;
+    private final TransactionTemplate transactionTemplate;
+
+    public TrackingEventService(TrackingEventRepository trackingEventRepository,
+                                OutboxService outboxService,
+                                TrackingPipelineMetrics pipelineMetrics,
+                                PlatformTransactionManager transactionManager) {
+        this.trackingEventRepository = trackingEventRepository;
+        this.outboxService = outboxService;
+        this.pipelineMetrics = pipelineMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     /**
      * Processa evento de rastreamento recebido da fila RabbitMQ
@@ -38,23 +60,18 @@ public class TrackingEventService {
         try {
             log.info("Criando entidade TrackingEvent para pacote: {}", request.packageId());
             
-            TrackingEvent event = TrackingEvent.builder()
-                .packageId(request.packageId())
-                .location(request.location())
-                .description(request.description())
-                .date(request.date().toInstant(ZoneOffset.UTC))
-                .build();
-            
-            // Usando UUID otimizado (sem hífens) para melhor performance
-            event.setId(UuidGenerator.generateOptimizedUuid());
+            TrackingEvent event = toEntity(request);
             
-            log.info("Salvando evento no banco - ID: {}, Pacote: {}", event.getId(), event.getPackageId());
+            log.info("Salvando evento no banco - ID: {}, Pacote: {}, Chave: {}", event.getId(), event.getPackageId(), event.getEventKey());
             
-            TrackingEvent savedEvent = trackingEventRepository.save(event);
+            if (persistIdempotently(List.of(event)) == 0) {
+                log.info("Evento de rastreamento duplicado ignorado - Pacote: {}, Chave: {}", event.getPackageId(), event.getEventKey());
+                return;
+            }
             
             log.info("=== EVENTO SALVO COM SUCESSO ===");
             log.info("Evento de rastreamento salvo - ID: {}, Pacote: {}, Thread: {}", 
-                     savedEvent.getId(), savedEvent.getPackageId(), threadName);
+                     event.getId(), event.getPackageId(), threadName);
             
         } catch (Exception e) {
             log.error("=== ERRO NO SERVIÇO ===");
@@ -67,7 +84,9 @@ public class TrackingEventService {
     }
 
     /**
-     * Processa evento de rastreamento de forma assíncrona usando Virtual Threads
+     * Processa evento de rastreamento de forma assíncrona usando Virtual Threads.
+     * A chamada interna não passa pelo proxy do @Transactional, por isso a transação (exigida pelo outbox)
+     * é aberta explicitamente
      */
     @Async("externalApiExecutor")
     public CompletableFuture<Void> processTrackingEventAsync(TrackingEventRequest request) {
@@ -80,7 +99,7 @@ public class TrackingEventService {
         try {
             log.info("Chamando processamento síncrono para pacote: {}", request.packageId());
             
-            processTrackingEvent(request);
+            transactionTemplate.executeWithoutResult(status -> processTrackingEvent(request));
             
             log.info("=== PROCESSAMENTO ASSÍNCRONO CONCLUÍDO ===");
             log.info("Evento de rastreamento processado assincronamente - Pacote: {}, Thread: {}", 
@@ -97,4 +116,58 @@ public class TrackingEventService {
             return CompletableFuture.failedFuture(e);
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Persiste um lote de eventos de rastreamento em uma única transação, ignorando eventos já gravados.
+     * Retorna quantos eventos foram inseridos.
+     */
+    @Transactional
+    public int processTrackingEventBatch(List<TrackingEventRequest> requests) {
+        List<TrackingEvent> events = requests.stream().map(this::toEntity).toList();
+        
+        try {
+            int inserted = persistIdempotently(events);
+            log.info("Lote de {} eventos de rastreamento salvo - Inseridos: {}, Duplicados: {}, Thread: {}", 
+                     events.size(), inserted, events.size() - inserted, Thread.currentThread().getName());
+            return inserted;
+            
+        } catch (Exception e) {
+            log.error("Erro ao salvar lote de {} eventos de rastreamento: {}", events.size(), e.getMessage(), e);
+            throw new RuntimeException(MessageConstants.TRACKING_BATCH_PROCESSING_ERROR, e);
+        }
+    }
+
+    /**
+     * Descarta duplicados dentro do lote; os já gravados (reentregas, outras instâncias) são resolvidos pelo
+     * INSERT IGNORE no índice único de event_key, sem consulta prévia
+     */
+    private int persistIdempotently(List<TrackingEvent> events) {
+        return pipelineMetrics.observe(TrackingPipelineMetrics.STAGE_PERSIST, () -> insertNew(events));
+    }
+
+    private int insertNew(List<TrackingEvent> events) {
+        Map<String, TrackingEvent> byKey = new LinkedHashMap<>();
+        events.forEach(event -> byKey.putIfAbsent(event.getEventKey(), event));
+        
+        int inserted = trackingEventRepository.insertIgnoringDuplicates(new ArrayList<>(byKey.values()));
+        
+        if (inserted > 0) {
+            // Uma notificação por pacote do lote basta para invalidar cache e reler os eventos
+            Set<String> packageIds = new LinkedHashSet<>();
+            byKey.values().forEach(event -> packageIds.add(event.getPackageId()));
+            outboxService.recordAll(OutboxEventType.TRACKING_EVENT_ADDED, packageIds, null);
+        }
+        return inserted;
+    }
+
+    private TrackingEvent toEntity(TrackingEventRequest request) {
+        return TrackingEvent.builder()
+            .id(UuidGenerator.generateOptimizedUuid())
+            .packageId(request.packageId())
+            .location(request.location())
+            .description(request.description())
+            .date(request.date().toInstant(ZoneOffset.UTC))
+            .eventKey(TrackingEventKey.of(request))
+            .build();
+    }
+}
@@ -0,0 +1,119 @@
+package com.packagetracking.command.service;
+
+import com.packagetracking.command.dto.tracking.TrackingEventRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Date;
+import java.util.function.Supplier;
+
+/**
+ * Latência por etapa do pipeline de ingestão de eventos de rastreamento.
+ * As etapas instrumentadas aqui (publicação e gravação) viram timer e span pela mesma Observation;
+ * aceite HTTP, despacho do listener e agendamento na Virtual Thread usam os timers do Spring e do executor.
+ * A fila e o ponta a ponta são medidos pelos timestamps que a mensagem carrega.
+ */
+@Component
+public class TrackingPipelineMetrics {
+
+    public static final String STAGE_OBSERVATION = "tracking.pipeline.stage";
+    public static final String STAGE_PUBLISH = "publish";
+    public static final String STAGE_PERSIST = "persist";
+
+    /** Epoch millis da primeira publicação do evento, mantido nas republicações */
+    public static final String INGESTED_AT_HEADER = "x-ingested-at";
+
+    private final ObservationRegistry observationRegistry;
+    private final Timer queueWait;
+    private final Timer scanToQueryable;
+    private final Timer ingestToQueryable;
+
+    public TrackingPipelineMetrics(ObservationRegistry observationRegistry, MeterRegistry meterRegistry) {
+        this.observationRegistry = observationRegistry;
+        this.queueWait = Timer.builder("tracking.pipeline.queue.wait")
+            .description("Tempo entre a publicação da mensagem e a entrega ao listener")
+            .register(meterRegistry);
+        this.scanToQueryable = Timer.builder("tracking.pipeline.scan.to.queryable")
+            .description("Tempo entre a data do evento (leitura do pacote) e a gravação confirmada no banco")
+            .register(meterRegistry);
+        this.ingestToQueryable = Timer.builder("tracking.pipeline.ingest.to.queryable")
+            .description("Tempo entre a entrada do evento no pipeline e a gravação confirmada no banco")
+            .register(meterRegistry);
+    }
+
+    public void observe(String stage, Runnable work) {
+        stageObservation(stage).observe(work);
+    }
+
+    public <T> T observe(String stage, Supplier<T> work) {
+        return stageObservation(stage).observe(work);
+    }
+
+    /**
+     * Registra a espera na fila a partir do timestamp AMQP gravado a cada envio
+     */
+    public void recordQueueWait(Message message) {
+        Date publishedAt = message.getMessageProperties().getTimestamp();
+        if (publishedAt != null) {
+            record(queueWait, publishedAt.toInstant());
+        }
+    }
+
+    /**
+     * Chamado depois que a transação dos eventos foi confirmada, quando passam a ser visíveis nas consultas
+     */
+    public void recordQueryable(Collection<TrackingEventRequest> events, Message message) {
+        for (TrackingEventRequest event : events) {
+            if (event.date() != null) {
+                record(scanToQueryable, event.date().toInstant(ZoneOffset.UTC));
+            }
+        }
+
+        Instant ingestedAt = ingestedAt(message.getMessageProperties());
+        if (ingestedAt != null) {
+            for (int i = 0; i < events.size(); i++) {
+                record(ingestToQueryable, ingestedAt);
+            }
+        }
+    }
+
+    private Observation stageObservation(String stage) {
+        return Observation.createNotStarted(STAGE_OBSERVATION, observationRegistry)
+            .contextualName("tracking " + stage)
+            .lowCardinalityKeyValue("stage", stage);
+    }
+
+    private static Instant ingestedAt(MessageProperties properties) {
+        Object header = properties.getHeader(INGESTED_AT_HEADER);
+        if (header instanceof Number epochMillis) {
+            return Instant.ofEpochMilli(epochMillis.longValue());
+        }
+        if (header != null) {
+            try {
+                return Instant.ofEpochMilli(Long.parseLong(header.toString()));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Relógios desalinhados entre produtor e consumidor geram durações negativas, que são descartadas
+     */
+    private static void record(Timer timer, Instant since) {
+        Duration elapsed = Duration.between(since, Instant.now());
+        if (!elapsed.isNegative()) {
+            timer.record(elapsed);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.packagetracking.command.util;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Utilitário para gerar a impressão digital de um erro
+ */
+public class ErrorFingerprint {
+    
+    private static final int TOP_FRAMES = 5;
+    
+    /**
+     * Hash do tipo da exceção, do tipo da causa raiz e dos primeiros frames da causa raiz.
+     * A mensagem fica de fora porque costuma carregar IDs e valores que mudam a cada ocorrência.
+     */
+    public static String of(Throwable throwable) {
+        Throwable root = throwable;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        
+        Hasher hasher = Hashing.murmur3_128().newHasher()
+            .putString(throwable.getClass().getName(), StandardCharsets.UTF_8)
+            .putString(root.getClass().getName(), StandardCharsets.UTF_8);
+        
+        StackTraceElement[] frames = root.getStackTrace();
+        for (int i = 0; i < Math.min(TOP_FRAMES, frames.length); i++) {
+            hasher.putString(frames[i].getClassName(), StandardCharsets.UTF_8)
+                .putString(frames[i].getMethodName(), StandardCharsets.UTF_8)
+                .putInt(frames[i].getLineNumber());
+        }
+        
+        return hasher.hash().toString().substring(0, 16);
+    }
+}
@@ -0,0 +1,36 @@
+package com.packagetracking.command.util;
+
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Utilitário para gerar a chave de busca de remetente e destinatário
+ */
+public class LookupHash {
+
+    public static final int LENGTH = 16;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /**
+     * Primeiros 16 bytes do SHA-256 do valor normalizado (espaços colapsados, NFC, minúsculas).
+     * Precisa gerar o mesmo resultado do backfill R__BackfillPackageLookupHashes do package-migration e do LookupHash do package-query.
+     */
+    public static byte[] of(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] digest = Hashing.sha256().hashString(normalize(value), StandardCharsets.UTF_8).asBytes();
+        return Arrays.copyOf(digest, LENGTH);
+    }
+
+    static String normalize(String value) {
+        String collapsed = WHITESPACE.matcher(value.strip()).replaceAll(" ");
+        return Normalizer.normalize(collapsed, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,39 @@
+package com.packagetracking.command.util;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.packagetracking.command.dto.tracking.TrackingEventRequest;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Utilitário para gerar a chave determinística de um evento de rastreamento
+ */
+public class TrackingEventKey {
+    
+    private static final char SEPARATOR = '\u001F';
+    
+    /**
+     * SHA-256 em hexadecimal (64 caracteres). Usa a chave de idempotência do cliente quando informada;
+     * caso contrário, o conteúdo do evento. O mesmo scan reenviado pela fila ou pela DLQ gera sempre a mesma chave.
+     */
+    public static String of(TrackingEventRequest request) {
+        Hasher hasher = Hashing.sha256().newHasher()
+            .putString(request.packageId(), StandardCharsets.UTF_8)
+            .putChar(SEPARATOR);
+        
+        if (request.idempotencyKey() != null && !request.idempotencyKey().isBlank()) {
+            hasher.putString("idempotency-key", StandardCharsets.UTF_8)
+                .putChar(SEPARATOR)
+                .putString(request.idempotencyKey(), StandardCharsets.UTF_8);
+        } else {
+            hasher.putString(String.valueOf(request.date()), StandardCharsets.UTF_8)
+                .putChar(SEPARATOR)
+                .putString(request.location(), StandardCharsets.UTF_8)
+                .putChar(SEPARATOR)
+                .putString(request.description(), StandardCharsets.UTF_8);
+        }
+        
+        return hasher.hash().toString();
+    }
+}
@@ -0,0 +1,135 @@
+package com.packagetracking.command.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.spi.FilterReply;
+import ch.qos.logback.core.util.Duration;
+import net.logstash.logback.appender.LoggingEventAsyncDisruptorAppender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncLoggingTest {
+
+    private LoggerContext loggerContext;
+    private Logger sampledLogger;
+    private Logger otherLogger;
+
+    @BeforeEach
+    void setUp() {
+        loggerContext = new LoggerContext();
+        sampledLogger = loggerContext.getLogger("com.packagetracking.command.consumer.TrackingEventConsumer");
+        otherLogger = loggerContext.getLogger("com.packagetracking.command.service.PackageService");
+        loggerContext.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+    }
+
+    @Test
+    void sampling_ShouldKeepAboutOneInEveryNInfoEventsOfListedLoggers() {
+        LogSamplingTurboFilter filter = samplingFilter(10);
+        long before = LogSamplingTurboFilter.sampledOut();
+
+        int kept = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.decide(null, sampledLogger, Level.INFO, "Evento {}", new Object[]{i}, null) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+
+        assertTrue(kept > 700 && kept < 1300, "mantidos: " + kept);
+        assertEquals(10_000 - kept, LogSamplingTurboFilter.sampledOut() - before);
+    }
+
+    @Test
+    void sampling_WithRequestId_ShouldKeepOrDropAllLinesOfTheSameRequest() {
+        LogSamplingTurboFilter filter = samplingFilter(10);
+        RequestContext requestContext = new RequestContext("no-1", () -> 1_700_000_000_000L);
+
+        int kept = 0;
+        try {
+            for (int i = 0; i < 10_000; i++) {
+                RequestContext.bind(new RequestContext.Ids(requestContext.nextId(), null));
+                FilterReply first = filter.decide(null, sampledLogger, Level.INFO, "Recebido {}", new Object[]{i}, null);
+                for (int line = 0; line < 5; line++) {
+                    assertEquals(first, filter.decide(null, sampledLogger, Level.INFO, "Processado {}", new Object[]{i}, null));
+                }
+                if (first == FilterReply.NEUTRAL) {
+                    kept++;
+                }
+            }
+        } finally {
+            RequestContext.clear();
+        }
+
+        // IDs sequenciais do mesmo nó ainda se distribuem pela amostragem
+        assertTrue(kept > 700 && kept < 1300, "requisições mantidas: " + kept);
+    }
+
+    @Test
+    void sampling_ShouldNeverDropWarningsOtherLoggersOrEnabledChecks() {
+        LogSamplingTurboFilter filter = samplingFilter(1_000_000);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, sampledLogger, Level.WARN, "Falha", null, null));
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, sampledLogger, Level.ERROR, "Falha", null, null));
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, otherLogger, Level.INFO, "Pacote", null, null));
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, sampledLogger, Level.INFO, null, null, null));
+            // DEBUG desabilitado pelo nível do logger não entra na contagem da amostragem
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, sampledLogger, Level.DEBUG, "Detalhe", null, null));
+        }
+    }
+
+    @Test
+    void asyncAppender_FullRingBuffer_ShouldDropWithoutBlockingAndCount() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AppenderBase<ILoggingEvent> slowAppender = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        slowAppender.setContext(loggerContext);
+        slowAppender.start();
+
+        LoggingEventAsyncDisruptorAppender asyncAppender = new LoggingEventAsyncDisruptorAppender();
+        asyncAppender.setContext(loggerContext);
+        asyncAppender.setRingBufferSize(4);
+        asyncAppender.setAppendTimeout(Duration.buildByMilliseconds(0));
+        asyncAppender.addListener(new AsyncLogDropListener());
+        asyncAppender.addAppender(slowAppender);
+        asyncAppender.start();
+        otherLogger.addAppender(asyncAppender);
+
+        long before = AsyncLogDropListener.dropped();
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            otherLogger.info("Pacote {}", i);
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        release.countDown();
+        asyncAppender.stop();
+
+        assertTrue(elapsedMs < 1000, "logar bloqueou por " + elapsedMs + " ms");
+        assertTrue(AsyncLogDropListener.dropped() - before >= 90);
+    }
+
+    private LogSamplingTurboFilter samplingFilter(int every) {
+        LogSamplingTurboFilter filter = new LogSamplingTurboFilter();
+        filter.setContext(loggerContext);
+        filter.setEvery(every);
+        filter.addLogger("com.packagetracking.command.consumer.TrackingEventConsumer");
+        filter.start();
+        return filter;
+    }
+}
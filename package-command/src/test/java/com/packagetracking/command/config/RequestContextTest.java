@@ -0,0 +1,103 @@
+package com.packagetracking.command.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestContextTest {
+
+    private static final long NOW = 1_790_000_000_123L;
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    void nextId_ConcurrentVirtualThreads_ShouldBeUniqueAndShareNodePrefix() {
+        RequestContext requestContext = new RequestContext("package-command-7f9c2a41b3d0", () -> NOW);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<Void>> tasks = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                tasks.add(CompletableFuture.runAsync(() -> {
+                    for (int j = 0; j < 1_000; j++) {
+                        ids.add(requestContext.nextId());
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+        }
+
+        assertEquals(100_000, ids.size());
+        String prefix = "7f9c2a41b3d0-" + Long.toString(NOW / 1000, 36) + "-";
+        assertTrue(ids.stream().allMatch(id -> id.startsWith(prefix) && RequestContext.validIdOrElse(id, null) != null));
+    }
+
+    @Test
+    void nextId_WithoutNodeId_ShouldUseRandomNodePerInstance() {
+        String first = new RequestContext("", () -> NOW).nextId();
+        String second = new RequestContext(null, () -> NOW).nextId();
+
+        assertNotEquals(first, second);
+        assertTrue(first.endsWith("-1") && second.endsWith("-1"));
+    }
+
+    @Test
+    void currentTimestamp_ShouldFormatOncePerMillisecond() {
+        AtomicLong clock = new AtomicLong(NOW);
+        RequestContext requestContext = new RequestContext("node", clock::get);
+
+        String first = requestContext.currentTimestamp();
+        assertEquals("2026-09-21T14:13:20.123Z", first);
+        assertSame(first, requestContext.currentTimestamp());
+
+        clock.incrementAndGet();
+        assertEquals("2026-09-21T14:13:20.124Z", requestContext.currentTimestamp());
+    }
+
+    @Test
+    void bindFromMessage_ShouldRestoreProducerIdsOrGenerateNew() {
+        RequestContext requestContext = new RequestContext("node", () -> NOW);
+        MessageProperties properties = new MessageProperties();
+        RequestContext.stamp(properties, new RequestContext.Ids("req-abc-123", "pedido-42"));
+
+        requestContext.bind(properties);
+        assertEquals(new RequestContext.Ids("req-abc-123", "pedido-42"), RequestContext.current());
+
+        MessageProperties invalid = new MessageProperties();
+        invalid.setHeader(RequestContext.REQUEST_ID_AMQP_HEADER, "id\ninjetado no log");
+        requestContext.bind(invalid);
+        String generated = MDC.get(RequestContext.REQUEST_ID_MDC);
+        assertTrue(generated.startsWith("node-"));
+        assertEquals(generated, MDC.get(RequestContext.CORRELATION_ID_MDC));
+
+        RequestContext.clear();
+        assertNull(RequestContext.current());
+    }
+
+    @Test
+    void externalApiExecutor_ShouldPropagateRequestIdsToTask() {
+        ExecutorService executor = (ExecutorService) new VirtualThreadConfig().externalApiExecutor(new SimpleMeterRegistry());
+        RequestContext.bind(new RequestContext.Ids("req-abc-123", "pedido-42"));
+
+        RequestContext.Ids inTask = CompletableFuture.supplyAsync(RequestContext::current, executor).join();
+
+        assertEquals(new RequestContext.Ids("req-abc-123", "pedido-42"), inTask);
+        executor.shutdown();
+    }
+}
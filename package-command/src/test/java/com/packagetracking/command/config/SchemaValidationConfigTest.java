@@ -0,0 +1,61 @@
+package com.packagetracking.command.config;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.exception.FlywayValidateException;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaValidationConfigTest {
+
+    private final FlywayMigrationStrategy strategy = new SchemaValidationConfig().validateOnlyMigrationStrategy();
+    private JdbcDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+    }
+
+    @Test
+    void startup_WithPendingMigrations_ShouldFailWithoutRunningDdl() throws Exception {
+        Flyway flyway = flyway(", ALGORITHM=INPLACE, LOCK=NONE", ", ALGORITHM=INSTANT");
+
+        assertThrows(FlywayValidateException.class, () -> strategy.migrate(flyway));
+
+        assertFalse(tableExists("packages"));
+        assertFalse(tableExists("flyway_schema_history"));
+    }
+
+    @Test
+    void startup_AfterMigrationJob_ShouldValidate() {
+        // O H2 não aceita as opções do InnoDB; o checksum é calculado antes da troca dos placeholders
+        flyway("", "").migrate();
+
+        assertDoesNotThrow(() -> strategy.migrate(flyway(", ALGORITHM=INPLACE, LOCK=NONE", ", ALGORITHM=INSTANT")));
+    }
+
+    private Flyway flyway(String onlineDdl, String instantDdl) {
+        return Flyway.configure()
+            .dataSource(dataSource)
+            .locations("classpath:db/migration")
+            .placeholders(Map.of("online_ddl", onlineDdl, "instant_ddl", instantDdl))
+            .load();
+    }
+
+    private boolean tableExists(String table) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             ResultSet tables = connection.getMetaData().getTables(null, null, table, null)) {
+            return tables.next();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.packagetracking.command.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackingEventShardingPropertiesTest {
+
+    @Test
+    void shardFor_SamePackage_ShouldAlwaysReturnSameShard() {
+        TrackingEventShardingProperties properties = properties(8);
+
+        int shard = properties.shardFor("pacote-12345");
+
+        assertEquals(shard, properties.shardFor("pacote-12345"));
+        assertEquals("tracking.events.shard." + shard, properties.routingKeyFor("pacote-12345"));
+        assertEquals("tracking.events.shard." + shard + ".queue", RabbitMQConfig.shardQueue(shard));
+    }
+
+    @Test
+    void shardFor_ManyPackages_ShouldSpreadAcrossAllShards() {
+        TrackingEventShardingProperties properties = properties(4);
+        Set<Integer> shards = new HashSet<>();
+
+        IntStream.range(0, 1000).forEach(i -> {
+            int shard = properties.shardFor("pacote-" + i);
+            assertTrue(shard >= 0 && shard < 4);
+            shards.add(shard);
+        });
+
+        assertEquals(4, shards.size());
+    }
+
+    @Test
+    void shardFor_AddingShard_ShouldMoveOnlyAFractionOfPackages() {
+        TrackingEventShardingProperties before = properties(4);
+        TrackingEventShardingProperties after = properties(5);
+
+        long moved = IntStream.range(0, 1000)
+            .filter(i -> before.shardFor("pacote-" + i) != after.shardFor("pacote-" + i))
+            .count();
+
+        // Consistent hash: ~1/5 dos pacotes deve migrar, bem menos que o rehash total de um módulo simples
+        assertTrue(moved < 350, "Pacotes movidos: " + moved);
+    }
+
+    private TrackingEventShardingProperties properties(int shards) {
+        TrackingEventShardingProperties properties = new TrackingEventShardingProperties();
+        properties.setEnabled(true);
+        properties.setShards(shards);
+        return properties;
+    }
+}
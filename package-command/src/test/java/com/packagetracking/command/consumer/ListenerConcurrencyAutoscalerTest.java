@@ -0,0 +1,48 @@
+package com.packagetracking.command.consumer;
+
+import com.packagetracking.command.config.RabbitListenerProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ListenerConcurrencyAutoscalerTest {
+
+    private RabbitListenerProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RabbitListenerProperties();
+        properties.setMinConsumers(2);
+        properties.setMaxConsumers(10);
+        properties.getAutoscaling().setQueueDepthPerConsumer(100);
+        properties.getAutoscaling().setDbLatencyThresholdMs(200);
+        properties.getAutoscaling().setStep(2);
+    }
+
+    @Test
+    void targetConsumers_QueueBacklog_ShouldScaleUp() {
+        assertEquals(6, ListenerConcurrencyAutoscaler.targetConsumers(4, 1000, 20, properties));
+    }
+
+    @Test
+    void targetConsumers_QueueBacklog_ShouldNotExceedMax() {
+        assertEquals(10, ListenerConcurrencyAutoscaler.targetConsumers(9, 100_000, 20, properties));
+    }
+
+    @Test
+    void targetConsumers_SlowDatabase_ShouldScaleDownEvenWithBacklog() {
+        assertEquals(4, ListenerConcurrencyAutoscaler.targetConsumers(6, 100_000, 350, properties));
+    }
+
+    @Test
+    void targetConsumers_EmptyQueue_ShouldShrinkTowardsMin() {
+        assertEquals(3, ListenerConcurrencyAutoscaler.targetConsumers(4, 0, 20, properties));
+        assertEquals(2, ListenerConcurrencyAutoscaler.targetConsumers(2, 0, 20, properties));
+    }
+
+    @Test
+    void targetConsumers_StableLoad_ShouldKeepCurrent() {
+        assertEquals(4, ListenerConcurrencyAutoscaler.targetConsumers(4, 150, 20, properties));
+    }
+}
@@ -0,0 +1,108 @@
+package com.packagetracking.command.consumer;
+
+import com.packagetracking.command.config.VirtualThreadConfig;
+import com.packagetracking.command.dto.tracking.TrackingEventRequest;
+import com.packagetracking.command.service.ErrorCatalogService;
+import com.packagetracking.command.service.OutboxService;
+import com.packagetracking.command.service.TrackingEventService;
+import com.packagetracking.command.service.TrackingPipelineMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Caminho assíncrono do consumidor com transações e banco reais (H2 no modo MySQL com as migrações do Flyway):
+ * o evento e a notificação do outbox precisam ser gravados juntos, sem passar pela DLQ
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:consumer-outbox;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.flyway.placeholders.online_ddl=",
+    "spring.flyway.placeholders.instant_ddl=",
+    "spring.jpa.hibernate.ddl-auto=none",
+    "app.resources.endpoints=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TrackingEventConsumerOutboxTest {
+
+    @SpringBootConfiguration
+    @EntityScan("com.packagetracking.command.entity")
+    @EnableJpaRepositories("com.packagetracking.command.repository")
+    @Import({TrackingEventConsumer.class, TrackingEventService.class, OutboxService.class, TrackingPipelineMetrics.class,
+             VirtualThreadConfig.class})
+    static class Config {
+
+        @Bean
+        ObservationRegistry observationRegistry() {
+            return ObservationRegistry.NOOP;
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private TrackingEventConsumer trackingEventConsumer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private RabbitTemplate rabbitTemplate;
+
+    @MockBean
+    private ErrorCatalogService errorCatalogService;
+
+    @Test
+    void processTrackingEvent_AsyncPath_ShouldPersistEventAndOutboxInSameTransaction() throws InterruptedException {
+        TrackingEventRequest event = new TrackingEventRequest("pacote-12345", "Centro de Distribuição São Paulo",
+                                                              "Em trânsito", LocalDateTime.parse("2025-01-20T11:00:00"));
+
+        trackingEventConsumer.processTrackingEvent(event, new Message(new byte[0]));
+
+        assertEquals(1, awaitCount("SELECT COUNT(*) FROM outbox_events WHERE package_id = 'pacote-12345' " +
+                                   "AND event_type = 'TRACKING_EVENT_ADDED'"));
+        assertEquals(1, awaitCount("SELECT COUNT(*) FROM tracking_events WHERE package_id = 'pacote-12345'"));
+        verify(rabbitTemplate, never()).convertAndSend(anyString(), eq("tracking.events.dlq"), any(Object.class), any(MessagePostProcessor.class));
+    }
+
+    private int awaitCount(String sql) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15_000;
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class);
+        while (count == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            count = jdbcTemplate.queryForObject(sql, Integer.class);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,96 @@
+package com.packagetracking.command.consumer;
+
+import com.packagetracking.command.dto.tracking.ErrorCatalogEntry;
+import com.packagetracking.command.dto.tracking.TrackingEventBatchMessage;
+import com.packagetracking.command.dto.tracking.TrackingEventRequest;
+import com.packagetracking.command.service.ErrorCatalogService;
+import com.packagetracking.command.service.TrackingEventService;
+import com.packagetracking.command.service.TrackingPipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrackingEventConsumerTest {
+
+    @Mock
+    private TrackingEventService trackingEventService;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private ErrorCatalogService errorCatalogService;
+
+    private TrackingEventConsumer trackingEventConsumer;
+
+    @BeforeEach
+    void setUp() {
+        trackingEventConsumer = new TrackingEventConsumer(trackingEventService, rabbitTemplate, errorCatalogService,
+                                                          new TrackingPipelineMetrics(ObservationRegistry.NOOP, new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void processTrackingEventBatch_Malformed_ShouldRejectToParkingLot() {
+        assertThrows(AmqpRejectAndDontRequeueException.class,
+            () -> trackingEventConsumer.processTrackingEventBatch(new TrackingEventBatchMessage("lote-1", null), new Message(new byte[0])));
+
+        verifyNoInteractions(trackingEventService);
+    }
+
+    @Test
+    void processTrackingEventBatch_FallbackFailureSentToDlq_ShouldAcknowledge() {
+        failBatchAndFirstEvent();
+        when(errorCatalogService.register(any())).thenReturn(new ErrorCatalogEntry("abc123", "RuntimeException", "falha", ""));
+
+        assertDoesNotThrow(() -> trackingEventConsumer.processTrackingEventBatch(batch(), new Message(new byte[0])));
+
+        verify(rabbitTemplate).convertAndSend(anyString(), eq("tracking.events.dlq"), any(Object.class), any(MessagePostProcessor.class));
+    }
+
+    @Test
+    void processTrackingEventBatch_DlqUnavailableDuringFallback_ShouldRejectBatchToParkingLot() {
+        failBatchAndFirstEvent();
+        when(errorCatalogService.register(any())).thenReturn(new ErrorCatalogEntry("abc123", "RuntimeException", "falha", ""));
+        doThrow(new AmqpException("broker fora do ar"))
+            .when(rabbitTemplate).convertAndSend(anyString(), eq("tracking.events.dlq"), any(Object.class), any(MessagePostProcessor.class));
+
+        assertThrows(AmqpRejectAndDontRequeueException.class,
+            () -> trackingEventConsumer.processTrackingEventBatch(batch(), new Message(new byte[0])));
+
+        // O evento válido continua salvo; no replay do parking lot ele é ignorado pela chave do evento
+        verify(trackingEventService, times(2)).processTrackingEvent(any());
+    }
+
+    private void failBatchAndFirstEvent() {
+        doThrow(new RuntimeException("deadlock")).when(trackingEventService).processTrackingEventBatch(anyList());
+        doThrow(new RuntimeException("falha"))
+            .when(trackingEventService).processTrackingEvent(argThat(event -> "pacote-1".equals(event.packageId())));
+    }
+
+    private static TrackingEventBatchMessage batch() {
+        LocalDateTime date = LocalDateTime.parse("2025-01-20T11:00:00");
+        return new TrackingEventBatchMessage("lote-1", List.of(
+            new TrackingEventRequest("pacote-1", "São Paulo", "Em trânsito", date),
+            new TrackingEventRequest("pacote-2", "Campinas", "Em trânsito", date)));
+    }
+}
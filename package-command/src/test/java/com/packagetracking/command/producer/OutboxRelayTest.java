@@ -0,0 +1,99 @@
+package com.packagetracking.command.producer;
+
+import com.packagetracking.command.dto.outbox.PackageChangeEvent;
+import com.packagetracking.command.entity.OutboxEvent;
+import com.packagetracking.command.entity.OutboxEventType;
+import com.packagetracking.command.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+
+import static com.packagetracking.command.config.RabbitMQConfig.PACKAGE_CHANGES_EXCHANGE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private ConnectionFactory connectionFactory;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        outboxRelay = new OutboxRelay(outboxEventRepository, rabbitTemplate, transactionManager, meterRegistry, 2, 200, 100);
+        when(rabbitTemplate.getConnectionFactory()).thenReturn(connectionFactory);
+        when(connectionFactory.isPublisherConfirms()).thenReturn(true);
+    }
+
+    @Test
+    void relayBatch_Confirmed_ShouldPublishInOrderAndDeleteBatch() {
+        when(outboxEventRepository.lockNextBatch(2)).thenReturn(List.of(
+            outboxEvent(1L, OutboxEventType.PACKAGE_CREATED, "CREATED"),
+            outboxEvent(2L, OutboxEventType.PACKAGE_STATUS_CHANGED, "IN_TRANSIT")));
+        doAnswer(invocation -> {
+            invocation.<CorrelationData>getArgument(3).getFuture().complete(new CorrelationData.Confirm(true, null));
+            return null;
+        }).when(rabbitTemplate).convertAndSend(eq(PACKAGE_CHANGES_EXCHANGE), any(String.class), any(Object.class), any(CorrelationData.class));
+
+        assertEquals(2, outboxRelay.relayBatch());
+
+        verify(rabbitTemplate).convertAndSend(eq(PACKAGE_CHANGES_EXCHANGE), eq("package.created"),
+            eq((Object) new PackageChangeEvent(1L, "PACKAGE_CREATED", "pacote-1", "CREATED", Instant.EPOCH)), any(CorrelationData.class));
+        verify(rabbitTemplate).convertAndSend(eq(PACKAGE_CHANGES_EXCHANGE), eq("package.status-changed"),
+            any(Object.class), any(CorrelationData.class));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(transactionManager).commit(any());
+        assertEquals(2.0, meterRegistry.get("package.outbox.published").counter().count());
+    }
+
+    @Test
+    void drain_Nack_ShouldRollbackAndKeepRows() {
+        when(outboxEventRepository.lockNextBatch(2)).thenReturn(List.of(outboxEvent(1L, OutboxEventType.PACKAGE_CREATED, "CREATED")));
+        doAnswer(invocation -> {
+            invocation.<CorrelationData>getArgument(3).getFuture().complete(new CorrelationData.Confirm(false, "queue full"));
+            return null;
+        }).when(rabbitTemplate).convertAndSend(eq(PACKAGE_CHANGES_EXCHANGE), any(String.class), any(Object.class), any(CorrelationData.class));
+
+        outboxRelay.drain();
+
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(anyList());
+        verify(transactionManager).rollback(any());
+        assertEquals(1.0, meterRegistry.get("package.outbox.relay.failures").counter().count());
+    }
+
+    private OutboxEvent outboxEvent(Long id, OutboxEventType type, String status) {
+        return OutboxEvent.builder()
+            .id(id)
+            .eventType(type)
+            .packageId("pacote-" + id)
+            .status(status)
+            .createdAt(Instant.EPOCH)
+            .build();
+    }
+}
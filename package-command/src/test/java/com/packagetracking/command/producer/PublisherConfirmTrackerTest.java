@@ -0,0 +1,152 @@
+package com.packagetracking.command.producer;
+
+import com.packagetracking.command.config.RequestContext;
+import com.packagetracking.command.service.TrackingPipelineMetrics;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.MDC;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PublisherConfirmTrackerTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private ConnectionFactory connectionFactory;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PublisherConfirmTracker tracker;
+    private RabbitTemplate.ConfirmCallback confirmCallback;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        tracker = new PublisherConfirmTracker(rabbitTemplate, meterRegistry,
+                                              new TrackingPipelineMetrics(observationRegistry, meterRegistry),
+                                              Runnable::run, 1, 10, 1);
+
+        when(rabbitTemplate.getConnectionFactory()).thenReturn(connectionFactory);
+        when(connectionFactory.isPublisherConfirms()).thenReturn(true);
+        tracker.registerCallbacks();
+
+        ArgumentCaptor<RabbitTemplate.ConfirmCallback> captor = ArgumentCaptor.forClass(RabbitTemplate.ConfirmCallback.class);
+        verify(rabbitTemplate).setConfirmCallback(captor.capture());
+        confirmCallback = captor.getValue();
+    }
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    void publish_Ack_ShouldReleaseWindowAndRecordLatency() {
+        tracker.publish("exchange", "routing", "payload");
+        assertEquals(1, tracker.outstanding());
+        assertEquals(1.0, meterRegistry.get("tracking.publisher.confirms.outstanding").gauge().value());
+
+        confirmCallback.confirm(lastCorrelation(1), true, null);
+
+        assertEquals(0, tracker.outstanding());
+        assertEquals(1, meterRegistry.get("tracking.publisher.confirm.latency").tag("outcome", "ack").timer().count());
+
+        // A vaga liberada permite uma nova publicação com janela de tamanho 1
+        assertDoesNotThrow(() -> tracker.publish("exchange", "routing", "payload"));
+    }
+
+    @Test
+    void publish_WindowFull_ShouldFailFast() {
+        tracker.publish("exchange", "routing", "payload");
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> tracker.publish("exchange", "routing", "payload"));
+
+        assertTrue(exception.getMessage().contains("Janela de publisher confirms cheia"));
+        verify(rabbitTemplate, times(1)).convertAndSend(eq("exchange"), eq("routing"), eq((Object) "payload"), any(MessagePostProcessor.class), any(CorrelationData.class));
+    }
+
+    @Test
+    void publish_Nack_ShouldRetryUntilLimitAndThenDrop() {
+        tracker.publish("exchange", "routing", "payload");
+
+        confirmCallback.confirm(lastCorrelation(1), false, "queue full");
+        assertEquals(1, tracker.outstanding());
+        assertEquals(1.0, meterRegistry.get("tracking.publisher.confirms.retried").counter().count());
+
+        confirmCallback.confirm(lastCorrelation(2), false, "queue full");
+        assertEquals(0, tracker.outstanding());
+        assertEquals(1.0, meterRegistry.get("tracking.publisher.confirms.failed").counter().count());
+        assertEquals(2, meterRegistry.get("tracking.publisher.confirm.latency").tag("outcome", "nack").timer().count());
+    }
+
+    @Test
+    void publish_SendFails_ShouldReleaseWindowAndRethrow() {
+        doThrow(new RuntimeException("Connection refused"))
+            .when(rabbitTemplate).convertAndSend(eq("exchange"), eq("routing"), eq((Object) "payload"), any(MessagePostProcessor.class), any(CorrelationData.class));
+
+        assertThrows(RuntimeException.class, () -> tracker.publish("exchange", "routing", "payload"));
+        assertEquals(0, tracker.outstanding());
+
+        doNothing()
+            .when(rabbitTemplate).convertAndSend(eq("exchange"), eq("routing"), eq((Object) "payload"), any(MessagePostProcessor.class), any(CorrelationData.class));
+        assertDoesNotThrow(() -> tracker.publish("exchange", "routing", "payload"));
+    }
+
+    @Test
+    void publish_Retry_ShouldKeepIngestionTimestampAndRequestIdsAndStampEachSend() {
+        RequestContext.bind(new RequestContext.Ids("req-abc-123", "pedido-42"));
+        tracker.publish("exchange", "routing", "payload");
+        // A republicação acontece fora da thread da requisição
+        RequestContext.clear();
+        confirmCallback.confirm(lastCorrelation(1), false, "queue full");
+
+        ArgumentCaptor<MessagePostProcessor> captor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        verify(rabbitTemplate, times(2))
+            .convertAndSend(eq("exchange"), eq("routing"), eq((Object) "payload"), captor.capture(), any(CorrelationData.class));
+        List<MessageProperties> sent = captor.getAllValues().stream()
+            .map(postProcessor -> postProcessor.postProcessMessage(new Message(new byte[0])).getMessageProperties())
+            .toList();
+
+        Object ingestedAt = sent.get(0).getHeader(TrackingPipelineMetrics.INGESTED_AT_HEADER);
+        assertNotNull(ingestedAt);
+        assertEquals(ingestedAt, sent.get(1).getHeader(TrackingPipelineMetrics.INGESTED_AT_HEADER));
+        assertNotNull(sent.get(1).getTimestamp());
+        for (MessageProperties properties : sent) {
+            assertEquals("req-abc-123", properties.getHeader(RequestContext.REQUEST_ID_AMQP_HEADER));
+            assertEquals("pedido-42", properties.getHeader(RequestContext.CORRELATION_ID_AMQP_HEADER));
+        }
+        assertEquals(1, meterRegistry.get(TrackingPipelineMetrics.STAGE_OBSERVATION)
+            .tag("stage", TrackingPipelineMetrics.STAGE_PUBLISH).timer().count());
+    }
+
+    private CorrelationData lastCorrelation(int expectedSends) {
+        ArgumentCaptor<CorrelationData> captor = ArgumentCaptor.forClass(CorrelationData.class);
+        verify(rabbitTemplate, times(expectedSends))
+            .convertAndSend(eq("exchange"), eq("routing"), eq((Object) "payload"), any(MessagePostProcessor.class), captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,140 @@
+package com.packagetracking.command.repository;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Aplica as migrações do Flyway em um H2 no modo MySQL e confere, via EXPLAIN, que cada consulta nativa
+ * dos repositórios usa o índice previsto para ela. Consulta nativa nova sem índice mapeado aqui falha o teste.
+ */
+class QueryIndexUsageTest {
+
+    private static final List<Class<?>> REPOSITORIES =
+        List.of(TrackingEventRepository.class, PackageJpaRepository.class, OutboxEventRepository.class);
+
+    private static final Map<String, String> EXPECTED_INDEX = Map.ofEntries(
+        Map.entry("TrackingEventRepository.findByPackageIdWithPagination", "idx_tracking_package_date"),
+        Map.entry("TrackingEventRepository.findRecentEventsByPackageId", "idx_tracking_package_date"),
+        Map.entry("TrackingEventRepository.countByPackageId", "idx_tracking_package_date"),
+        Map.entry("TrackingEventRepository.findOldEventsForCleanup", "idx_tracking_date"),
+        Map.entry("TrackingEventRepository.deleteOldEvents", "idx_tracking_date"),
+        Map.entry("TrackingEventRepository.findByDateRange", "idx_tracking_date"),
+        Map.entry("PackageJpaRepository.findByStatusWithPagination", "idx_package_status_updated"),
+        Map.entry("PackageJpaRepository.findOldPackagesForCleanup", "idx_package_status_created"),
+        Map.entry("PackageJpaRepository.deleteOldPackages", "idx_package_status_created"),
+        Map.entry("PackageJpaRepository.countByStatus", "idx_package_status_"),
+        Map.entry("PackageJpaRepository.findBySenderWithPagination", "idx_package_sender_lookup"),
+        Map.entry("PackageJpaRepository.findByRecipientWithPagination", "idx_package_recipient_lookup"),
+        Map.entry("OutboxEventRepository.lockNextBatch", "primary_key")
+    );
+
+    private static final Pattern NAMED_PARAMETER = Pattern.compile(":(\\w+)");
+
+    private static JdbcDataSource dataSource;
+
+    @BeforeAll
+    static void migrate() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:command-explain;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration")
+            .placeholders(Map.of("online_ddl", "", "instant_ddl", "")).load().migrate();
+    }
+
+    static Stream<Arguments> nativeQueries() {
+        return REPOSITORIES.stream()
+            .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods()))
+            .filter(method -> method.isAnnotationPresent(Query.class) && method.getAnnotation(Query.class).nativeQuery())
+            .map(method -> Arguments.of(method.getDeclaringClass().getSimpleName() + "." + method.getName(), method));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("nativeQueries")
+    void nativeQuery_ShouldUseExpectedIndex(String queryName, Method method) throws Exception {
+        String expectedIndex = EXPECTED_INDEX.get(queryName);
+        assertNotNull(expectedIndex, "Consulta sem índice mapeado: " + queryName);
+
+        String plan = explain(method);
+
+        assertTrue(plan.toLowerCase().contains("/* public." + expectedIndex),
+                   queryName + " deveria usar " + expectedIndex + ", plano: " + plan);
+        assertFalse(plan.toLowerCase().contains("tablescan"), queryName + " faz varredura completa, plano: " + plan);
+    }
+
+    @Test
+    void migrations_ShouldRemoveIndexesCoveredByCompositePrefixes() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             ResultSet indexes = connection.getMetaData().getIndexInfo(null, "public", "tracking_events", false, false)) {
+            List<String> names = new ArrayList<>();
+            while (indexes.next()) {
+                names.add(indexes.getString("INDEX_NAME").toLowerCase());
+            }
+            assertTrue(names.contains("idx_tracking_package_date"));
+            assertFalse(names.contains("idx_tracking_packageid"));
+        }
+    }
+
+    private String explain(Method method) throws Exception {
+        String sql = method.getAnnotation(Query.class).value();
+        List<String> parameterNames = new ArrayList<>();
+        Matcher matcher = NAMED_PARAMETER.matcher(sql);
+        while (matcher.find()) {
+            parameterNames.add(matcher.group(1));
+        }
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + matcher.replaceAll("?"))) {
+            for (int i = 0; i < parameterNames.size(); i++) {
+                statement.setObject(i + 1, sampleValue(method, parameterNames.get(i)));
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getString(1);
+            }
+        }
+    }
+
+    private static Object sampleValue(Method method, String parameterName) {
+        for (Parameter parameter : method.getParameters()) {
+            Param param = parameter.getAnnotation(Param.class);
+            if (param != null && param.value().equals(parameterName)) {
+                if (parameter.getType() == Instant.class) {
+                    return Timestamp.from(Instant.parse("2025-01-20T10:00:00Z"));
+                }
+                if (parameter.getType() == int.class) {
+                    return 100;
+                }
+                if (parameter.getType() == byte[].class) {
+                    return new byte[16];
+                }
+                return "IN_TRANSIT";
+            }
+        }
+        throw new IllegalArgumentException("Parâmetro sem @Param: " + parameterName);
+    }
+}
@@ -0,0 +1,102 @@
+package com.packagetracking.command.service;
+
+import com.packagetracking.command.config.DlqRetryProperties;
+import com.packagetracking.command.dto.tracking.TrackingEventDLQMessage;
+import com.packagetracking.command.dto.tracking.TrackingEventRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class DLQRetryServiceTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    private DlqRetryProperties retryProperties;
+    private DLQRetryService dlqRetryService;
+    private TrackingEventDLQMessage dlqMessage;
+
+    @BeforeEach
+    void setUp() {
+        retryProperties = new DlqRetryProperties();
+        dlqRetryService = new DLQRetryService(rabbitTemplate, retryProperties);
+
+        TrackingEventRequest request = new TrackingEventRequest(
+            "pacote-12345", "Centro de Distribuição São Paulo", "Pacote chegou ao centro de distribuição",
+            LocalDateTime.parse("2025-01-20T11:00:00"));
+        RuntimeException exception = new RuntimeException("Timeout");
+        dlqMessage = TrackingEventDLQMessage.fromException(request, exception, "main", new ErrorCatalogService(10).register(exception));
+    }
+
+    @Test
+    void getRetryCount_UsesAttemptHeaderInsteadOfXDeath() {
+        MessageProperties properties = new MessageProperties();
+        properties.setHeader("x-death", List.of(Map.of("count", 5L)));
+        assertEquals(0, dlqRetryService.getRetryCount(new Message(new byte[0], properties)));
+
+        properties.setHeader(DLQRetryService.RETRY_ATTEMPT_HEADER, 2);
+        assertEquals(2, dlqRetryService.getRetryCount(new Message(new byte[0], properties)));
+        assertTrue(dlqRetryService.shouldRetry(new Message(new byte[0], properties)));
+
+        properties.setHeader(DLQRetryService.RETRY_ATTEMPT_HEADER, 4);
+        assertFalse(dlqRetryService.shouldRetry(new Message(new byte[0], properties)));
+    }
+
+    @Test
+    void sendToRetry_ShouldRouteToTierWithAttemptHeaderAndJitteredExpiration() {
+        dlqRetryService.sendToRetry(dlqMessage, 1);
+
+        ArgumentCaptor<MessagePostProcessor> captor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        verify(rabbitTemplate).convertAndSend(eq("tracking.events.exchange"), eq("tracking.events.retry.tier.1"),
+            eq(dlqMessage), captor.capture());
+
+        Message message = captor.getValue().postProcessMessage(new Message(new byte[0], new MessageProperties()));
+        assertEquals(2, (Integer) message.getMessageProperties().getHeader(DLQRetryService.RETRY_ATTEMPT_HEADER));
+        long expiration = Long.parseLong(message.getMessageProperties().getExpiration());
+        assertTrue(expiration >= 8_000 && expiration <= 12_000, "Expiração fora do jitter: " + expiration);
+    }
+
+    @Test
+    void sendToRetry_BeyondLastTier_ShouldReuseLastTier() {
+        dlqRetryService.sendToRetry(dlqMessage, 7);
+
+        verify(rabbitTemplate).convertAndSend(eq("tracking.events.exchange"), eq("tracking.events.retry.tier.3"),
+            eq(dlqMessage), any(MessagePostProcessor.class));
+    }
+
+    @Test
+    void retryDelayMs_ShouldStayWithinJitterBounds() {
+        for (int i = 0; i < 100; i++) {
+            long delay = dlqRetryService.retryDelayMs(1);
+            assertTrue(delay >= 800 && delay <= 1200, "Delay fora do jitter: " + delay);
+        }
+
+        retryProperties.setJitter(0);
+        assertEquals(600_000, dlqRetryService.retryDelayMs(4));
+    }
+
+    @Test
+    void markAsPermanentlyFailed_ShouldMoveToParkingLot() {
+        dlqRetryService.markAsPermanentlyFailed(dlqMessage, 4);
+
+        verify(rabbitTemplate).convertAndSend(eq("tracking.events.exchange"), eq("tracking.events.parking-lot"),
+            eq(dlqMessage), any(MessagePostProcessor.class));
+    }
+}
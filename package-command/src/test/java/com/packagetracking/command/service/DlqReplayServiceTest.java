@@ -0,0 +1,192 @@
+package com.packagetracking.command.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.packagetracking.command.config.TrackingEventShardingProperties;
+import com.packagetracking.command.dto.tracking.DlqReplayJob;
+import com.packagetracking.command.dto.tracking.DlqReplayRequest;
+import com.packagetracking.command.dto.tracking.TrackingEventBatchMessage;
+import com.packagetracking.command.dto.tracking.TrackingEventDLQMessage;
+import com.packagetracking.command.dto.tracking.TrackingEventRequest;
+import com.packagetracking.command.repository.TrackingEventRepository;
+import com.packagetracking.command.util.TrackingEventKey;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Envelope;
+import com.rabbitmq.client.GetResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.rabbit.core.ChannelCallback;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static com.packagetracking.command.config.RabbitMQConfig.TRACKING_EVENTS_EXCHANGE;
+import static com.packagetracking.command.config.RabbitMQConfig.TRACKING_EVENTS_PARKING_LOT;
+import static com.packagetracking.command.config.RabbitMQConfig.TRACKING_EVENTS_PARKING_LOT_ROUTING_KEY;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DlqReplayServiceTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private TrackingEventService trackingEventService;
+
+    @Mock
+    private TrackingEventRepository trackingEventRepository;
+
+    @Mock
+    private Channel channel;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private DlqReplayService dlqReplayService;
+
+    @BeforeEach
+    void setUp() {
+        dlqReplayService = new DlqReplayService(rabbitTemplate, trackingEventService, trackingEventRepository,
+                                                objectMapper, new TrackingEventShardingProperties(), Runnable::run);
+    }
+
+    @Test
+    void start_Republish_ShouldReplayMatchingSkipDuplicatesAndRequeueOthers() throws Exception {
+        givenChannel();
+        when(channel.basicGet(TRACKING_EVENTS_PARKING_LOT, false)).thenReturn(
+            parked(1, 2, "pacote-1", "Curitiba"),
+            parked(2, 1, "pacote-1", "São Paulo"),
+            parked(3, 0, "pacote-2", "Recife"));
+        when(trackingEventRepository.findExistingEventKeys(any())).thenReturn(List.of(TrackingEventKey.of(event("pacote-1", "São Paulo"))));
+
+        DlqReplayJob job = dlqReplayService.start(new DlqReplayRequest("pacote-1", null, null, null, DlqReplayRequest.Mode.REPUBLISH, null, null));
+
+        assertEquals(DlqReplayJob.State.COMPLETED, job.getState());
+        assertEquals(3, job.getScanned().get());
+        assertEquals(2, job.getMatched().get());
+        assertEquals(1, job.getReplayed().get());
+        assertEquals(1, job.getDuplicates().get());
+        assertEquals(1, job.getRequeued().get());
+
+        verify(rabbitTemplate).convertAndSend(TRACKING_EVENTS_EXCHANGE, "tracking.events", (Object) event("pacote-1", "Curitiba"));
+        verify(channel).basicPublish(eq(TRACKING_EVENTS_EXCHANGE), eq(TRACKING_EVENTS_PARKING_LOT_ROUTING_KEY), any(), any());
+        verify(channel).basicAck(1, false);
+        verify(channel).basicAck(2, false);
+        verify(channel).basicAck(3, false);
+        verify(channel, never()).basicNack(anyLong(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    void start_BulkInsert_ShouldCountIgnoredRowsAsDuplicates() throws Exception {
+        givenChannel();
+        when(channel.basicGet(TRACKING_EVENTS_PARKING_LOT, false)).thenReturn(
+            parked(1, 1, "pacote-1", "Curitiba"),
+            parked(2, 0, "pacote-1", "São Paulo"));
+        when(trackingEventService.processTrackingEventBatch(anyList())).thenReturn(1);
+
+        DlqReplayJob job = dlqReplayService.start(new DlqReplayRequest(null, null, null, null, null, null, null));
+
+        assertEquals(DlqReplayJob.State.COMPLETED, job.getState());
+        assertEquals(1, job.getReplayed().get());
+        assertEquals(1, job.getDuplicates().get());
+        verify(trackingEventService).processTrackingEventBatch(List.of(event("pacote-1", "Curitiba"), event("pacote-1", "São Paulo")));
+        verify(trackingEventRepository, never()).findExistingEventKeys(any());
+    }
+
+    @Test
+    void start_ParkedBatchAndRawEvent_ShouldExpandBatchAndRequeueUnselectedEvents() throws Exception {
+        givenChannel();
+        TrackingEventBatchMessage parkedBatch = new TrackingEventBatchMessage("lote-1",
+            List.of(event("pacote-1", "Curitiba"), event("pacote-2", "Recife")));
+        when(channel.basicGet(TRACKING_EVENTS_PARKING_LOT, false)).thenReturn(
+            rejected(1, 1, parkedBatch),
+            rejected(2, 0, event("pacote-1", "São Paulo")));
+        when(trackingEventService.processTrackingEventBatch(anyList())).thenReturn(2);
+
+        DlqReplayJob job = dlqReplayService.start(new DlqReplayRequest("pacote-1", null, null, null, null, null, null));
+
+        assertEquals(DlqReplayJob.State.COMPLETED, job.getState());
+        assertEquals(2, job.getScanned().get());
+        assertEquals(2, job.getMatched().get());
+        assertEquals(2, job.getReplayed().get());
+        assertEquals(1, job.getRequeued().get());
+        verify(trackingEventService).processTrackingEventBatch(List.of(event("pacote-1", "Curitiba"), event("pacote-1", "São Paulo")));
+
+        ArgumentCaptor<byte[]> requeued = ArgumentCaptor.forClass(byte[].class);
+        verify(channel).basicPublish(eq(TRACKING_EVENTS_EXCHANGE), eq(TRACKING_EVENTS_PARKING_LOT_ROUTING_KEY), any(), requeued.capture());
+        assertEquals(new TrackingEventBatchMessage("lote-1", List.of(event("pacote-2", "Recife"))),
+                     objectMapper.readValue(requeued.getValue(), TrackingEventBatchMessage.class));
+        verify(channel).basicAck(1, false);
+        verify(channel).basicAck(2, false);
+    }
+
+    @Test
+    void start_InsertFails_ShouldNackBatchAndFailJob() throws Exception {
+        givenChannel();
+        when(channel.basicGet(TRACKING_EVENTS_PARKING_LOT, false)).thenReturn(parked(7, 0, "pacote-1", "Curitiba"));
+        doThrow(new RuntimeException("Deadlock")).when(trackingEventService).processTrackingEventBatch(anyList());
+
+        DlqReplayJob job = dlqReplayService.start(new DlqReplayRequest(null, null, null, null, null, null, null));
+
+        assertEquals(DlqReplayJob.State.FAILED, job.getState());
+        assertEquals("Deadlock", job.getError());
+        assertEquals(0, job.getReplayed().get());
+        verify(channel).basicNack(7, false, true);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void start_WhileAnotherReplayRuns_ShouldBeRejected() {
+        DlqReplayService pendingService = new DlqReplayService(rabbitTemplate, trackingEventService, trackingEventRepository,
+                                                               objectMapper, new TrackingEventShardingProperties(), task -> {});
+        DlqReplayRequest request = new DlqReplayRequest(null, null, null, null, null, null, null);
+
+        DlqReplayJob running = pendingService.start(request);
+        assertThrows(IllegalStateException.class, () -> pendingService.start(request));
+
+        pendingService.cancel(running.getId());
+        assertEquals(DlqReplayJob.State.CANCELLED, pendingService.find(running.getId()).getState());
+    }
+
+    private void givenChannel() {
+        when(rabbitTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<ChannelCallback<?>>getArgument(0).doInRabbit(channel));
+    }
+
+    private TrackingEventRequest event(String packageId, String location) {
+        return new TrackingEventRequest(packageId, location, "Pacote chegou ao centro de distribuição",
+                                        LocalDateTime.parse("2025-01-20T11:00:00"));
+    }
+
+    private GetResponse parked(long deliveryTag, int remaining, String packageId, String location) throws Exception {
+        TrackingEventDLQMessage message = new TrackingEventDLQMessage(event(packageId, location), "Timeout", "RuntimeException", "abc123", 1,
+                                                                      LocalDateTime.parse("2025-01-20T11:05:00"), "main", "event-consumer-8080");
+        return new GetResponse(new Envelope(deliveryTag, false, TRACKING_EVENTS_EXCHANGE, TRACKING_EVENTS_PARKING_LOT_ROUTING_KEY),
+                               new AMQP.BasicProperties(), objectMapper.writeValueAsBytes(message), remaining);
+    }
+
+    /**
+     * Mensagem rejeitada na fila de origem e levada ao parking lot pelo dead-letter exchange, com o header de tipo do conversor
+     */
+    private GetResponse rejected(long deliveryTag, int remaining, Object payload) throws Exception {
+        AMQP.BasicProperties properties = new AMQP.BasicProperties.Builder()
+            .headers(Map.of(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, payload.getClass().getName(),
+                            "x-death", List.of(Map.of("time", new Date(), "reason", "rejected"))))
+            .build();
+        return new GetResponse(new Envelope(deliveryTag, false, TRACKING_EVENTS_EXCHANGE, TRACKING_EVENTS_PARKING_LOT_ROUTING_KEY),
+                               properties, objectMapper.writeValueAsBytes(payload), remaining);
+    }
+}
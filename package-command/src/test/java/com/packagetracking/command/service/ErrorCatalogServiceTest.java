@@ -0,0 +1,67 @@
+package com.packagetracking.command.service;
+
+import com.packagetracking.command.dto.tracking.ErrorCatalogEntry;
+import com.packagetracking.command.dto.tracking.TrackingEventDLQMessage;
+import com.packagetracking.command.dto.tracking.TrackingEventRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ErrorCatalogServiceTest {
+
+    private ErrorCatalogService errorCatalogService;
+
+    @BeforeEach
+    void setUp() {
+        errorCatalogService = new ErrorCatalogService(10);
+    }
+
+    @Test
+    void register_SameFailureWithDifferentMessages_ShouldShareFingerprintAndCount() {
+        // Mesmo ponto de falha (mesmos frames), mensagens diferentes
+        ErrorCatalogEntry[] entries = new ErrorCatalogEntry[2];
+        for (int i = 0; i < 2; i++) {
+            entries[i] = errorCatalogService.register(fail("Pacote pacote-" + (i + 1) + " não encontrado"));
+        }
+        ErrorCatalogEntry first = entries[0];
+        ErrorCatalogEntry second = entries[1];
+
+        assertSame(first, second);
+        assertEquals(2, second.getOccurrences());
+        assertEquals("Pacote pacote-1 não encontrado", second.getFirstMessage());
+        assertTrue(second.getStackTrace().contains("IllegalStateException"));
+        assertEquals(1, errorCatalogService.findAll().size());
+    }
+
+    @Test
+    void register_DifferentExceptionTypes_ShouldGetDifferentFingerprints() {
+        ErrorCatalogEntry state = errorCatalogService.register(fail("erro"));
+        ErrorCatalogEntry argument = errorCatalogService.register(new IllegalArgumentException("erro"));
+
+        assertNotEquals(state.getFingerprint(), argument.getFingerprint());
+        assertSame(argument, errorCatalogService.find(argument.getFingerprint()));
+    }
+
+    @Test
+    void dlqMessage_ShouldCarryFingerprintInsteadOfStackTrace() {
+        RuntimeException exception = new RuntimeException("x".repeat(1000), fail("causa"));
+        TrackingEventRequest request = new TrackingEventRequest(
+            "pacote-12345", "Centro de Distribuição São Paulo", "Pacote chegou ao centro de distribuição",
+            LocalDateTime.parse("2025-01-20T11:00:00"));
+
+        TrackingEventDLQMessage dlqMessage = TrackingEventDLQMessage.fromException(
+            request, exception, "main", errorCatalogService.register(exception));
+
+        assertEquals(16, dlqMessage.getErrorFingerprint().length());
+        assertEquals(1, dlqMessage.getErrorOccurrences());
+        assertTrue(dlqMessage.getErrorMessage().length() < 250);
+        assertNotNull(errorCatalogService.find(dlqMessage.getErrorFingerprint()).getStackTrace());
+    }
+
+    private IllegalStateException fail(String message) {
+        return new IllegalStateException(message);
+    }
+}
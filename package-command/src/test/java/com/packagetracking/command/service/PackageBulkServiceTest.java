@@ -0,0 +1,164 @@
+package com.packagetracking.command.service;
+
+import com.packagetracking.command.constants.MessageConstants;
+import com.packagetracking.command.dto.packages.PackageBulkItemResult;
+import com.packagetracking.command.dto.packages.PackageCreateRequest;
+import com.packagetracking.command.entity.OutboxEventType;
+import com.packagetracking.command.entity.Package;
+import com.packagetracking.command.entity.PackageStatus;
+import com.packagetracking.command.repository.PackageJpaRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PackageBulkServiceTest {
+
+    @Mock
+    private PackageJpaRepository packageRepository;
+
+    @Mock
+    private ExternalApiService externalApiService;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ValidatorFactory validatorFactory;
+    private PackageBulkService packageBulkService;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        Validator validator = validatorFactory.getValidator();
+        packageBulkService = new PackageBulkService(externalApiService, packageRepository, validator, outboxService,
+                                                    transactionManager, Runnable::run, 2);
+
+        when(externalApiService.isHoliday(any(LocalDate.class))).thenReturn(Mono.just(false));
+        when(externalApiService.getDogFunFact()).thenReturn(Mono.just("Fato interessante sobre cães"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void createPackages_ValidManifest_ShouldInsertInChunksAndEmitResultsInOrder() {
+        List<PackageCreateRequest> manifest = List.of(validRequest("Loja A"), validRequest("Loja B"), validRequest("Loja C"));
+        List<List<PackageBulkItemResult>> emitted = new ArrayList<>();
+
+        packageBulkService.createPackages(manifest.iterator(), emitted::add);
+
+        assertEquals(2, emitted.size());
+        List<PackageBulkItemResult> results = emitted.stream().flatMap(List::stream).toList();
+        assertEquals(3, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertEquals(PackageBulkItemResult.CREATED, results.get(i).getStatus());
+            assertTrue(results.get(i).getId().startsWith(MessageConstants.PACKAGE_ID_PREFIX));
+            assertEquals(MessageConstants.PACKAGE_ID_PREFIX.length() + 32, results.get(i).getId().length());
+        }
+
+        ArgumentCaptor<List<Package>> captor = ArgumentCaptor.forClass(List.class);
+        verify(packageRepository, times(2)).persistAllInBatches(captor.capture());
+        assertEquals(2, captor.getAllValues().get(0).size());
+        assertEquals(1, captor.getAllValues().get(1).size());
+        verify(outboxService).recordAll(OutboxEventType.PACKAGE_CREATED,
+                                        List.of(results.get(0).getId(), results.get(1).getId()), "CREATED");
+        verify(transactionManager, times(2)).commit(any());
+
+        Package persisted = captor.getAllValues().get(0).get(0);
+        assertEquals(PackageStatus.CREATED, persisted.getStatus());
+        assertEquals("Fato interessante sobre cães", persisted.getFunFact());
+        assertEquals(LocalDate.of(2025, 1, 25), persisted.getEstimatedDeliveryDate());
+
+        verify(externalApiService, times(1)).isHoliday(any(LocalDate.class));
+        verify(externalApiService, times(1)).getDogFunFact();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void createPackages_InvalidItems_ShouldRejectOnlyInvalidOnes() {
+        PackageCreateRequest invalidDate = validRequest("Loja B");
+        invalidDate.setEstimatedDeliveryDate("31/02/2025");
+        List<PackageCreateRequest> manifest = Arrays.asList(validRequest("Loja A"), invalidDate, null);
+        List<PackageBulkItemResult> results = new ArrayList<>();
+
+        packageBulkService.createPackages(manifest.iterator(), results::addAll);
+
+        assertEquals(PackageBulkItemResult.CREATED, results.get(0).getStatus());
+        assertEquals(PackageBulkItemResult.REJECTED, results.get(1).getStatus());
+        assertEquals(MessageConstants.BULK_INVALID_DELIVERY_DATE, results.get(1).getErrors().get("estimatedDeliveryDate"));
+        assertNull(results.get(1).getId());
+        assertEquals(PackageBulkItemResult.REJECTED, results.get(2).getStatus());
+        assertEquals(MessageConstants.BULK_ITEM_EMPTY, results.get(2).getErrors().get("item"));
+
+        ArgumentCaptor<List<Package>> captor = ArgumentCaptor.forClass(List.class);
+        verify(packageRepository, times(1)).persistAllInBatches(captor.capture());
+        assertEquals(1, captor.getValue().size());
+    }
+
+    @Test
+    void createPackages_StreamedManifest_ShouldReadNextChunkOnlyAfterEmittingResults() {
+        List<PackageCreateRequest> manifest = List.of(validRequest("Loja A"), validRequest("Loja B"), validRequest("Loja C"));
+        AtomicInteger read = new AtomicInteger();
+        Iterator<PackageCreateRequest> items = manifest.stream().peek(item -> read.incrementAndGet()).iterator();
+        List<Integer> readWhenEmitted = new ArrayList<>();
+
+        packageBulkService.createPackages(items, results -> readWhenEmitted.add(read.get()));
+
+        // Bloco de 2: o terceiro item só é lido depois que o primeiro bloco foi emitido
+        assertEquals(List.of(2, 3), readWhenEmitted);
+    }
+
+    @Test
+    void createPackages_BatchInsertFails_ShouldMarkChunkAsFailedAndContinue() {
+        doThrow(new RuntimeException("Deadlock"))
+            .doNothing()
+            .when(packageRepository).persistAllInBatches(anyList());
+        List<PackageCreateRequest> manifest = List.of(validRequest("Loja A"), validRequest("Loja B"), validRequest("Loja C"));
+        List<PackageBulkItemResult> results = new ArrayList<>();
+
+        packageBulkService.createPackages(manifest.iterator(), results::addAll);
+
+        assertEquals(PackageBulkItemResult.FAILED, results.get(0).getStatus());
+        assertEquals(PackageBulkItemResult.FAILED, results.get(1).getStatus());
+        assertNull(results.get(0).getId());
+        assertEquals(MessageConstants.BULK_BATCH_INSERT_ERROR, results.get(0).getMessage());
+        assertEquals(PackageBulkItemResult.CREATED, results.get(2).getStatus());
+    }
+
+    private PackageCreateRequest validRequest(String sender) {
+        return PackageCreateRequest.builder()
+            .description("Livros para entrega")
+            .sender(sender)
+            .recipient("João Silva")
+            .estimatedDeliveryDate("25/01/2025")
+            .build();
+    }
+}
@@ -0,0 +1,153 @@
+package com.packagetracking.command.service;
+
+import com.packagetracking.command.constants.MessageConstants;
+import com.packagetracking.command.dto.packages.PackageResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Transições de status concorrentes contra um banco real (H2 no modo MySQL com as migrações do Flyway):
+ * só uma requisição aplica a transição, e as demais recebem o erro do status que encontraram
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:package-status-race;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.flyway.placeholders.online_ddl=",
+    "spring.flyway.placeholders.instant_ddl=",
+    "spring.jpa.hibernate.ddl-auto=none",
+    "app.resources.endpoints=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PackageServiceConcurrencyTest {
+
+    private static final int CONCURRENT_REQUESTS = 8;
+
+    @SpringBootConfiguration
+    @EntityScan("com.packagetracking.command.entity")
+    @EnableJpaRepositories("com.packagetracking.command.repository")
+    @Import({PackageService.class, OutboxService.class})
+    static class Config {
+    }
+
+    @Autowired
+    private PackageService packageService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private ExternalApiService externalApiService;
+
+    @Test
+    void updatePackageStatus_ConcurrentSameTransition_ShouldApplyOnceAndReportCurrentStatus() {
+        insertPackage("pacote-corrida01", "CREATED");
+
+        List<CompletableFuture<PackageResponse>> requests = raceStatusUpdates("pacote-corrida01",
+                                                                              Collections.nCopies(CONCURRENT_REQUESTS, "IN_TRANSIT"));
+
+        List<PackageResponse> applied = new ArrayList<>();
+        List<Throwable> rejected = new ArrayList<>();
+        for (CompletableFuture<PackageResponse> request : requests) {
+            try {
+                applied.add(request.join());
+            } catch (Exception e) {
+                rejected.add(e.getCause().getCause());
+            }
+        }
+
+        assertEquals(1, applied.size());
+        assertEquals(CONCURRENT_REQUESTS - 1, rejected.size());
+        // A leitura de diagnóstico é corrente: quem perdeu a corrida vê IN_TRANSIT, não o CREATED anterior ao UPDATE
+        assertTrue(rejected.stream().allMatch(e -> e instanceof IllegalArgumentException
+            && MessageConstants.IN_TRANSIT_STATUS_TRANSITION_ERROR.equals(e.getMessage())), rejected::toString);
+
+        PackageResponse response = applied.get(0);
+        assertEquals("pacote-corrida01", response.getId());
+        assertEquals("IN_TRANSIT", response.getStatus());
+        assertNotNull(response.getUpdatedAt());
+
+        assertEquals("IN_TRANSIT", jdbcTemplate.queryForObject(
+            "SELECT status FROM packages WHERE id = 'pacote-corrida01'", String.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM outbox_events WHERE package_id = 'pacote-corrida01' AND event_type = 'PACKAGE_STATUS_CHANGED'",
+            Integer.class));
+    }
+
+    @Test
+    void updatePackageStatus_ConcurrentConflictingTransitions_ShouldApplyExactlyOne() {
+        insertPackage("pacote-corrida02", "CREATED");
+        List<String> statuses = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            statuses.add(i % 2 == 0 ? "IN_TRANSIT" : "CANCELLED");
+        }
+
+        List<CompletableFuture<PackageResponse>> requests = raceStatusUpdates("pacote-corrida02", statuses);
+
+        List<PackageResponse> applied = requests.stream()
+            .filter(request -> !request.isCompletedExceptionally())
+            .map(CompletableFuture::join)
+            .toList();
+        assertEquals(1, applied.size());
+        assertEquals(applied.get(0).getStatus(), jdbcTemplate.queryForObject(
+            "SELECT status FROM packages WHERE id = 'pacote-corrida02'", String.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM outbox_events WHERE package_id = 'pacote-corrida02' AND event_type = 'PACKAGE_STATUS_CHANGED'",
+            Integer.class));
+    }
+
+    /**
+     * Dispara uma requisição por status ao mesmo tempo e aguarda todas terminarem
+     */
+    private List<CompletableFuture<PackageResponse>> raceStatusUpdates(String id, List<String> statuses) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<PackageResponse>> requests = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String status : statuses) {
+                requests.add(CompletableFuture.supplyAsync(() -> {
+                    awaitStart(start);
+                    return packageService.updatePackageStatus(id, status);
+                }, executor));
+            }
+            start.countDown();
+        }
+        return requests;
+    }
+
+    private static void awaitStart(CountDownLatch start) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void insertPackage(String id, String status) {
+        jdbcTemplate.update("INSERT INTO packages (id, description, sender, recipient, is_holliday, status, created_at, updated_at) " +
+                            "VALUES (?, 'Livros para entrega', 'Loja ABC', 'João Silva', FALSE, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)",
+                            id, status);
+    }
+}
@@ -1,8 +1,10 @@
 package com.packagetracking.command.service;
 
+import com.packagetracking.command.constants.MessageConstants;
 import com.packagetracking.command.dto.packages.PackageCreateEnrichedRequest;
 import com.packagetracking.command.dto.packages.PackageCreateRequest;
 import com.packagetracking.command.dto.packages.PackageResponse;
+import com.packagetracking.command.entity.OutboxEventType;
 import com.packagetracking.command.entity.Package;
 import com.packagetracking.command.entity.PackageStatus;
 import com.packagetracking.command.repository.PackageJpaRepository;
@@ -16,9 +18,14 @@ import reactor.core.publisher.Mono;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.EnumSet;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,6 +37,9 @@ class PackageServiceTest {
     @Mock
     private ExternalApiService externalApiService;
 
+    @Mock
+    private OutboxService outboxService;
+
     @InjectMocks
     private PackageService packageService;
 
@@ -96,6 +106,7 @@ class PackageServiceTest {
         assertNotNull(result);
         assertEquals("CREATED", result.getStatus());
         verify(packageRepository).save(any(Package.class));
+        verify(outboxService).record(OutboxEventType.PACKAGE_CREATED, packageEntity.getId(), "CREATED");
         verify(externalApiService).isHoliday(any(LocalDate.class));
         verify(externalApiService).getDogFunFact();
     }
@@ -111,73 +122,46 @@ class PackageServiceTest {
     }
 
     @Test
-    void updatePackageStatus_SuccessFromCreatedToInTransit() {
-        Package existingPackage = Package.builder()
-            .id("pacote-12345")
-            .description("Livros para entrega")
-            .sender("Loja ABC")
-            .recipient("João Silva")
-            .status(PackageStatus.CREATED)
-            .isHolliday(true)
-            .createdAt(Instant.now())
-            .updatedAt(Instant.now())
-            .build();
+    void generatePackageId_ShouldUseAllUuidBits() {
+        String id = PackageService.generatePackageId();
 
-        Package updatedPackage = Package.builder()
-            .id("pacote-12345")
-            .description("Livros para entrega")
-            .sender("Loja ABC")
-            .recipient("João Silva")
-            .status(PackageStatus.IN_TRANSIT)
-            .isHolliday(true)
-            .createdAt(Instant.now())
-            .updatedAt(Instant.now())
-            .build();
+        assertTrue(id.startsWith(MessageConstants.PACKAGE_ID_PREFIX));
+        assertEquals(MessageConstants.PACKAGE_ID_PREFIX.length() + 32, id.length());
+    }
 
-        when(packageRepository.findById("pacote-12345")).thenReturn(java.util.Optional.of(existingPackage));
-        when(packageRepository.save(any(Package.class))).thenReturn(updatedPackage);
+    @Test
+    void updatePackageStatus_SuccessFromCreatedToInTransit() {
+        when(packageRepository.transitionStatus(eq("pacote-12345"), eq(PackageStatus.IN_TRANSIT),
+                eq(EnumSet.of(PackageStatus.CREATED)), any(Instant.class), isNull()))
+            .thenReturn(1);
 
         PackageResponse result = packageService.updatePackageStatus("pacote-12345", "IN_TRANSIT");
 
         assertNotNull(result);
+        assertEquals("pacote-12345", result.getId());
         assertEquals("IN_TRANSIT", result.getStatus());
-        verify(packageRepository).save(any(Package.class));
+        assertNotNull(result.getUpdatedAt());
+        assertNull(result.getDeliveredAt());
+        verify(outboxService).record(OutboxEventType.PACKAGE_STATUS_CHANGED, "pacote-12345", "IN_TRANSIT");
+        verify(packageRepository, never()).findById(anyString());
+        verify(packageRepository, never()).findByIdForUpdate(anyString());
+        verify(packageRepository, never()).save(any(Package.class));
     }
 
     @Test
     void updatePackageStatus_SuccessFromInTransitToDelivered() {
-        Package existingPackage = Package.builder()
-            .id("pacote-12345")
-            .description("Livros para entrega")
-            .sender("Loja ABC")
-            .recipient("João Silva")
-            .status(PackageStatus.IN_TRANSIT)
-            .isHolliday(true)
-            .createdAt(Instant.now())
-            .updatedAt(Instant.now())
-            .build();
-
-        Package updatedPackage = Package.builder()
-            .id("pacote-12345")
-            .description("Livros para entrega")
-            .sender("Loja ABC")
-            .recipient("João Silva")
-            .status(PackageStatus.DELIVERED)
-            .isHolliday(true)
-            .deliveredAt(Instant.now())
-            .createdAt(Instant.now())
-            .updatedAt(Instant.now())
-            .build();
-
-        when(packageRepository.findById("pacote-12345")).thenReturn(java.util.Optional.of(existingPackage));
-        when(packageRepository.save(any(Package.class))).thenReturn(updatedPackage);
+        when(packageRepository.transitionStatus(eq("pacote-12345"), eq(PackageStatus.DELIVERED),
+                eq(EnumSet.of(PackageStatus.IN_TRANSIT)), any(Instant.class), any(Instant.class)))
+            .thenReturn(1);
 
         PackageResponse result = packageService.updatePackageStatus("pacote-12345", "DELIVERED");
 
         assertNotNull(result);
         assertEquals("DELIVERED", result.getStatus());
         assertNotNull(result.getDeliveredAt());
-        verify(packageRepository).save(any(Package.class));
+        assertEquals(result.getUpdatedAt(), result.getDeliveredAt());
+        verify(packageRepository, never()).findByIdForUpdate(anyString());
+        verify(packageRepository, never()).save(any(Package.class));
     }
 
     @Test
@@ -193,74 +177,81 @@ class PackageServiceTest {
             .updatedAt(Instant.now())
             .build();
 
-        when(packageRepository.findById("pacote-12345")).thenReturn(java.util.Optional.of(existingPackage));
+        when(packageRepository.transitionStatus(anyString(), any(PackageStatus.class), anyCollection(), any(Instant.class), any()))
+            .thenReturn(0);
+        when(packageRepository.findByIdForUpdate("pacote-12345")).thenReturn(java.util.Optional.of(existingPackage));
 
-        assertThrows(RuntimeException.class, () -> {
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
             packageService.updatePackageStatus("pacote-12345", "DELIVERED");
         });
 
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
         verify(packageRepository, never()).save(any(Package.class));
     }
 
     @Test
-    void updatePackageStatus_PackageNotFound_ThrowsException() {
-        when(packageRepository.findById("pacote-inexistente")).thenReturn(java.util.Optional.empty());
+    void updatePackageStatus_ToCreated_SkipsUpdate() {
+        Package existingPackage = Package.builder()
+            .id("pacote-12345")
+            .status(PackageStatus.IN_TRANSIT)
+            .build();
+
+        when(packageRepository.findByIdForUpdate("pacote-12345")).thenReturn(java.util.Optional.of(existingPackage));
 
         assertThrows(RuntimeException.class, () -> {
-            packageService.updatePackageStatus("pacote-inexistente", "IN_TRANSIT");
+            packageService.updatePackageStatus("pacote-12345", "CREATED");
         });
 
-        verify(packageRepository, never()).save(any(Package.class));
+        verify(packageRepository, never()).transitionStatus(anyString(), any(), anyCollection(), any(), any());
     }
 
     @Test
-    void updatePackageStatus_InvalidStatus_ThrowsException() {
-        Package existingPackage = Package.builder()
+    void updatePackageStatus_ConcurrentChange_ThrowsException() {
+        Package concurrentlyUpdated = Package.builder()
             .id("pacote-12345")
-            .description("Livros para entrega")
-            .sender("Loja ABC")
-            .recipient("João Silva")
             .status(PackageStatus.CREATED)
-            .isHolliday(true)
-            .createdAt(Instant.now())
-            .updatedAt(Instant.now())
             .build();
 
-        when(packageRepository.findById("pacote-12345")).thenReturn(java.util.Optional.of(existingPackage));
+        // O UPDATE não afetou linhas, mas a leitura posterior mostra um status a partir do qual a transição é válida
+        when(packageRepository.transitionStatus(anyString(), any(PackageStatus.class), anyCollection(), any(Instant.class), any()))
+            .thenReturn(0);
+        when(packageRepository.findByIdForUpdate("pacote-12345")).thenReturn(java.util.Optional.of(concurrentlyUpdated));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            packageService.updatePackageStatus("pacote-12345", "IN_TRANSIT");
+        });
+
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+    }
+
+    @Test
+    void updatePackageStatus_PackageNotFound_ThrowsException() {
+        when(packageRepository.transitionStatus(anyString(), any(PackageStatus.class), anyCollection(), any(Instant.class), any()))
+            .thenReturn(0);
+        when(packageRepository.findByIdForUpdate("pacote-inexistente")).thenReturn(java.util.Optional.empty());
 
         assertThrows(RuntimeException.class, () -> {
-            packageService.updatePackageStatus("pacote-12345", "STATUS_INVALIDO");
+            packageService.updatePackageStatus("pacote-inexistente", "IN_TRANSIT");
         });
 
         verify(packageRepository, never()).save(any(Package.class));
     }
 
     @Test
-    void cancelPackage_Success() {
-        Package existingPackage = Package.builder()
-            .id("pacote-12345")
-            .description("Livros para entrega")
-            .sender("Loja ABC")
-            .recipient("João Silva")
-            .status(PackageStatus.CREATED)
-            .isHolliday(true)
-            .createdAt(Instant.now())
-            .updatedAt(Instant.now())
-            .build();
+    void updatePackageStatus_InvalidStatus_ThrowsException() {
+        assertThrows(RuntimeException.class, () -> {
+            packageService.updatePackageStatus("pacote-12345", "STATUS_INVALIDO");
+        });
 
-        Package cancelledPackage = Package.builder()
-            .id("pacote-12345")
-            .description("Livros para entrega")
-            .sender("Loja ABC")
-            .recipient("João Silva")
-            .status(PackageStatus.CANCELLED)
-            .isHolliday(true)
-            .createdAt(Instant.now())
-            .updatedAt(Instant.now())
-            .build();
+        verify(packageRepository, never()).transitionStatus(anyString(), any(), anyCollection(), any(), any());
+        verify(packageRepository, never()).save(any(Package.class));
+    }
 
-        when(packageRepository.findById("pacote-12345")).thenReturn(java.util.Optional.of(existingPackage));
-        when(packageRepository.save(any(Package.class))).thenReturn(cancelledPackage);
+    @Test
+    void cancelPackage_Success() {
+        when(packageRepository.transitionStatus(eq("pacote-12345"), eq(PackageStatus.CANCELLED),
+                eq(EnumSet.of(PackageStatus.CREATED)), any(Instant.class), isNull()))
+            .thenReturn(1);
 
         var result = packageService.cancelPackage("pacote-12345");
 
@@ -268,12 +259,15 @@ class PackageServiceTest {
         assertEquals("CANCELLED", result.getStatus());
         assertEquals("pacote-12345", result.getId());
         assertNotNull(result.getDataAtualizacao());
-        verify(packageRepository).save(any(Package.class));
+        verify(packageRepository, never()).findByIdForUpdate(anyString());
+        verify(packageRepository, never()).save(any(Package.class));
     }
 
     @Test
     void cancelPackage_PackageNotFound_ThrowsException() {
-        when(packageRepository.findById("pacote-inexistente")).thenReturn(java.util.Optional.empty());
+        when(packageRepository.transitionStatus(anyString(), any(PackageStatus.class), anyCollection(), any(Instant.class), any()))
+            .thenReturn(0);
+        when(packageRepository.findByIdForUpdate("pacote-inexistente")).thenReturn(java.util.Optional.empty());
 
         assertThrows(RuntimeException.class, () -> {
             packageService.cancelPackage("pacote-inexistente");
@@ -295,7 +289,9 @@ class PackageServiceTest {
             .updatedAt(Instant.now())
             .build();
 
-        when(packageRepository.findById("pacote-12345")).thenReturn(java.util.Optional.of(existingPackage));
+        when(packageRepository.transitionStatus(anyString(), any(PackageStatus.class), anyCollection(), any(Instant.class), any()))
+            .thenReturn(0);
+        when(packageRepository.findByIdForUpdate("pacote-12345")).thenReturn(java.util.Optional.of(existingPackage));
 
         assertThrows(RuntimeException.class, () -> {
             packageService.cancelPackage("pacote-12345");
@@ -318,7 +314,9 @@ class PackageServiceTest {
             .updatedAt(Instant.now())
             .build();
 
-        when(packageRepository.findById("pacote-12345")).thenReturn(java.util.Optional.of(existingPackage));
+        when(packageRepository.transitionStatus(anyString(), any(PackageStatus.class), anyCollection(), any(Instant.class), any()))
+            .thenReturn(0);
+        when(packageRepository.findByIdForUpdate("pacote-12345")).thenReturn(java.util.Optional.of(existingPackage));
 
         assertThrows(RuntimeException.class, () -> {
             packageService.cancelPackage("pacote-12345");
@@ -340,7 +338,9 @@ class PackageServiceTest {
             .updatedAt(Instant.now())
             .build();
 
-        when(packageRepository.findById("pacote-12345")).thenReturn(java.util.Optional.of(existingPackage));
+        when(packageRepository.transitionStatus(anyString(), any(PackageStatus.class), anyCollection(), any(Instant.class), any()))
+            .thenReturn(0);
+        when(packageRepository.findByIdForUpdate("pacote-12345")).thenReturn(java.util.Optional.of(existingPackage));
 
         assertThrows(RuntimeException.class, () -> {
             packageService.cancelPackage("pacote-12345");
@@ -1,19 +1,31 @@
 package com.packagetracking.command.service;
 
 import com.packagetracking.command.dto.tracking.TrackingEventRequest;
+import com.packagetracking.command.entity.OutboxEventType;
 import com.packagetracking.command.entity.TrackingEvent;
 import com.packagetracking.command.repository.TrackingEventRepository;
+import com.packagetracking.command.util.TrackingEventKey;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,7 +34,12 @@ class TrackingEventServiceTest {
     @Mock
     private TrackingEventRepository trackingEventRepository;
 
-    @InjectMocks
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private TrackingEventService trackingEventService;
 
     private TrackingEventRequest trackingEventRequest;
@@ -30,6 +47,10 @@ class TrackingEventServiceTest {
 
     @BeforeEach
     void setUp() {
+        trackingEventService = new TrackingEventService(trackingEventRepository, outboxService,
+                                                       new TrackingPipelineMetrics(ObservationRegistry.NOOP, new SimpleMeterRegistry()),
+                                                       transactionManager);
+
         trackingEventRequest = new TrackingEventRequest(
             "pacote-12345",
             "Centro de Distribuição São Paulo",
@@ -48,16 +69,32 @@ class TrackingEventServiceTest {
 
     @Test
     void processTrackingEvent_Success() {
-        when(trackingEventRepository.save(any(TrackingEvent.class))).thenReturn(trackingEvent);
+        when(trackingEventRepository.insertIgnoringDuplicates(anyList())).thenReturn(1);
+
+        trackingEventService.processTrackingEvent(trackingEventRequest);
+
+        verify(trackingEventRepository).insertIgnoringDuplicates(argThat(events ->
+            events.size() == 1
+                && events.get(0).getEventKey().equals(TrackingEventKey.of(trackingEventRequest))
+                && events.get(0).getDate().equals(trackingEvent.getDate())));
+        verify(trackingEventRepository, never()).findExistingEventKeys(any());
+        verify(outboxService).recordAll(OutboxEventType.TRACKING_EVENT_ADDED, Set.of("pacote-12345"), null);
+    }
+
+    @Test
+    void processTrackingEvent_Redelivered_ShouldGoStraightToInsertIgnoreAndSkipOutbox() {
+        when(trackingEventRepository.insertIgnoringDuplicates(anyList())).thenReturn(0);
 
         trackingEventService.processTrackingEvent(trackingEventRequest);
 
-        verify(trackingEventRepository).save(any(TrackingEvent.class));
+        verify(trackingEventRepository).insertIgnoringDuplicates(anyList());
+        verify(trackingEventRepository, never()).findExistingEventKeys(any());
+        verifyNoInteractions(outboxService);
     }
 
     @Test
     void processTrackingEvent_WithRepositoryError_ThrowsException() {
-        when(trackingEventRepository.save(any(TrackingEvent.class)))
+        when(trackingEventRepository.insertIgnoringDuplicates(anyList()))
             .thenThrow(new RuntimeException("Repository error"));
 
         RuntimeException exception = org.junit.jupiter.api.Assertions.assertThrows(RuntimeException.class, () -> {
@@ -65,7 +102,7 @@ class TrackingEventServiceTest {
         });
 
         assertTrue(exception.getMessage().contains("Erro ao processar evento de rastreamento"));
-        verify(trackingEventRepository).save(any(TrackingEvent.class));
+        verify(trackingEventRepository).insertIgnoringDuplicates(anyList());
     }
 
     @Test
@@ -77,6 +114,55 @@ class TrackingEventServiceTest {
         assertTrue(exception.getMessage().contains("Erro ao processar evento de rastreamento"));
     }
 
+    @Test
+    void processTrackingEventBatch_Success_InsertsDistinctEventsAndReturnsInsertedCount() {
+        TrackingEventRequest secondEvent = new TrackingEventRequest(
+            "pacote-67890",
+            "Centro de Distribuição Campinas",
+            "Pacote saiu para entrega",
+            LocalDateTime.parse("2025-01-20T12:00:00")
+        );
+        when(trackingEventRepository.insertIgnoringDuplicates(anyList())).thenReturn(1);
+
+        int inserted = trackingEventService.processTrackingEventBatch(List.of(trackingEventRequest, secondEvent, trackingEventRequest));
+
+        assertEquals(1, inserted);
+        verify(trackingEventRepository).insertIgnoringDuplicates(argThat(events ->
+            events.size() == 2
+                && events.get(0).getPackageId().equals("pacote-12345")
+                && events.get(1).getPackageId().equals("pacote-67890")
+                && events.stream().allMatch(event -> event.getId() != null && event.getId().length() == 32)
+                && events.stream().allMatch(event -> event.getEventKey() != null && event.getEventKey().length() == 64)));
+    }
+
+    @Test
+    void processTrackingEventBatch_WithRepositoryError_ThrowsException() {
+        when(trackingEventRepository.insertIgnoringDuplicates(anyList()))
+            .thenThrow(new RuntimeException("Repository error"));
+
+        RuntimeException exception = org.junit.jupiter.api.Assertions.assertThrows(RuntimeException.class, () -> {
+            trackingEventService.processTrackingEventBatch(List.of(trackingEventRequest));
+        });
+
+        assertTrue(exception.getMessage().contains("Erro ao processar lote de eventos de rastreamento"));
+    }
+
+    @Test
+    void trackingEventKey_IsDeterministicAndPrefersIdempotencyKey() {
+        TrackingEventRequest sameScan = new TrackingEventRequest(
+            "pacote-12345", "Centro de Distribuição São Paulo", "Pacote chegou ao centro de distribuição",
+            LocalDateTime.parse("2025-01-20T11:00:00"));
+        TrackingEventRequest withClientKey = new TrackingEventRequest(
+            "pacote-12345", "Outro local", "Outra descrição", LocalDateTime.parse("2025-01-21T09:00:00"), "scan-001");
+        TrackingEventRequest sameClientKey = new TrackingEventRequest(
+            "pacote-12345", "Centro de Distribuição São Paulo", "Pacote chegou ao centro de distribuição",
+            LocalDateTime.parse("2025-01-20T11:00:00"), "scan-001");
+
+        assertEquals(TrackingEventKey.of(trackingEventRequest), TrackingEventKey.of(sameScan));
+        assertEquals(TrackingEventKey.of(withClientKey), TrackingEventKey.of(sameClientKey));
+        assertNotEquals(TrackingEventKey.of(trackingEventRequest), TrackingEventKey.of(sameClientKey));
+    }
+
     private void assertTrue(boolean condition) {
         org.junit.jupiter.api.Assertions.assertTrue(condition);
     }
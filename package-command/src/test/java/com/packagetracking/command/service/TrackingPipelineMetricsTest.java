@@ -0,0 +1,98 @@
+package com.packagetracking.command.service;
+
+import com.packagetracking.command.dto.tracking.TrackingEventRequest;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackingPipelineMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TrackingPipelineMetrics pipelineMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        pipelineMetrics = new TrackingPipelineMetrics(observationRegistry, meterRegistry);
+    }
+
+    @Test
+    void observe_ShouldRecordStageTimerAndReturnResult() {
+        int inserted = pipelineMetrics.observe(TrackingPipelineMetrics.STAGE_PERSIST, () -> 3);
+
+        assertEquals(3, inserted);
+        assertEquals(1, stageTimer(TrackingPipelineMetrics.STAGE_PERSIST).count());
+    }
+
+    @Test
+    void observe_Failure_ShouldTagErrorAndRethrow() {
+        assertThrows(IllegalStateException.class, () -> pipelineMetrics.observe(TrackingPipelineMetrics.STAGE_PUBLISH,
+            () -> { throw new IllegalStateException("broker fora do ar"); }));
+
+        assertEquals(1, meterRegistry.get(TrackingPipelineMetrics.STAGE_OBSERVATION)
+            .tag("stage", TrackingPipelineMetrics.STAGE_PUBLISH)
+            .tag("error", "IllegalStateException")
+            .timer().count());
+    }
+
+    @Test
+    void recordQueueWait_ShouldUseAmqpTimestamp() {
+        MessageProperties properties = new MessageProperties();
+        properties.setTimestamp(Date.from(Instant.now().minusSeconds(2)));
+
+        pipelineMetrics.recordQueueWait(new Message(new byte[0], properties));
+        pipelineMetrics.recordQueueWait(new Message(new byte[0]));
+
+        Timer queueWait = meterRegistry.get("tracking.pipeline.queue.wait").timer();
+        assertEquals(1, queueWait.count());
+        assertTrue(queueWait.totalTime(TimeUnit.MILLISECONDS) >= 2000);
+    }
+
+    @Test
+    void recordQueryable_ShouldMeasureFromEventDateAndIngestionHeader() {
+        LocalDateTime scannedAt = LocalDateTime.now(ZoneOffset.UTC).minusMinutes(5);
+        MessageProperties properties = new MessageProperties();
+        properties.setHeader(TrackingPipelineMetrics.INGESTED_AT_HEADER, Instant.now().minusSeconds(1).toEpochMilli());
+
+        pipelineMetrics.recordQueryable(List.of(event(scannedAt), event(scannedAt)), new Message(new byte[0], properties));
+
+        Timer scanToQueryable = meterRegistry.get("tracking.pipeline.scan.to.queryable").timer();
+        Timer ingestToQueryable = meterRegistry.get("tracking.pipeline.ingest.to.queryable").timer();
+        assertEquals(2, scanToQueryable.count());
+        assertTrue(scanToQueryable.max(TimeUnit.SECONDS) >= 300);
+        assertEquals(2, ingestToQueryable.count());
+        assertTrue(ingestToQueryable.max(TimeUnit.MILLISECONDS) >= 1000);
+    }
+
+    @Test
+    void recordQueryable_FutureDateOrMissingHeader_ShouldSkip() {
+        pipelineMetrics.recordQueryable(List.of(event(LocalDateTime.now(ZoneOffset.UTC).plusHours(1))), new Message(new byte[0]));
+
+        assertEquals(0, meterRegistry.get("tracking.pipeline.scan.to.queryable").timer().count());
+        assertEquals(0, meterRegistry.get("tracking.pipeline.ingest.to.queryable").timer().count());
+    }
+
+    private Timer stageTimer(String stage) {
+        return meterRegistry.get(TrackingPipelineMetrics.STAGE_OBSERVATION).tag("stage", stage).timer();
+    }
+
+    private static TrackingEventRequest event(LocalDateTime date) {
+        return new TrackingEventRequest("pacote-12345", "Centro de Distribuição São Paulo", "Em trânsito", date);
+    }
+}
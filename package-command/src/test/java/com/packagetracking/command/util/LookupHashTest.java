@@ -0,0 +1,29 @@
+package com.packagetracking.command.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LookupHashTest {
+
+    @Test
+    void of_ShouldIgnoreCaseAndWhitespace() {
+        assertArrayEquals(LookupHash.of("Loja abc"), LookupHash.of("  Loja   ABC "));
+        assertEquals(LookupHash.LENGTH, LookupHash.of("Loja abc").length);
+    }
+
+    @Test
+    void of_ShouldMatchMigrationBackfill() {
+        // Mesmos valores conferidos no BackfillPackageLookupHashesTest do package-migration
+        assertEquals("826c30aff50e4ebac0131d956332fcdc", HexFormat.of().formatHex(LookupHash.of("Loja abc")));
+        assertEquals("3d2cdd9786c4a169e7d8e130b3c1be40", HexFormat.of().formatHex(LookupHash.of("JOÃO\tda  Silva")));
+        assertEquals("3d2cdd9786c4a169e7d8e130b3c1be40", HexFormat.of().formatHex(LookupHash.of("João da Silva")));
+    }
+
+    @Test
+    void of_WithNull_ShouldReturnNull() {
+        assertNull(LookupHash.of(null));
+    }
+}
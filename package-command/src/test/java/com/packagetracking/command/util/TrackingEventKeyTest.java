@@ -0,0 +1,29 @@
+package com.packagetracking.command.util;
+
+import com.packagetracking.command.dto.tracking.TrackingEventRequest;
+import db.migration.V7__AddTrackingEventKey;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackingEventKeyTest {
+
+    @Test
+    void of_ShouldMatchMigrationBackfill() throws Exception {
+        LocalDateTime date = LocalDateTime.parse("2025-01-20T11:00:00.123456");
+        TrackingEventRequest request = new TrackingEventRequest("pacote-12345", "Centro de Distribuição São Paulo", "Em trânsito", date);
+
+        assertEquals(V7__AddTrackingEventKey.eventKey("pacote-12345", date, "Centro de Distribuição São Paulo", "Em trânsito"),
+                     TrackingEventKey.of(request));
+    }
+
+    @Test
+    void of_WithIdempotencyKey_ShouldIgnoreContent() {
+        LocalDateTime date = LocalDateTime.parse("2025-01-20T11:00:00");
+
+        assertEquals(TrackingEventKey.of(new TrackingEventRequest("pacote-12345", "São Paulo", "Em trânsito", date, "scan-1")),
+                     TrackingEventKey.of(new TrackingEventRequest("pacote-12345", "Campinas", "Entregue", date, "scan-1")));
+    }
+}
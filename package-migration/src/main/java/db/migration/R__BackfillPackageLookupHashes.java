@@ -0,0 +1,96 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Preenche sender_hash e recipient_hash dos pacotes que ainda não os têm, em lotes pela PK, com commit por lote,
+ * para não segurar uma transação longa nem bloquear a tabela. Linhas já preenchidas pelos serviços são mantidas.
+ * A normalização precisa ser a mesma do LookupHash do package-command e do package-query.
+ *
+ * É repetível: durante o rollout, nós antigos continuam gravando pacotes sem hash depois do backfill.
+ * Incrementar REVISION muda o checksum e faz o Flyway reexecutá-lo no próximo migrate; isso deve ser feito
+ * no release seguinte ao rollout completo, antes de remover os índices sobre o texto livre (ver README).
+ */
+public class R__BackfillPackageLookupHashes extends BaseJavaMigration {
+
+    static final int BATCH_SIZE = 1000;
+    public static final int REVISION = 1;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Override
+    public Integer getChecksum() {
+        return REVISION;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            String lastId = "";
+            while ((lastId = backfillBatch(connection, lastId)) != null) {
+                connection.commit();
+            }
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Processa o próximo lote após lastId e retorna o último ID lido, ou null quando não há mais linhas
+     */
+    private String backfillBatch(Connection connection, String lastId) throws SQLException, NoSuchAlgorithmException {
+        try (PreparedStatement select = connection.prepareStatement(
+                 "SELECT id, sender, recipient FROM packages WHERE id > ? AND sender_hash IS NULL ORDER BY id LIMIT " + BATCH_SIZE);
+             PreparedStatement update = connection.prepareStatement(
+                 "UPDATE packages SET sender_hash = ?, recipient_hash = ? WHERE id = ? AND sender_hash IS NULL")) {
+
+            select.setString(1, lastId);
+            String currentId = null;
+            try (ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    currentId = rows.getString("id");
+                    update.setBytes(1, lookupHash(rows.getString("sender")));
+                    update.setBytes(2, lookupHash(rows.getString("recipient")));
+                    update.setString(3, currentId);
+                    update.addBatch();
+                }
+            }
+            if (currentId != null) {
+                update.executeBatch();
+            }
+            return currentId;
+        }
+    }
+
+    static byte[] lookupHash(String value) throws NoSuchAlgorithmException {
+        if (value == null) {
+            return null;
+        }
+        String normalized = Normalizer.normalize(WHITESPACE.matcher(value.strip()).replaceAll(" "), Normalizer.Form.NFC)
+            .toLowerCase(Locale.ROOT);
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+        return Arrays.copyOf(digest, 16);
+    }
+}
@@ -0,0 +1,180 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * event_key e uk_tracking_event_key para bancos adotados com baseline-version 0: neles tracking_events já existia,
+ * o CREATE TABLE IF NOT EXISTS da V1 não fez nada e a coluna nunca foi criada.
+ * Cada passo verifica o catálogo antes, então bancos criados pela V1 passam direto.
+ * As linhas existentes recebem a chave do conteúdo em lotes pela PK, com commit por lote; de eventos repetidos
+ * (gravados antes da deduplicação) só a primeira ocorrência recebe a chave, as demais ficam com ela nula.
+ * A chave precisa ser a mesma do TrackingEventKey do package-command.
+ */
+public class V7__AddTrackingEventKey extends BaseJavaMigration {
+
+    static final int BATCH_SIZE = 1000;
+
+    private static final String TABLE = "tracking_events";
+    private static final String COLUMN = "event_key";
+    private static final String UNIQUE_INDEX = "uk_tracking_event_key";
+    private static final char SEPARATOR = '\u001F';
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Map<String, String> placeholders = context.getConfiguration().getPlaceholders();
+        Connection connection = context.getConnection();
+
+        try (Statement ddl = connection.createStatement()) {
+            if (!hasColumn(connection)) {
+                ddl.execute("ALTER TABLE " + TABLE + " ADD COLUMN " + COLUMN + " VARCHAR(64) NULL"
+                            + placeholders.getOrDefault("instant_ddl", ""));
+            }
+            if (!hasIndex(connection)) {
+                ddl.execute("ALTER TABLE " + TABLE + " ADD CONSTRAINT " + UNIQUE_INDEX + " UNIQUE (" + COLUMN + ")"
+                            + placeholders.getOrDefault("online_ddl", ""));
+            }
+        }
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            String lastId = "";
+            while ((lastId = backfillBatch(connection, lastId)) != null) {
+                connection.commit();
+            }
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Processa o próximo lote após lastId e retorna o último ID lido, ou null quando não há mais linhas.
+     * Chaves que já existem na tabela ou se repetem no lote não são gravadas: o índice único as recusaria
+     */
+    private String backfillBatch(Connection connection, String lastId) throws SQLException, NoSuchAlgorithmException {
+        Map<String, String> keysById = new LinkedHashMap<>();
+        String currentId = null;
+        try (PreparedStatement select = connection.prepareStatement(
+                 "SELECT id, package_id, location, description, date FROM " + TABLE +
+                 " WHERE id > ? AND " + COLUMN + " IS NULL ORDER BY id LIMIT " + BATCH_SIZE)) {
+            select.setString(1, lastId);
+            try (ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    currentId = rows.getString("id");
+                    keysById.put(currentId, eventKey(rows.getString("package_id"), rows.getObject("date", LocalDateTime.class),
+                                                     rows.getString("location"), rows.getString("description")));
+                }
+            }
+        }
+        if (currentId == null) {
+            return null;
+        }
+
+        Set<String> taken = existingKeys(connection, keysById.values());
+        try (PreparedStatement update = connection.prepareStatement(
+                 "UPDATE " + TABLE + " SET " + COLUMN + " = ? WHERE id = ? AND " + COLUMN + " IS NULL")) {
+            boolean pending = false;
+            for (Map.Entry<String, String> entry : keysById.entrySet()) {
+                if (taken.add(entry.getValue())) {
+                    update.setString(1, entry.getValue());
+                    update.setString(2, entry.getKey());
+                    update.addBatch();
+                    pending = true;
+                }
+            }
+            if (pending) {
+                update.executeBatch();
+            }
+        }
+        return currentId;
+    }
+
+    private static Set<String> existingKeys(Connection connection, Collection<String> keys) throws SQLException {
+        List<String> distinct = new ArrayList<>(new HashSet<>(keys));
+        Set<String> existing = new HashSet<>();
+        String placeholders = String.join(", ", Collections.nCopies(distinct.size(), "?"));
+        try (PreparedStatement select = connection.prepareStatement(
+                 "SELECT " + COLUMN + " FROM " + TABLE + " WHERE " + COLUMN + " IN (" + placeholders + ")")) {
+            for (int i = 0; i < distinct.size(); i++) {
+                select.setString(i + 1, distinct.get(i));
+            }
+            try (ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    existing.add(rows.getString(1));
+                }
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Mesmos bytes que o Hasher SHA-256 do Guava recebe no TrackingEventKey: texto em UTF-8 e o separador
+     * como char de 2 bytes little-endian. Eventos antigos não têm chave de idempotência do cliente
+     */
+    public static String eventKey(String packageId, LocalDateTime date, String location, String description)
+            throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] separator = ByteBuffer.allocate(2).order(ByteOrder.LITTLE_ENDIAN).putChar(SEPARATOR).array();
+        digest.update(packageId.getBytes(StandardCharsets.UTF_8));
+        digest.update(separator);
+        digest.update(String.valueOf(date).getBytes(StandardCharsets.UTF_8));
+        digest.update(separator);
+        digest.update(location.getBytes(StandardCharsets.UTF_8));
+        digest.update(separator);
+        digest.update(description.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static boolean hasColumn(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet columns = metaData.getColumns(connection.getCatalog(), null, TABLE, null)) {
+            while (columns.next()) {
+                if (COLUMN.equalsIgnoreCase(columns.getString("COLUMN_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasIndex(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), null, TABLE, true, false)) {
+            while (indexes.next()) {
+                if (COLUMN.equalsIgnoreCase(indexes.getString("COLUMN_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,43 @@
+-- Esquema inicial, equivalente ao que o Hibernate gerava com ddl-auto=update.
+-- IF NOT EXISTS permite aplicar a migração sobre bancos já criados pelo Hibernate (baseline-version 0).
+
+CREATE TABLE IF NOT EXISTS packages (
+    id VARCHAR(50) NOT NULL,
+    description VARCHAR(500) NOT NULL,
+    fun_fact VARCHAR(1000),
+    sender VARCHAR(200) NOT NULL,
+    recipient VARCHAR(200) NOT NULL,
+    is_holliday BIT NOT NULL,
+    estimated_delivery_date DATE,
+    status ENUM('CREATED', 'IN_TRANSIT', 'DELIVERED', 'CANCELLED') NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    delivered_at DATETIME(6),
+    PRIMARY KEY (id),
+    INDEX idx_package_sender (sender),
+    INDEX idx_package_recipient (recipient),
+    INDEX idx_package_createdAt (created_at),
+    INDEX idx_package_status (status)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS tracking_events (
+    id VARCHAR(32) NOT NULL,
+    package_id VARCHAR(50) NOT NULL,
+    location VARCHAR(200) NOT NULL,
+    description VARCHAR(500) NOT NULL,
+    date DATETIME(6) NOT NULL,
+    event_key VARCHAR(64),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_tracking_event_key UNIQUE (event_key),
+    INDEX idx_tracking_packageId (package_id),
+    INDEX idx_tracking_date (date)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    event_type ENUM('PACKAGE_CREATED', 'PACKAGE_STATUS_CHANGED', 'TRACKING_EVENT_ADDED') NOT NULL,
+    package_id VARCHAR(50) NOT NULL,
+    status VARCHAR(20),
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
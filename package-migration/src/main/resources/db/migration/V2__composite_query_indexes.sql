@@ -0,0 +1,19 @@
+-- Índices compostos alinhados ao formato real das consultas (filtro por igualdade + ordenação/intervalo).
+-- Os novos índices são criados antes de remover os antigos, para que nenhuma consulta fique sem índice no meio da migração.
+
+-- Eventos: filtro por pacote ordenado por data sem filesort. Como o InnoDB inclui a PK em todo índice
+-- secundário, COUNT por pacote e a lista de IDs de um pacote são resolvidos só pelo índice.
+-- idx_tracking_date continua atendendo intervalos de data e a limpeza por data de corte.
+CREATE INDEX idx_tracking_package_date ON tracking_events (package_id, date);
+DROP INDEX idx_tracking_packageId ON tracking_events;
+
+-- Pacotes: remetente/destinatário ordenados por criação, status ordenado por atualização
+-- e status com data de corte (limpeza). Os índices de coluna única passam a ser prefixos redundantes.
+CREATE INDEX idx_package_sender_created ON packages (sender, created_at);
+CREATE INDEX idx_package_recipient_created ON packages (recipient, created_at);
+CREATE INDEX idx_package_status_updated ON packages (status, updated_at);
+CREATE INDEX idx_package_status_created ON packages (status, created_at);
+CREATE INDEX idx_package_estimated_delivery ON packages (estimated_delivery_date);
+DROP INDEX idx_package_sender ON packages;
+DROP INDEX idx_package_recipient ON packages;
+DROP INDEX idx_package_status ON packages;
@@ -0,0 +1,9 @@
+-- Chaves de busca normalizadas para remetente e destinatário: SHA-256 truncado em 16 bytes do texto
+-- sem espaços nas pontas, com espaços internos colapsados, em NFC e minúsculo (ver V4 e LookupHash nos serviços).
+-- Colunas de largura fixa deixam os índices pequenos e permitem combinar remetente e destinatário no mesmo índice.
+-- As colunas nascem nulas e são preenchidas em lotes pela V4; adicionar coluna anulável é só metadado (INSTANT).
+ALTER TABLE packages ADD COLUMN sender_hash BINARY(16) NULL${instant_ddl};
+ALTER TABLE packages ADD COLUMN recipient_hash BINARY(16) NULL${instant_ddl};
+
+ALTER TABLE packages ADD INDEX idx_package_sender_lookup (sender_hash, recipient_hash, created_at)${online_ddl};
+ALTER TABLE packages ADD INDEX idx_package_recipient_lookup (recipient_hash, created_at)${online_ddl};
@@ -0,0 +1,3 @@
+-- Varredura incremental da busca textual do package-query: pacotes alterados desde o último checkpoint,
+-- em ordem de (updated_at, id). O InnoDB inclui a PK no índice secundário, então (updated_at) cobre a ordenação
+ALTER TABLE packages ADD INDEX idx_package_updated (updated_at)${online_ddl};
@@ -0,0 +1,142 @@
+package com.packagetracking.migration;
+
+import db.migration.R__BackfillPackageLookupHashes;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.configuration.Configuration;
+import org.flywaydb.core.api.migration.Context;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BackfillPackageLookupHashesTest {
+
+    private static final String LOJA_ABC_HASH = "826c30aff50e4ebac0131d956332fcdc";
+
+    private JdbcDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+    }
+
+    @Test
+    void backfill_ShouldFillNormalizedHashesAcrossBatches() throws Exception {
+        flyway().migrate();
+        int total = 2_500;
+        for (int i = 0; i < total; i++) {
+            insertPackage(String.format("pacote-%05d", i), i % 2 == 0 ? "  Loja   ABC " : "Loja abc", "JOÃO\tda  Silva");
+        }
+
+        runBackfill();
+
+        try (Connection connection = dataSource.getConnection();
+             ResultSet rows = connection.createStatement().executeQuery(
+                 "SELECT COUNT(*), COUNT(DISTINCT sender_hash), COUNT(DISTINCT recipient_hash), MIN(sender_hash), MIN(recipient_hash) " +
+                 "FROM packages WHERE sender_hash IS NOT NULL AND recipient_hash IS NOT NULL")) {
+            rows.next();
+            assertEquals(total, rows.getInt(1));
+            assertEquals(1, rows.getInt(2));
+            assertEquals(1, rows.getInt(3));
+            assertEquals(LOJA_ABC_HASH, HexFormat.of().formatHex(rows.getBytes(4)));
+            assertEquals("3d2cdd9786c4a169e7d8e130b3c1be40", HexFormat.of().formatHex(rows.getBytes(5)));
+        }
+    }
+
+    @Test
+    void rerun_ShouldFillOnlyRowsWrittenWithoutHashesDuringRollout() throws Exception {
+        flyway().migrate();
+        MigrationInfo backfill = Arrays.stream(flyway().info().applied())
+            .filter(migration -> migration.getVersion() == null)
+            .findFirst()
+            .orElseThrow();
+        assertEquals(R__BackfillPackageLookupHashes.REVISION, backfill.getChecksum());
+
+        // Nó antigo grava sem hash; nó novo grava o hash calculado pelo LookupHash
+        insertPackage("pacote-antigo", "Loja ABC", "João da Silva");
+        insertPackage("pacote-novo", "Loja XYZ", "Maria");
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement update = connection.prepareStatement(
+                 "UPDATE packages SET sender_hash = ?, recipient_hash = ? WHERE id = 'pacote-novo'")) {
+            update.setBytes(1, new byte[16]);
+            update.setBytes(2, new byte[16]);
+            update.executeUpdate();
+        }
+
+        // Sem incrementar REVISION o checksum não muda e o Flyway não reexecuta o backfill
+        flyway().migrate();
+        assertNull(senderHash("pacote-antigo"));
+
+        runBackfill();
+
+        assertEquals(LOJA_ABC_HASH, HexFormat.of().formatHex(senderHash("pacote-antigo")));
+        assertArrayEquals(new byte[16], senderHash("pacote-novo"));
+    }
+
+    /**
+     * Executa o backfill como o Flyway faria após um incremento de REVISION
+     */
+    private void runBackfill() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            new R__BackfillPackageLookupHashes().migrate(new Context() {
+                @Override
+                public Configuration getConfiguration() {
+                    return null;
+                }
+
+                @Override
+                public Connection getConnection() {
+                    return connection;
+                }
+            });
+        }
+    }
+
+    private byte[] senderHash(String id) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement select = connection.prepareStatement("SELECT sender_hash FROM packages WHERE id = ?")) {
+            select.setString(1, id);
+            try (ResultSet rows = select.executeQuery()) {
+                rows.next();
+                return rows.getBytes(1);
+            }
+        }
+    }
+
+    private void insertPackage(String id, String sender, String recipient) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(
+                 "INSERT INTO packages (id, description, sender, recipient, is_holliday, status, created_at, updated_at) " +
+                 "VALUES (?, 'Livros', ?, ?, FALSE, 'CREATED', ?, ?)")) {
+            Timestamp now = Timestamp.from(Instant.parse("2025-01-20T10:00:00Z"));
+            insert.setString(1, id);
+            insert.setString(2, sender);
+            insert.setString(3, recipient);
+            insert.setTimestamp(4, now);
+            insert.setTimestamp(5, now);
+            insert.executeUpdate();
+        }
+    }
+
+    private Flyway flyway() {
+        return Flyway.configure()
+            .dataSource(dataSource)
+            .locations("classpath:db/migration")
+            .placeholders(Map.of("online_ddl", "", "instant_ddl", ""))
+            .load();
+    }
+}
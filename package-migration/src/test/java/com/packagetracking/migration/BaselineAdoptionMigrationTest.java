@@ -0,0 +1,109 @@
+package com.packagetracking.migration;
+
+import db.migration.V7__AddTrackingEventKey;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.h2.tools.RunScript;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Adoção de um banco criado pelo Hibernate antes do Flyway (baseline-version 0): as tabelas já existem,
+ * então o CREATE TABLE IF NOT EXISTS da V1 não faz nada e as migrações seguintes precisam levar o esquema
+ * ao mesmo estado de um banco novo
+ */
+class BaselineAdoptionMigrationTest {
+
+    private static final LocalDateTime SCAN_DATE = LocalDateTime.parse("2025-01-20T11:00");
+
+    private JdbcDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+
+        try (Connection connection = dataSource.getConnection();
+             Reader schema = new InputStreamReader(
+                 Objects.requireNonNull(getClass().getResourceAsStream("/baseline/hibernate_schema.sql")), StandardCharsets.UTF_8)) {
+            RunScript.execute(connection, schema);
+        }
+    }
+
+    @Test
+    void migrate_BaselineSchema_ShouldAddEventKeyAndKeepOneKeyPerDuplicatedEvent() throws Exception {
+        insertEvent("evento-1", "pacote-12345", "Centro de Distribuição São Paulo");
+        insertEvent("evento-2", "pacote-12345", "Centro de Distribuição São Paulo");
+        insertEvent("evento-3", "pacote-12345", "Campinas");
+
+        Flyway flyway = Flyway.configure()
+            .dataSource(dataSource)
+            .locations("classpath:db/migration")
+            .placeholders(Map.of("online_ddl", "", "instant_ddl", ""))
+            .baselineOnMigrate(true)
+            .baselineVersion("0")
+            .load();
+        flyway.migrate();
+
+        assertEquals(0, flyway.info().pending().length);
+        flyway.validate();
+
+        assertEquals(V7__AddTrackingEventKey.eventKey("pacote-12345", SCAN_DATE, "Centro de Distribuição São Paulo", "Em trânsito"),
+                     eventKey("evento-1"));
+        assertNull(eventKey("evento-2"));
+        assertEquals(V7__AddTrackingEventKey.eventKey("pacote-12345", SCAN_DATE, "Campinas", "Em trânsito"),
+                     eventKey("evento-3"));
+
+        // O INSERT IGNORE dos serviços depende do índice único
+        SQLException duplicate = assertThrows(SQLException.class, () -> {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO tracking_events (id, package_id, location, description, date, event_key) " +
+                     "VALUES ('evento-4', 'pacote-12345', 'Campinas', 'Em trânsito', ?, ?)")) {
+                insert.setTimestamp(1, Timestamp.valueOf(SCAN_DATE));
+                insert.setString(2, eventKey("evento-3"));
+                insert.executeUpdate();
+            }
+        });
+        assertTrue(duplicate.getMessage().toLowerCase().contains("uk_tracking_event_key"), duplicate.getMessage());
+    }
+
+    private void insertEvent(String id, String packageId, String location) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(
+                 "INSERT INTO tracking_events (id, package_id, location, description, date) VALUES (?, ?, ?, 'Em trânsito', ?)")) {
+            insert.setString(1, id);
+            insert.setString(2, packageId);
+            insert.setString(3, location);
+            insert.setTimestamp(4, Timestamp.valueOf(SCAN_DATE));
+            insert.executeUpdate();
+        }
+    }
+
+    private String eventKey(String id) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement select = connection.prepareStatement("SELECT event_key FROM tracking_events WHERE id = ?")) {
+            select.setString(1, id);
+            try (ResultSet rows = select.executeQuery()) {
+                rows.next();
+                return rows.getString(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.packagetracking.migration;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Regras que mantêm as migrações seguras para tabelas grandes em produção:
+ * todo ALTER TABLE declara as opções de DDL online e nenhuma alteração que exige cópia da tabela
+ * passa pelo Flyway (essas seguem o procedimento de tabela sombra descrito no README).
+ */
+class OnlineDdlMigrationTest {
+
+    private static final Path MIGRATIONS = Path.of("src/main/resources/db/migration");
+
+    /**
+     * V1 e V2 foram aplicadas antes destas regras e não podem ser reescritas: o Flyway recusaria o checksum
+     * alterado nos bancos que já as executaram. As regras valem a partir desta versão
+     */
+    private static final int FIRST_CHECKED_VERSION = 3;
+    private static final Pattern VERSION = Pattern.compile("^V(\\d+)__");
+
+    private static final String ONLINE_DDL = "${online_ddl}";
+    private static final String INSTANT_DDL = "${instant_ddl}";
+
+    /**
+     * Alterações que o InnoDB só faz reconstruindo a tabela com cópia (ALGORITHM=COPY)
+     */
+    private static final Pattern TABLE_COPY = Pattern.compile(
+        "\\b(MODIFY|CHANGE)\\s+(COLUMN\\s+)?\\w+|\\bCONVERT\\s+TO\\b|\\b(ADD|DROP)\\s+PRIMARY\\s+KEY\\b|\\bENGINE\\s*=",
+        Pattern.CASE_INSENSITIVE);
+
+    static Stream<Path> migrationFiles() throws IOException {
+        return Files.list(MIGRATIONS)
+            .filter(path -> path.toString().endsWith(".sql") && version(path) >= FIRST_CHECKED_VERSION)
+            .sorted();
+    }
+
+    private static int version(Path migration) {
+        var matcher = VERSION.matcher(migration.getFileName().toString());
+        assertTrue(matcher.find(), "migração versionada fora do padrão V<n>__: " + migration.getFileName());
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("migrationFiles")
+    void alterTable_ShouldDeclareOnlineDdlOptions(Path migration) throws IOException {
+        for (String statement : statements(migration)) {
+            String upper = statement.toUpperCase();
+            if (upper.startsWith("ALTER TABLE")) {
+                assertTrue(statement.endsWith(ONLINE_DDL) || statement.endsWith(INSTANT_DDL),
+                           migration.getFileName() + ": ALTER TABLE sem " + ONLINE_DDL + " ou " + INSTANT_DDL + " -> " + statement);
+                assertFalse(TABLE_COPY.matcher(statement).find(),
+                            migration.getFileName() + ": alteração exige cópia da tabela, use o procedimento de tabela sombra -> " + statement);
+            }
+            assertFalse(upper.startsWith("CREATE INDEX") || upper.startsWith("CREATE UNIQUE INDEX") || upper.startsWith("DROP INDEX"),
+                        migration.getFileName() + ": use ALTER TABLE ... ADD/DROP INDEX" + ONLINE_DDL + " -> " + statement);
+        }
+    }
+
+    @Test
+    void migrate_ShouldApplyAllVersionsOnEmptySchema() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:migration;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+
+        Flyway flyway = Flyway.configure()
+            .dataSource(dataSource)
+            .locations("classpath:db/migration")
+            .placeholders(Map.of("online_ddl", "", "instant_ddl", ""))
+            .load();
+        flyway.migrate();
+
+        MigrationInfo[] applied = flyway.info().applied();
+        assertEquals(flyway.info().all().length, applied.length);
+        assertEquals(0, flyway.info().pending().length);
+        flyway.validate();
+    }
+
+    private static List<String> statements(Path migration) throws IOException {
+        String sql = Files.readAllLines(migration).stream()
+            .map(line -> line.replaceFirst("--.*$", ""))
+            .reduce("", (script, line) -> script + " " + line);
+        return Arrays.stream(sql.split(";"))
+            .map(statement -> statement.trim().replaceAll("\\s+", " "))
+            .filter(statement -> !statement.isEmpty())
+            .toList();
+    }
+}
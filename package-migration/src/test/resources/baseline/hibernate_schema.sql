@@ -0,0 +1,36 @@
+-- Esquema de um banco criado antes do Flyway: o que o Hibernate gerava com ddl-auto=update no commit inicial,
+-- seguido dos ajustes do docker/mysql/master/init.sql daquela versão. É o ponto de partida da adoção com baseline-version 0.
+
+CREATE TABLE packages (
+    id VARCHAR(50) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    delivered_at DATETIME(6),
+    description VARCHAR(500) NOT NULL,
+    estimated_delivery_date DATE,
+    fun_fact VARCHAR(1000),
+    is_holliday BIT NOT NULL,
+    recipient VARCHAR(200) NOT NULL,
+    sender VARCHAR(200) NOT NULL,
+    status ENUM('CREATED', 'IN_TRANSIT', 'DELIVERED', 'CANCELLED') NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE tracking_events (
+    id VARCHAR(32) NOT NULL,
+    date DATETIME(6) NOT NULL,
+    description VARCHAR(500) NOT NULL,
+    location VARCHAR(200) NOT NULL,
+    package_id VARCHAR(50) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_package_sender ON packages (sender);
+CREATE INDEX idx_package_recipient ON packages (recipient);
+CREATE INDEX idx_package_createdAt ON packages (created_at);
+CREATE INDEX idx_package_status ON packages (status);
+CREATE INDEX idx_tracking_packageId ON tracking_events (package_id);
+CREATE INDEX idx_tracking_date ON tracking_events (date);
+
+-- init.sql: índice de prefixo do id, id(8) no MySQL; o H2 não aceita comprimento de prefixo e indexa a coluna inteira
+CREATE INDEX idx_tracking_id_prefix ON tracking_events (id);
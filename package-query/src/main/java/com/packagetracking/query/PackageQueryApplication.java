@@ -2,11 +2,14 @@ package com.packagetracking.query;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 
-@SpringBootApplication
+// O pool R2DBC da variante reativa é criado pelo ReactiveQueryConfig; as transações continuam no JPA
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
 public class PackageQueryApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(PackageQueryApplication.class, args);
     }
-} 
\ No newline at end of file
+}
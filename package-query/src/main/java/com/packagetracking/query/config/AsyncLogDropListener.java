@@ -0,0 +1,25 @@
+package com.packagetracking.query.config;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import net.logstash.logback.appender.listener.AppenderListener;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Conta os eventos descartados pelo appender assíncrono quando o ring buffer está cheio.
+ * Com appendTimeout 0 o appender nunca bloqueia a thread que loga: o evento é descartado e cai aqui
+ */
+public class AsyncLogDropListener implements AppenderListener<ILoggingEvent> {
+
+    private static final LongAdder DROPPED = new LongAdder();
+
+    public static long dropped() {
+        return DROPPED.sum();
+    }
+
+    @Override
+    public void eventAppendFailed(Appender<ILoggingEvent> appender, ILoggingEvent event, Throwable reason) {
+        DROPPED.increment();
+    }
+}
@@ -33,6 +33,7 @@ public class CacheConfig {
                 .cacheDefaults(config)
                 .withCacheConfiguration("packages-in-transit", 
                     config.entryTtl(Duration.ofHours(1))) // TTL de 1 hora para pacotes IN_TRANSIT
+                .enableStatistics() // Acertos e falhas por cache exportados como cache.gets pelo actuator
                 .build();
 
         log.info("Redis Cache Manager configurado para pacotes IN_TRANSIT com TTL de 1 hora");
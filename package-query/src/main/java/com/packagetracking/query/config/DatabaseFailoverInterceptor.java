@@ -26,7 +26,7 @@ public class DatabaseFailoverInterceptor {
                 DatabaseRoutingConfig.DatabaseType.SLAVE) {
                 
                 log.info("Fazendo failover do slave para master");
-                DatabaseRoutingConfig.DatabaseRoutingDataSource.setDatabaseType(
+                DatabaseRoutingConfig.DatabaseRoutingDataSource.useForCurrentThread(
                     DatabaseRoutingConfig.DatabaseType.MASTER
                 );
                 
@@ -35,6 +35,9 @@ public class DatabaseFailoverInterceptor {
                 } catch (Exception retryException) {
                     log.error("Erro persistente mesmo após failover: {}", retryException.getMessage());
                     throw retryException;
+                } finally {
+                    // A thread (virtual ou do pool) não pode carregar o master para a próxima requisição
+                    DatabaseRoutingConfig.DatabaseRoutingDataSource.clearDatabaseType();
                 }
             }
             
@@ -1,6 +1,9 @@
 package com.packagetracking.query.config;
 
 import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -11,14 +14,20 @@ import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
 
 import javax.sql.DataSource;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Configuration
 @ConditionalOnProperty(name = "spring.datasource.slave.url")
+@RequiredArgsConstructor
 @Slf4j
 public class DatabaseRoutingConfig {
 
+    private final MeterRegistry meterRegistry;
+
     @Value("${spring.datasource.slave.url}")
     private String slaveUrl;
 
@@ -37,6 +46,26 @@ public class DatabaseRoutingConfig {
     @Value("${spring.datasource.master.password}")
     private String masterPassword;
 
+    // Com threads virtuais o Tomcat deixa de limitar a concorrência: o pool passa a ser o limite efetivo
+    // e o connection-timeout é o tempo máximo que uma requisição espera por conexão
+    @Value("${spring.datasource.slave.maximum-pool-size:150}")
+    private int slaveMaximumPoolSize;
+
+    @Value("${spring.datasource.slave.minimum-idle:30}")
+    private int slaveMinimumIdle;
+
+    @Value("${spring.datasource.slave.connection-timeout:5000}")
+    private long slaveConnectionTimeout;
+
+    @Value("${spring.datasource.master.maximum-pool-size:50}")
+    private int masterMaximumPoolSize;
+
+    @Value("${spring.datasource.master.minimum-idle:10}")
+    private int masterMinimumIdle;
+
+    @Value("${spring.datasource.master.connection-timeout:3000}")
+    private long masterConnectionTimeout;
+
     @Bean
     public DataSource slaveDataSource() {
         HikariDataSource dataSource = new HikariDataSource();
@@ -45,9 +74,9 @@ public class DatabaseRoutingConfig {
         dataSource.setPassword(slavePassword);
         dataSource.setDriverClassName("com.mysql.cj.jdbc.Driver");
         
-        dataSource.setMaximumPoolSize(150);
-        dataSource.setMinimumIdle(30);
-        dataSource.setConnectionTimeout(5000);
+        dataSource.setMaximumPoolSize(slaveMaximumPoolSize);
+        dataSource.setMinimumIdle(slaveMinimumIdle);
+        dataSource.setConnectionTimeout(slaveConnectionTimeout);
         dataSource.setIdleTimeout(300000);
         dataSource.setMaxLifetime(1800000);
         dataSource.setLeakDetectionThreshold(20000);
@@ -69,9 +98,9 @@ public class DatabaseRoutingConfig {
         dataSource.setPassword(masterPassword);
         dataSource.setDriverClassName("com.mysql.cj.jdbc.Driver");
         
-        dataSource.setMaximumPoolSize(50);
-        dataSource.setMinimumIdle(10);
-        dataSource.setConnectionTimeout(3000);
+        dataSource.setMaximumPoolSize(masterMaximumPoolSize);
+        dataSource.setMinimumIdle(masterMinimumIdle);
+        dataSource.setConnectionTimeout(masterConnectionTimeout);
         dataSource.setIdleTimeout(300000);
         dataSource.setMaxLifetime(1800000);
         dataSource.setLeakDetectionThreshold(15000);
@@ -88,6 +117,7 @@ public class DatabaseRoutingConfig {
     @Bean
     public AbstractRoutingDataSource routingDataSource() {
         DatabaseRoutingDataSource routingDataSource = new DatabaseRoutingDataSource();
+        routingDataSource.bindConnectionMetrics(meterRegistry);
         
         Map<Object, Object> targetDataSources = new HashMap<>();
         targetDataSources.put(DatabaseType.SLAVE, slaveDataSource());
@@ -109,50 +139,96 @@ public class DatabaseRoutingConfig {
         SLAVE, MASTER
     }
 
+    /**
+     * Roteamento entre slave e master. O datasource padrão é global (failover decidido pelo health check)
+     * e a sobrescrita por thread existe apenas durante o retry do failover e a leitura do snapshot do stream,
+     * sendo sempre removida ao final.
+     * No caminho normal a thread guarda apenas a rota que atendeu sua última conexão, até ser lida pelas métricas
+     * de consulta; a sobrescrita do roteamento nunca fica para a próxima requisição, o que o mantém seguro com threads virtuais.
+     */
     public static class DatabaseRoutingDataSource extends AbstractRoutingDataSource {
         
+        private static final AtomicReference<DatabaseType> defaultType = new AtomicReference<>(DatabaseType.SLAVE);
         private static final ThreadLocal<DatabaseType> contextHolder = new ThreadLocal<>();
+        private static final ThreadLocal<DatabaseType> resolvedRoute = new ThreadLocal<>();
+        
+        private final Map<DatabaseType, Counter> connections = new EnumMap<>(DatabaseType.class);
+        
+        /**
+         * Conta as conexões pela rota que de fato as atendeu, incluindo o desvio para o master quando o slave falha
+         */
+        public void bindConnectionMetrics(MeterRegistry meterRegistry) {
+            for (DatabaseType databaseType : DatabaseType.values()) {
+                connections.put(databaseType, Counter.builder("package.query.db.connections")
+                    .description("Conexões obtidas por rota do datasource")
+                    .tag("route", databaseType.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+            }
+        }
         
         @Override
         protected Object determineCurrentLookupKey() {
-            DatabaseType databaseType = contextHolder.get();
-            if (databaseType == null) {
-                databaseType = DatabaseType.SLAVE;
-                contextHolder.set(databaseType);
-            }
-            
+            DatabaseType databaseType = getDatabaseType();
             log.debug("Usando datasource: {}", databaseType);
             return databaseType;
         }
         
         public static void setDatabaseType(DatabaseType databaseType) {
-            contextHolder.set(databaseType);
-            log.info("Alterando para datasource: {}", databaseType);
+            if (defaultType.getAndSet(databaseType) != databaseType) {
+                log.info("Alterando para datasource: {}", databaseType);
+            }
         }
         
         public static DatabaseType getDatabaseType() {
-            return contextHolder.get();
+            DatabaseType override = contextHolder.get();
+            return override != null ? override : defaultType.get();
+        }
+        
+        /**
+         * Força o datasource apenas para a thread atual; deve ser desfeito com clearDatabaseType()
+         */
+        public static void useForCurrentThread(DatabaseType databaseType) {
+            contextHolder.set(databaseType);
         }
         
         public static void clearDatabaseType() {
             contextHolder.remove();
         }
         
+        /**
+         * Rota que atendeu a última conexão obtida pela thread, já considerando o desvio para o master, e a descarta
+         * para não ser atribuída à consulta seguinte; sem conexão registrada, a rota vigente
+         */
+        public static DatabaseType takeResolvedRoute() {
+            DatabaseType route = resolvedRoute.get();
+            resolvedRoute.remove();
+            return route != null ? route : getDatabaseType();
+        }
+        
         @Override
         protected DataSource determineTargetDataSource() {
             DataSource dataSource = super.determineTargetDataSource();
+            DatabaseType route = getDatabaseType();
             
-            if (getDatabaseType() == DatabaseType.SLAVE) {
+            if (route == DatabaseType.SLAVE) {
                 try {
                     dataSource.getConnection().close();
                 } catch (Exception e) {
-                    log.warn("Slave não disponível, fazendo failover para master: {}", e.getMessage());
-                    setDatabaseType(DatabaseType.MASTER);
-                    dataSource = super.determineTargetDataSource();
+                    log.warn("Slave não disponível, usando master nesta conexão: {}", e.getMessage());
+                    DataSource master = getResolvedDataSources().get(DatabaseType.MASTER);
+                    if (master != null) {
+                        dataSource = master;
+                        route = DatabaseType.MASTER;
+                    }
                 }
             }
             
+            resolvedRoute.set(route);
+            Counter counter = connections.get(route);
+            if (counter != null) {
+                counter.increment();
+            }
             return dataSource;
         }
     }
-} 
\ No newline at end of file
+}
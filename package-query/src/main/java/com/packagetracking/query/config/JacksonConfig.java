@@ -3,6 +3,8 @@ package com.packagetracking.query.config;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.packagetracking.query.service.PackageQueryMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -18,4 +20,14 @@ public class JacksonConfig {
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         return objectMapper;
     }
+
+    /**
+     * Substitui o conversor JSON padrão do Spring MVC pelo que registra tempo de serialização e bytes por resposta
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public MeteredJsonHttpMessageConverter meteredJsonHttpMessageConverter(ObjectMapper objectMapper,
+                                                                           PackageQueryMetrics packageQueryMetrics) {
+        return new MeteredJsonHttpMessageConverter(objectMapper, packageQueryMetrics);
+    }
 } 
\ No newline at end of file
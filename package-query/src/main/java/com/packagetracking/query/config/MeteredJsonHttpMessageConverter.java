@@ -0,0 +1,98 @@
+package com.packagetracking.query.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.packagetracking.query.service.PackageQueryMetrics;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.NonNull;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Conversor JSON das respostas MVC que mede o tempo de serialização e conta os bytes escritos.
+ * O corpo é escrito em streaming no buffer da resposta, então o tempo inclui a cópia para o buffer do Tomcat
+ */
+public class MeteredJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final PackageQueryMetrics packageQueryMetrics;
+
+    public MeteredJsonHttpMessageConverter(ObjectMapper objectMapper, PackageQueryMetrics packageQueryMetrics) {
+        super(objectMapper);
+        this.packageQueryMetrics = packageQueryMetrics;
+    }
+
+    @Override
+    protected void writeInternal(@NonNull Object object, Type type, @NonNull HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        CountingOutputMessage countingMessage = new CountingOutputMessage(outputMessage);
+        long start = System.nanoTime();
+        super.writeInternal(object, type, countingMessage);
+        packageQueryMetrics.recordSerialization(currentUriPattern(), System.nanoTime() - start, countingMessage.bytes());
+    }
+
+    private static String currentUriPattern() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Object pattern = attributes != null
+            ? attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+            : null;
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+    private static final class CountingOutputMessage implements HttpOutputMessage {
+
+        private final HttpOutputMessage delegate;
+        private CountingOutputStream body;
+
+        CountingOutputMessage(HttpOutputMessage delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        @NonNull
+        public OutputStream getBody() throws IOException {
+            if (body == null) {
+                body = new CountingOutputStream(delegate.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        @NonNull
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        long bytes() {
+            return body != null ? body.count : 0;
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
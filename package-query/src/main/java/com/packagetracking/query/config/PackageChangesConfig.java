@@ -0,0 +1,53 @@
+package com.packagetracking.query.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Base64UrlNamingStrategy;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Assinatura das notificações de mudança do package-command.
+ * Cada instância usa uma fila exclusiva e temporária: todas recebem todas as mudanças,
+ * já que os assinantes de stream estão conectados a instâncias diferentes.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.changes.enabled", havingValue = "true")
+public class PackageChangesConfig {
+
+    public static final String PACKAGE_CHANGES_EXCHANGE = "package.changes";
+
+    public static final String PACKAGE_CHANGES_BINDING = "package.#";
+
+    @Bean
+    public TopicExchange packageChangesExchange() {
+        return new TopicExchange(PACKAGE_CHANGES_EXCHANGE);
+    }
+
+    @Bean
+    public Queue packageChangesQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("package-query.changes."));
+    }
+
+    @Bean
+    public Binding packageChangesBinding() {
+        return BindingBuilder.bind(packageChangesQueue()).to(packageChangesExchange()).with(PACKAGE_CHANGES_BINDING);
+    }
+
+    /**
+     * O header de tipo aponta para a classe do package-command; a conversão usa o tipo do parâmetro do listener
+     */
+    @Bean
+    public MessageConverter packageChangesMessageConverter(ObjectMapper objectMapper) {
+        Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter(objectMapper);
+        converter.setAlwaysConvertToInferredType(true);
+        return converter;
+    }
+}
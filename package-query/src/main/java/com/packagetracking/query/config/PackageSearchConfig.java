@@ -0,0 +1,34 @@
+package com.packagetracking.query.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Busca textual: cada instância mantém o próprio índice, alimentado pelas notificações de mudança
+ * e por uma varredura incremental do banco (PackageSearchIndexer)
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.search.enabled", havingValue = "true")
+@Slf4j
+public class PackageSearchConfig {
+
+    @Bean(destroyMethod = "close")
+    public Directory packageSearchDirectory(PackageSearchProperties properties) throws IOException {
+        if (properties.getIndexPath().isBlank()) {
+            log.info("Índice de busca em memória");
+            return new ByteBuffersDirectory();
+        }
+        log.info("Índice de busca em disco - Diretório: {}", properties.getIndexPath());
+        return FSDirectory.open(Path.of(properties.getIndexPath()));
+    }
+}
@@ -0,0 +1,30 @@
+package com.packagetracking.query.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Busca textual sobre descrição, remetente e destinatário (índice Lucene local de cada instância)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.search")
+public class PackageSearchProperties {
+    
+    /** Diretório do índice; vazio mantém o índice em memória (reconstruído a cada subida) */
+    private String indexPath = "";
+    private int defaultLimit = 20;
+    private int maxLimit = 100;
+    /** Termos da consulta além deste limite são ignorados */
+    private int maxTerms = 8;
+    /** Tamanho mínimo do termo para busca por prefixo e, a partir de 4, com tolerância a erro de digitação */
+    private int minPrefixLength = 2;
+    /** Tempo máximo de busca no índice; ao estourar retorna os resultados coletados até ali */
+    private Duration timeout = Duration.ofMillis(200);
+    private int catchUpBatchSize = 1000;
+    /** Margem aplicada ao checkpoint na varredura incremental, cobrindo atraso de replicação e commits fora de ordem */
+    private Duration catchUpOverlap = Duration.ofMinutes(1);
+}
@@ -0,0 +1,96 @@
+package com.packagetracking.query.config;
+
+import io.asyncer.r2dbc.mysql.MySqlConnectionConfiguration;
+import io.asyncer.r2dbc.mysql.MySqlConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+/**
+ * Infraestrutura da variante reativa (spring.main.web-application-type=reactive): pool R2DBC apontando para o slave
+ * e template Redis reativo que lê e grava as mesmas entradas do cache packages-in-transit do CacheConfig.
+ * O R2dbcAutoConfiguration fica excluído na aplicação para que o modo servlet não exija URL R2DBC.
+ * Com um ConnectionFactory no contexto o DataSourceAutoConfiguration recua: os DataSources JDBC usados pelo
+ * health check e pelo JPA vêm do DatabaseRoutingConfig.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Slf4j
+public class ReactiveQueryConfig {
+
+    @Value("${app.reactive.r2dbc.host:localhost}")
+    private String host;
+
+    @Value("${app.reactive.r2dbc.port:3307}")
+    private int port;
+
+    @Value("${app.reactive.r2dbc.database:packagetracking}")
+    private String database;
+
+    @Value("${app.reactive.r2dbc.username:app_read}")
+    private String username;
+
+    @Value("${app.reactive.r2dbc.password:app_read}")
+    private String password;
+
+    @Value("${app.reactive.r2dbc.pool.initial-size:10}")
+    private int initialSize;
+
+    @Value("${app.reactive.r2dbc.pool.max-size:50}")
+    private int maxSize;
+
+    @Value("${app.reactive.r2dbc.pool.max-acquire-time-ms:3000}")
+    private long maxAcquireTimeMs;
+
+    @Bean
+    public ConnectionPool reactiveConnectionFactory() {
+        ConnectionFactory connectionFactory = MySqlConnectionFactory.from(MySqlConnectionConfiguration.builder()
+            .host(host)
+            .port(port)
+            .database(database)
+            .user(username)
+            .password(password)
+            .connectTimeout(Duration.ofMillis(300))
+            .build());
+
+        ConnectionPoolConfiguration poolConfiguration = ConnectionPoolConfiguration.builder(connectionFactory)
+            .name("R2dbcPool-slave")
+            .initialSize(initialSize)
+            .maxSize(maxSize)
+            .maxAcquireTime(Duration.ofMillis(maxAcquireTimeMs))
+            .maxIdleTime(Duration.ofMinutes(5))
+            .maxLifeTime(Duration.ofMinutes(30))
+            .validationQuery("SELECT 1")
+            .build();
+
+        log.info("Pool R2DBC configurado para {}:{}/{} (inicial: {}, máximo: {})", host, port, database, initialSize, maxSize);
+        return new ConnectionPool(poolConfiguration);
+    }
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(ConnectionPool reactiveConnectionFactory) {
+        return DatabaseClient.create(reactiveConnectionFactory);
+    }
+
+    @Bean
+    public ReactiveRedisTemplate<String, Object> reactivePackageCacheTemplate(ReactiveRedisConnectionFactory redisConnectionFactory) {
+        RedisSerializationContext<String, Object> context = RedisSerializationContext
+            .<String, Object>newSerializationContext(new StringRedisSerializer())
+            .value(new GenericJackson2JsonRedisSerializer())
+            .build();
+        return new ReactiveRedisTemplate<>(redisConnectionFactory, context);
+    }
+}
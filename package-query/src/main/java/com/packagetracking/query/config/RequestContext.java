@@ -0,0 +1,96 @@
+package com.packagetracking.query.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * IDs de requisição e timestamp das respostas sem locks no caminho da requisição.
+ * O ID é o nó (app.node-id, ou aleatório se vazio) + o instante de subida em base 36, seguidos de um contador atômico:
+ * único entre Virtual Threads, reinícios e instâncias, com cerca de 20 caracteres
+ */
+@Component
+@Slf4j
+public class RequestContext {
+
+    public static final String REQUEST_ID_MDC = "requestId";
+    public static final String CORRELATION_ID_MDC = "correlationId";
+
+    /** IDs recebidos vão para os logs: só caracteres seguros e tamanho limitado */
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9._:-]{1,64}");
+    private static final Pattern NODE_ID_INVALID_CHARS = Pattern.compile("[^a-z0-9]");
+    private static final int NODE_ID_MAX_LENGTH = 12;
+
+    private final String idPrefix;
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongSupplier clock;
+    private volatile CachedTimestamp timestamp = new CachedTimestamp(Long.MIN_VALUE, null);
+
+    @Autowired
+    public RequestContext(@Value("${app.node-id:}") String nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    RequestContext(String nodeId, LongSupplier clock) {
+        this.clock = clock;
+        this.idPrefix = normalizeNodeId(nodeId) + "-" + Long.toString(clock.getAsLong() / 1000, 36) + "-";
+        log.info("IDs de requisição gerados com o prefixo {}", idPrefix);
+    }
+
+    public String nextId() {
+        return idPrefix + Long.toString(sequence.incrementAndGet(), 36);
+    }
+
+    /**
+     * Instante atual em ISO-8601, formatado uma vez por milissegundo e compartilhado entre as requisições
+     */
+    public String currentTimestamp() {
+        long now = clock.getAsLong();
+        CachedTimestamp cached = timestamp;
+        if (cached.epochMilli() != now) {
+            cached = new CachedTimestamp(now, Instant.ofEpochMilli(now).toString());
+            timestamp = cached;
+        }
+        return cached.formatted();
+    }
+
+    public static String validIdOrElse(String candidate, String fallback) {
+        return candidate != null && VALID_ID.matcher(candidate).matches() ? candidate : fallback;
+    }
+
+    public static void bind(Ids ids) {
+        MDC.put(REQUEST_ID_MDC, ids.requestId());
+        MDC.put(CORRELATION_ID_MDC, ids.correlationId());
+    }
+
+    public static void clear() {
+        MDC.remove(REQUEST_ID_MDC);
+        MDC.remove(CORRELATION_ID_MDC);
+    }
+
+    /**
+     * Prefixo curto do nó: o final do hostname/ID do container é a parte que diferencia as réplicas
+     */
+    private static String normalizeNodeId(String nodeId) {
+        String normalized = nodeId == null ? "" : NODE_ID_INVALID_CHARS.matcher(nodeId.toLowerCase(Locale.ROOT)).replaceAll("");
+        if (normalized.isEmpty()) {
+            return Long.toString(new SecureRandom().nextLong() >>> 24, 36);
+        }
+        return normalized.length() > NODE_ID_MAX_LENGTH ? normalized.substring(normalized.length() - NODE_ID_MAX_LENGTH) : normalized;
+    }
+
+    public record Ids(String requestId, String correlationId) {
+    }
+
+    private record CachedTimestamp(long epochMilli, String formatted) {
+    }
+}
@@ -3,10 +3,13 @@ package com.packagetracking.query.config;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Configuration;
 
+/**
+ * As requisições HTTP rodam em threads virtuais via spring.threads.virtual.enabled (Tomcat e executores do Spring Boot).
+ * Desligue com SPRING_THREADS_VIRTUAL_ENABLED=false para voltar ao pool de threads de plataforma do Tomcat.
+ * A concorrência efetiva passa a ser limitada pelos pools Hikari do DatabaseRoutingConfig.
+ */
 @Configuration
 @Slf4j
 public class VirtualThreadConfig {
 
-    // Configuração removida - não há mais métodos assíncronos no package-query
-    
-} 
\ No newline at end of file
+}
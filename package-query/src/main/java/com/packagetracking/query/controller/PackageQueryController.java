@@ -1,15 +1,21 @@
 package com.packagetracking.query.controller;
 
 import com.packagetracking.query.dto.PackageResponse;
+import com.packagetracking.query.dto.PreSerializedPackageResponse;
 import com.packagetracking.query.service.PackageQueryService;
+import com.packagetracking.query.service.PackageStreamService;
+import com.packagetracking.query.service.TrackingEventJsonCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -23,12 +29,15 @@ import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/packages")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 @Slf4j
 @Tag(name = "Package Query", description = "APIs para consulta de pacotes e eventos de rastreamento")
 public class PackageQueryController {
     
     private final PackageQueryService packageQueryService;
+    private final PackageStreamService packageStreamService;
+    private final TrackingEventJsonCache trackingEventJsonCache;
     
     /**
      * Consulta detalhes de um pacote com opção de incluir eventos de rastreamento
@@ -60,6 +69,11 @@ public class PackageQueryController {
             // Usa o método com cache para pacotes IN_TRANSIT
             PackageResponse response = packageQueryService.getPackageWithCache(id, includeEventsValue);
             
+            // Lista de eventos já codificada: os bytes em cache são copiados para a resposta sem passar pelo Jackson
+            if (response.getEvents() != null) {
+                response = PreSerializedPackageResponse.of(response, trackingEventJsonCache.fragmentFor(id, response.getEvents()));
+            }
+            
             return ResponseEntity.ok()
                     .header("X-Package-ID", id)
                     .header("X-Include-Events", String.valueOf(includeEventsValue))
@@ -79,6 +93,49 @@ public class PackageQueryController {
         }
     }
 
+    /**
+     * Acompanha um pacote via Server-Sent Events, substituindo o polling de GET /api/packages/{id}
+     * 
+     * @param id ID do pacote
+     * @return Stream com o estado atual do pacote seguido de um evento a cada mudança de status ou novo evento de rastreamento
+     */
+    @Operation(
+        summary = "Acompanhar pacote em tempo real",
+        description = "Abre um stream SSE que envia o estado atual do pacote (evento 'snapshot') e, a cada mudança, " +
+                      "o pacote atualizado com os eventos de rastreamento (eventos PACKAGE_STATUS_CHANGED e TRACKING_EVENT_ADDED)"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream aberto"),
+        @ApiResponse(responseCode = "404", description = "Pacote não encontrado"),
+        @ApiResponse(responseCode = "503", description = "Limite de conexões de stream atingido")
+    })
+    @GetMapping(value = "/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamPackage(
+            @Parameter(description = "ID do pacote", example = "pacote-026fbedc")
+            @PathVariable String id) {
+        try {
+            log.info("Abrindo stream do pacote: {}", id);
+            return ResponseEntity.ok()
+                    .header("X-Package-ID", id)
+                    .header("Cache-Control", "no-store")
+                    .header("X-Accel-Buffering", "no")
+                    .body(packageStreamService.subscribe(id));
+        } catch (IllegalStateException e) {
+            log.warn("Stream do pacote {} recusado: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (RuntimeException e) {
+            String msg = e.getMessage();
+            Throwable cause = e.getCause();
+            if ((msg != null && msg.contains("não encontrado")) ||
+                (cause != null && cause.getMessage() != null && cause.getMessage().contains("não encontrado"))) {
+                log.warn("Pacote não encontrado: {}", id);
+                return ResponseEntity.notFound().build();
+            }
+            log.error("Erro interno ao abrir stream do pacote {}: {}", id, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * Consulta lista de pacotes com filtros opcionais de sender e recipient
      * 
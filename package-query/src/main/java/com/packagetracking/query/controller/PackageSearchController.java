@@ -0,0 +1,77 @@
+package com.packagetracking.query.controller;
+
+import com.packagetracking.query.dto.PackageResponse;
+import com.packagetracking.query.service.PackageSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/packages")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "app.search.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Package Search", description = "Busca textual de pacotes")
+public class PackageSearchController {
+
+    private final PackageSearchService packageSearchService;
+
+    /**
+     * Busca pacotes por descrição, remetente ou destinatário
+     *
+     * @param q Texto da busca; todos os termos precisam casar, por termo completo, prefixo ou com erro de digitação
+     * @param status Filtro opcional de status
+     * @param limit Quantidade máxima de resultados
+     * @return Pacotes em ordem de relevância (sem eventos)
+     */
+    @Operation(
+        summary = "Buscar pacotes por texto",
+        description = "Busca por descrição, remetente e destinatário, sem diferenciar acentos ou maiúsculas. " +
+                      "Aceita prefixos (\"eletr\") e erros de digitação (\"eletronicos\" ~ \"eletrônicos\")"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Resultados em ordem de relevância",
+            content = @Content(schema = @Schema(implementation = PackageResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Consulta vazia ou status inválido"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<List<PackageResponse>> search(
+            @Parameter(description = "Texto da busca", example = "livros joao")
+            @RequestParam(required = false) String q,
+            @Parameter(description = "Filtro por status", example = "IN_TRANSIT")
+            @RequestParam(required = false) String status,
+            @Parameter(description = "Quantidade máxima de resultados", example = "20")
+            @RequestParam(required = false) Integer limit) {
+        try {
+            List<PackageResponse> response = packageSearchService.search(q, status, limit);
+
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(response.size()))
+                    .header("Cache-Control", "no-store")
+                    .body(response);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            log.error("Erro interno na busca de pacotes: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.packagetracking.query.controller;
+
+import com.packagetracking.query.dto.PackageResponse;
+import com.packagetracking.query.service.ReactivePackageQueryService;
+import io.swagger.v3.oas.annotations.Parameter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Mesmo contrato do PackageQueryController para o modo reativo (spring.main.web-application-type=reactive)
+ */
+@RestController
+@RequestMapping("/api/packages")
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePackageQueryController {
+
+    private final ReactivePackageQueryService packageQueryService;
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<PackageResponse>> getPackage(
+            @Parameter(description = "ID do pacote", example = "pacote-026fbedc")
+            @PathVariable String id,
+            @Parameter(description = "Incluir eventos de rastreamento", example = "true")
+            @RequestParam Optional<Boolean> includeEvents) {
+        boolean includeEventsValue = includeEvents.orElse(true);
+
+        return packageQueryService.getPackageWithCache(id, includeEventsValue)
+            .map(response -> ResponseEntity.ok()
+                .header("X-Package-ID", id)
+                .header("X-Include-Events", String.valueOf(includeEventsValue))
+                .header("Cache-Control", "public, max-age=300")
+                .header("ETag", "\"" + id + "-" + includeEventsValue + "\"")
+                .body(response))
+            .onErrorResume(RuntimeException.class, e -> {
+                if (e.getMessage() != null && e.getMessage().contains("não encontrado")) {
+                    log.warn("Pacote não encontrado: {}", id);
+                    return Mono.just(ResponseEntity.notFound().build());
+                }
+                log.error("Erro interno ao buscar pacote {}: {}", id, e.getMessage(), e);
+                return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+            });
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<List<PackageResponse>>> getPackages(
+            @Parameter(description = "Filtro por remetente", example = "Empresa Teste")
+            @RequestParam Optional<String> sender,
+            @Parameter(description = "Filtro por destinatário", example = "João Silva")
+            @RequestParam Optional<String> recipient) {
+        return packageQueryService.getPackages(sender.orElse(null), recipient.orElse(null))
+            .collectList()
+            .map(response -> ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(response.size()))
+                .header("X-Sender-Filter", sender.orElse("none"))
+                .header("X-Recipient-Filter", recipient.orElse("none"))
+                .header("Cache-Control", "public, max-age=180")
+                .<List<PackageResponse>>body(response))
+            .onErrorResume(RuntimeException.class, e -> {
+                log.error("Erro interno ao buscar lista de pacotes: {}", e.getMessage(), e);
+                return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+            });
+    }
+}
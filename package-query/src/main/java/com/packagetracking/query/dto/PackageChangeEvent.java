@@ -0,0 +1,14 @@
+package com.packagetracking.query.dto;
+
+import java.time.Instant;
+
+/**
+ * Notificação de mudança recebida do exchange package.changes (publicada pelo outbox do package-command)
+ */
+public record PackageChangeEvent(
+    long sequence,
+    String type,
+    String packageId,
+    String status,
+    Instant occurredAt
+) {}
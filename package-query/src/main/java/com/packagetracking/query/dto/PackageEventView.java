@@ -0,0 +1,46 @@
+package com.packagetracking.query.dto;
+
+import com.packagetracking.query.entity.PackageStatus;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Linha do LEFT JOIN pacote x eventos projetada direto do result set. Os campos do evento são nulos
+ * quando o pacote não tem eventos
+ */
+public record PackageEventView(
+    String id,
+    String description,
+    String sender,
+    String recipient,
+    PackageStatus status,
+    Instant createdAt,
+    Instant updatedAt,
+    Instant deliveredAt,
+    String eventLocation,
+    String eventDescription,
+    LocalDateTime eventDate
+) {
+
+    public static final String SELECT =
+        "new com.packagetracking.query.dto.PackageEventView(p.id, p.description, p.sender, p.recipient, p.status, " +
+        "p.createdAt, p.updatedAt, p.deliveredAt, te.location, te.description, te.date)";
+
+    public PackageView packageView() {
+        return new PackageView(id, description, sender, recipient, status, createdAt, updatedAt, deliveredAt);
+    }
+
+    public boolean hasEvent() {
+        return eventDate != null;
+    }
+
+    public PackageResponse.TrackingEventResponse event() {
+        return PackageResponse.TrackingEventResponse.builder()
+            .pacoteId(id)
+            .localizacao(eventLocation)
+            .descricao(eventDescription)
+            .dataHora(eventDate)
+            .build();
+    }
+}
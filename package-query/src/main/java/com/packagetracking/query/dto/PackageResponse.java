@@ -2,6 +2,8 @@ package com.packagetracking.query.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.packagetracking.query.entity.Package;
+import com.packagetracking.query.entity.TrackingEvent;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -39,6 +41,43 @@ public class PackageResponse {
     
     private List<TrackingEventResponse> events;
     
+    /**
+     * Cópia rasa dos campos, usada pelas especializações de serialização
+     */
+    protected PackageResponse(PackageResponse source) {
+        this(source.id, source.description, source.sender, source.recipient, source.recipientAddress, source.weight,
+             source.status, source.estimatedDeliveryDate, source.funFact, source.isHoliday, source.createdAt,
+             source.updatedAt, source.deliveredAt, source.events);
+    }
+    
+    /**
+     * Monta a resposta a partir das entidades; events nulo omite a lista de eventos
+     */
+    public static PackageResponse from(Package packageEntity, List<TrackingEvent> events) {
+        PackageResponseBuilder responseBuilder = PackageResponse.builder()
+            .id(packageEntity.getId())
+            .description(packageEntity.getDescription())
+            .sender(packageEntity.getSender())
+            .recipient(packageEntity.getRecipient())
+            .status(packageEntity.getStatus() != null ? packageEntity.getStatus().name() : "UNKNOWN")
+            .createdAt(packageEntity.getCreatedAt())
+            .updatedAt(packageEntity.getUpdatedAt())
+            .deliveredAt(packageEntity.getDeliveredAt());
+        
+        if (events != null) {
+            responseBuilder.events(events.stream()
+                .map(event -> TrackingEventResponse.builder()
+                    .pacoteId(event.getPackageId())
+                    .localizacao(event.getLocation())
+                    .descricao(event.getDescription())
+                    .dataHora(event.getDate())
+                    .build())
+                .toList());
+        }
+        
+        return responseBuilder.build();
+    }
+    
     @Data
     @Builder
     @NoArgsConstructor
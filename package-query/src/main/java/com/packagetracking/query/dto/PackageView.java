@@ -0,0 +1,43 @@
+package com.packagetracking.query.dto;
+
+import com.packagetracking.query.entity.PackageStatus;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Projeção de leitura do pacote: preenchida direto do result set por expressão construtora JPQL,
+ * sem entidade gerenciada, snapshot de dirty checking ou proxy no contexto de persistência
+ */
+public record PackageView(
+    String id,
+    String description,
+    String sender,
+    String recipient,
+    PackageStatus status,
+    Instant createdAt,
+    Instant updatedAt,
+    Instant deliveredAt
+) {
+
+    public static final String SELECT =
+        "new com.packagetracking.query.dto.PackageView(p.id, p.description, p.sender, p.recipient, p.status, " +
+        "p.createdAt, p.updatedAt, p.deliveredAt)";
+
+    /**
+     * Monta a resposta; events nulo omite a lista de eventos
+     */
+    public PackageResponse toResponse(List<PackageResponse.TrackingEventResponse> events) {
+        return PackageResponse.builder()
+            .id(id)
+            .description(description)
+            .sender(sender)
+            .recipient(recipient)
+            .status(status != null ? status.name() : "UNKNOWN")
+            .createdAt(createdAt)
+            .updatedAt(updatedAt)
+            .deliveredAt(deliveredAt)
+            .events(events)
+            .build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.packagetracking.query.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.util.NameTransformer;
+import lombok.EqualsAndHashCode;
+
+import java.io.IOException;
+
+/**
+ * PackageResponse cuja lista de eventos já está codificada em JSON: os campos do pacote passam pelo serializer
+ * normal do Jackson e os bytes dos eventos são copiados direto para a saída, sem serializar evento a evento.
+ * getEvents() continua disponível para quem usa o objeto em memória.
+ */
+@EqualsAndHashCode(callSuper = true)
+public class PreSerializedPackageResponse extends PackageResponse implements JsonSerializable {
+
+    private static final String EVENTS_FIELD = "events";
+
+    private final transient SerializableString eventsJson;
+
+    private PreSerializedPackageResponse(PackageResponse source, SerializableString eventsJson) {
+        super(source);
+        this.eventsJson = eventsJson;
+    }
+
+    /**
+     * Retorna a própria resposta quando não há fragmento, para que a serialização padrão seja usada
+     */
+    public static PackageResponse of(PackageResponse source, SerializableString eventsJson) {
+        if (eventsJson == null || source.getEvents() == null) {
+            return source;
+        }
+        return new PreSerializedPackageResponse(source, eventsJson);
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        PackageResponse head = new PackageResponse(this);
+        head.setEvents(null);
+
+        JsonSerializer<Object> fieldsSerializer = serializers.findValueSerializer(PackageResponse.class)
+            .unwrappingSerializer(NameTransformer.NOP);
+
+        gen.writeStartObject(this);
+        fieldsSerializer.serialize(head, gen, serializers);
+        gen.writeFieldName(EVENTS_FIELD);
+        gen.writeRawValue(eventsJson);
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer) throws IOException {
+        // Usado apenas na resposta HTTP; caches gravam o PackageResponse original
+        serialize(gen, serializers);
+    }
+}
@@ -1,5 +1,6 @@
 package com.packagetracking.query.entity;
 
+import com.packagetracking.query.util.LookupHash;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -10,10 +11,14 @@ import java.time.Instant;
 
 @Entity
 @Table(name = "packages", indexes = {
-    @Index(name = "idx_sender", columnList = "sender"),
-    @Index(name = "idx_recipient", columnList = "recipient"),
-    @Index(name = "idx_status", columnList = "status"),
-    @Index(name = "idx_createdAt", columnList = "createdAt")
+    @Index(name = "idx_package_sender_lookup", columnList = "sender_hash, recipient_hash, createdAt"),
+    @Index(name = "idx_package_recipient_lookup", columnList = "recipient_hash, createdAt"),
+    @Index(name = "idx_package_sender_created", columnList = "sender, createdAt"),
+    @Index(name = "idx_package_recipient_created", columnList = "recipient, createdAt"),
+    @Index(name = "idx_package_createdAt", columnList = "createdAt"),
+    @Index(name = "idx_package_status_updated", columnList = "status, updatedAt"),
+    @Index(name = "idx_package_updated", columnList = "updatedAt"),
+    @Index(name = "idx_package_status_created", columnList = "status, createdAt")
 })
 @Data
 @Builder
@@ -33,6 +38,15 @@ public class Package {
     @Column(nullable = false, length = 200)
     private String recipient;
     
+    /**
+     * Chaves de busca normalizadas (LookupHash) usadas nos filtros por remetente e destinatário
+     */
+    @Column(name = "sender_hash", columnDefinition = "binary(16)")
+    private byte[] senderHash;
+    
+    @Column(name = "recipient_hash", columnDefinition = "binary(16)")
+    private byte[] recipientHash;
+    
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
     private PackageStatus status;
@@ -45,4 +59,11 @@ public class Package {
     
     @Column(name = "deliveredAt")
     private Instant deliveredAt;
+
+    @PrePersist
+    @PreUpdate
+    void updateLookupHashes() {
+        senderHash = LookupHash.of(sender);
+        recipientHash = LookupHash.of(recipient);
+    }
 } 
\ No newline at end of file
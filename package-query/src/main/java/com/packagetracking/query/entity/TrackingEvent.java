@@ -10,8 +10,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "tracking_events", indexes = {
-    @Index(name = "idx_packageId", columnList = "packageId"),
-    @Index(name = "idx_date", columnList = "date")
+    @Index(name = "idx_tracking_package_date", columnList = "packageId, date"),
+    @Index(name = "idx_tracking_date", columnList = "date")
 })
 @Data
 @Builder
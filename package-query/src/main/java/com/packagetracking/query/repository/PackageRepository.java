@@ -1,5 +1,7 @@
 package com.packagetracking.query.repository;
 
+import com.packagetracking.query.dto.PackageEventView;
+import com.packagetracking.query.dto.PackageView;
 import com.packagetracking.query.entity.Package;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -9,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,17 +20,75 @@ public interface PackageRepository extends JpaRepository<Package, String> {
     
     Optional<Package> findById(String id);
     
-    List<Package> findBySender(String sender);
-    List<Package> findByRecipient(String recipient);
-    List<Package> findBySenderAndRecipient(String sender, String recipient);
-    @Query(value = "SELECT p.* FROM packages p WHERE (:sender IS NULL OR p.sender = :sender) AND (:recipient IS NULL OR p.recipient = :recipient) ORDER BY p.created_at DESC", nativeQuery = true)
-    Page<Package> findBySenderAndRecipient(@Param("sender") String sender, @Param("recipient") String recipient, Pageable pageable);
+    /**
+     * Projeções de leitura: o result set é mapeado direto para records, sem hidratar entidades
+     */
+    @Query("SELECT " + PackageView.SELECT + " FROM Package p WHERE p.id = :id")
+    Optional<PackageView> findViewById(@Param("id") String id);
     
-    @Query(value = "SELECT p.* FROM packages p WHERE p.sender = :sender ORDER BY p.created_at DESC", nativeQuery = true)
-    Page<Package> findBySender(@Param("sender") String sender, Pageable pageable);
+    /**
+     * Pacote e eventos em uma única consulta: uma linha por evento, do mais recente ao mais antigo.
+     * Pacote sem eventos retorna uma linha sem evento; pacote inexistente, lista vazia
+     */
+    @Query("SELECT " + PackageEventView.SELECT + " FROM Package p LEFT JOIN TrackingEvent te ON te.packageId = p.id " +
+           "WHERE p.id = :id ORDER BY te.date DESC")
+    List<PackageEventView> findViewWithEventsById(@Param("id") String id);
     
-    @Query(value = "SELECT p.* FROM packages p WHERE p.recipient = :recipient ORDER BY p.created_at DESC", nativeQuery = true)
-    Page<Package> findByRecipient(@Param("recipient") String recipient, Pageable pageable);
+    /**
+     * Filtros por remetente/destinatário comparam a chave normalizada (LookupHash.of), não o texto livre.
+     * Usam idx_package_sender_lookup (sender_hash, recipient_hash, createdAt) e idx_package_recipient_lookup
+     */
+    @Query("SELECT " + PackageView.SELECT + " FROM Package p WHERE p.senderHash = :senderHash")
+    List<PackageView> findViewsBySender(@Param("senderHash") byte[] senderHash);
+    
+    @Query("SELECT " + PackageView.SELECT + " FROM Package p WHERE p.recipientHash = :recipientHash")
+    List<PackageView> findViewsByRecipient(@Param("recipientHash") byte[] recipientHash);
+    
+    @Query("SELECT " + PackageView.SELECT + " FROM Package p WHERE p.senderHash = :senderHash AND p.recipientHash = :recipientHash")
+    List<PackageView> findViewsBySenderAndRecipient(@Param("senderHash") byte[] senderHash, @Param("recipientHash") byte[] recipientHash);
+    
+    @Query("SELECT " + PackageView.SELECT + " FROM Package p")
+    List<PackageView> findAllViews();
+    
+    @Query(value = "SELECT " + PackageView.SELECT + " FROM Package p", countQuery = "SELECT COUNT(p) FROM Package p")
+    Page<PackageView> findViewPage(Pageable pageable);
+    
+    @Query(value = "SELECT " + PackageView.SELECT + " FROM Package p WHERE p.senderHash = :senderHash",
+           countQuery = "SELECT COUNT(p) FROM Package p WHERE p.senderHash = :senderHash")
+    Page<PackageView> findViewPageBySender(@Param("senderHash") byte[] senderHash, Pageable pageable);
+    
+    @Query(value = "SELECT " + PackageView.SELECT + " FROM Package p WHERE p.recipientHash = :recipientHash",
+           countQuery = "SELECT COUNT(p) FROM Package p WHERE p.recipientHash = :recipientHash")
+    Page<PackageView> findViewPageByRecipient(@Param("recipientHash") byte[] recipientHash, Pageable pageable);
+    
+    @Query(value = "SELECT " + PackageView.SELECT + " FROM Package p WHERE p.senderHash = :senderHash AND p.recipientHash = :recipientHash",
+           countQuery = "SELECT COUNT(p) FROM Package p WHERE p.senderHash = :senderHash AND p.recipientHash = :recipientHash")
+    Page<PackageView> findViewPageBySenderAndRecipient(@Param("senderHash") byte[] senderHash, @Param("recipientHash") byte[] recipientHash, Pageable pageable);
+    
+    /**
+     * Hidrata os resultados da busca textual pela PK
+     */
+    @Query("SELECT " + PackageView.SELECT + " FROM Package p WHERE p.id IN :ids")
+    List<PackageView> findViewsByIds(@Param("ids") Collection<String> ids);
+    
+    /**
+     * Varredura incremental do índice de busca: pacotes alterados depois de (updatedAt, id), em ordem de alteração
+     */
+    @Query("SELECT " + PackageView.SELECT + " FROM Package p " +
+           "WHERE p.updatedAt >= :updatedAt AND (p.updatedAt > :updatedAt OR p.id > :id) ORDER BY p.updatedAt, p.id")
+    List<PackageView> findViewsUpdatedAfter(@Param("updatedAt") Instant updatedAt, @Param("id") String id, Pageable pageable);
+    
+    List<Package> findBySenderHash(byte[] senderHash);
+    List<Package> findByRecipientHash(byte[] recipientHash);
+    List<Package> findBySenderHashAndRecipientHash(byte[] senderHash, byte[] recipientHash);
+    @Query(value = "SELECT p.* FROM packages p WHERE (:senderHash IS NULL OR p.sender_hash = :senderHash) AND (:recipientHash IS NULL OR p.recipient_hash = :recipientHash) ORDER BY p.created_at DESC", nativeQuery = true)
+    Page<Package> findBySenderAndRecipient(@Param("senderHash") byte[] senderHash, @Param("recipientHash") byte[] recipientHash, Pageable pageable);
+    
+    @Query(value = "SELECT p.* FROM packages p WHERE p.sender_hash = :senderHash ORDER BY p.created_at DESC", nativeQuery = true)
+    Page<Package> findBySender(@Param("senderHash") byte[] senderHash, Pageable pageable);
+    
+    @Query(value = "SELECT p.* FROM packages p WHERE p.recipient_hash = :recipientHash ORDER BY p.created_at DESC", nativeQuery = true)
+    Page<Package> findByRecipient(@Param("recipientHash") byte[] recipientHash, Pageable pageable);
     
     @Query(value = "SELECT p.* FROM packages p WHERE p.status = :status ORDER BY p.updated_at DESC", nativeQuery = true)
     Page<Package> findByStatus(@Param("status") String status, Pageable pageable);
@@ -41,9 +102,9 @@ public interface PackageRepository extends JpaRepository<Package, String> {
     @Query(value = "SELECT p.* FROM packages p WHERE p.estimated_delivery_date BETWEEN :startDate AND :endDate ORDER BY p.estimated_delivery_date ASC", nativeQuery = true)
     Page<Package> findByEstimatedDeliveryDateRange(@Param("startDate") Instant startDate, @Param("endDate") Instant endDate, Pageable pageable);
     
-    @Query(value = "SELECT p.* FROM packages p WHERE p.sender = :sender AND p.status = :status ORDER BY p.created_at DESC", nativeQuery = true)
-    Page<Package> findBySenderAndStatus(@Param("sender") String sender, @Param("status") String status, Pageable pageable);
+    @Query(value = "SELECT p.* FROM packages p WHERE p.sender_hash = :senderHash AND p.status = :status ORDER BY p.created_at DESC", nativeQuery = true)
+    Page<Package> findBySenderAndStatus(@Param("senderHash") byte[] senderHash, @Param("status") String status, Pageable pageable);
     
-    @Query(value = "SELECT p.* FROM packages p WHERE p.recipient = :recipient AND p.status = :status ORDER BY p.created_at DESC", nativeQuery = true)
-    Page<Package> findByRecipientAndStatus(@Param("recipient") String recipient, @Param("status") String status, Pageable pageable);
+    @Query(value = "SELECT p.* FROM packages p WHERE p.recipient_hash = :recipientHash AND p.status = :status ORDER BY p.created_at DESC", nativeQuery = true)
+    Page<Package> findByRecipientAndStatus(@Param("recipientHash") byte[] recipientHash, @Param("status") String status, Pageable pageable);
 } 
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.packagetracking.query.repository;
+
+import com.packagetracking.query.entity.Package;
+import com.packagetracking.query.entity.PackageStatus;
+import com.packagetracking.query.entity.TrackingEvent;
+import com.packagetracking.query.util.LookupHash;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Consultas R2DBC da variante reativa. Mesmas tabelas e colunas das entidades JPA, lidas sem Hibernate
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePackageQueryRepository {
+
+    private static final String PACKAGE_COLUMNS =
+        "p.id, p.description, p.sender, p.recipient, p.status, p.created_at, p.updated_at, p.delivered_at";
+
+    private final DatabaseClient reactiveDatabaseClient;
+
+    public Mono<Package> findById(String id) {
+        return reactiveDatabaseClient.sql("SELECT " + PACKAGE_COLUMNS + " FROM packages p WHERE p.id = :id")
+            .bind("id", id)
+            .map(ReactivePackageQueryRepository::toPackage)
+            .one();
+    }
+
+    public Flux<TrackingEvent> findByPackageIdOrderByDateTimeDesc(String packageId) {
+        return reactiveDatabaseClient.sql("SELECT te.id, te.package_id, te.location, te.description, te.date " +
+                                          "FROM tracking_events te WHERE te.package_id = :packageId ORDER BY te.date DESC")
+            .bind("packageId", packageId)
+            .map(ReactivePackageQueryRepository::toTrackingEvent)
+            .all();
+    }
+
+    /**
+     * Filtra pela chave normalizada (LookupHash), como a variante JPA
+     */
+    public Flux<Package> findBySenderAndRecipient(String sender, String recipient) {
+        StringBuilder sql = new StringBuilder("SELECT " + PACKAGE_COLUMNS + " FROM packages p WHERE 1 = 1");
+        if (sender != null) {
+            sql.append(" AND p.sender_hash = :senderHash");
+        }
+        if (recipient != null) {
+            sql.append(" AND p.recipient_hash = :recipientHash");
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = reactiveDatabaseClient.sql(sql.toString());
+        if (sender != null) {
+            spec = spec.bind("senderHash", LookupHash.of(sender));
+        }
+        if (recipient != null) {
+            spec = spec.bind("recipientHash", LookupHash.of(recipient));
+        }
+        return spec.map(ReactivePackageQueryRepository::toPackage).all();
+    }
+
+    private static Package toPackage(Readable row) {
+        String status = row.get("status", String.class);
+        return Package.builder()
+            .id(row.get("id", String.class))
+            .description(row.get("description", String.class))
+            .sender(row.get("sender", String.class))
+            .recipient(row.get("recipient", String.class))
+            .status(status != null ? PackageStatus.valueOf(status) : null)
+            .createdAt(toInstant(row.get("created_at", LocalDateTime.class)))
+            .updatedAt(toInstant(row.get("updated_at", LocalDateTime.class)))
+            .deliveredAt(toInstant(row.get("delivered_at", LocalDateTime.class)))
+            .build();
+    }
+
+    private static TrackingEvent toTrackingEvent(Readable row) {
+        return TrackingEvent.builder()
+            .id(row.get("id", String.class))
+            .packageId(row.get("package_id", String.class))
+            .location(row.get("location", String.class))
+            .description(row.get("description", String.class))
+            .date(row.get("date", LocalDateTime.class))
+            .build();
+    }
+
+    // O banco grava em UTC (serverTimezone=UTC na URL JDBC do package-command)
+    private static Instant toInstant(LocalDateTime value) {
+        return value != null ? value.toInstant(ZoneOffset.UTC) : null;
+    }
+}
@@ -0,0 +1,61 @@
+package com.packagetracking.query.service;
+
+import com.packagetracking.query.dto.PackageChangeEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consome as notificações de mudança: invalida o cache do pacote (Redis e fragmentos JSON dos eventos), repassa a mudança aos assinantes de stream
+ * e, com a busca textual habilitada, reindexa o pacote
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "app.changes.enabled", havingValue = "true")
+public class PackageChangeListener {
+
+    static final String PACKAGES_CACHE = "packages-in-transit";
+
+    private final CacheManager cacheManager;
+    private final TrackingEventJsonCache trackingEventJsonCache;
+    private final PackageStreamService packageStreamService;
+    private final ObjectProvider<PackageSearchIndexer> packageSearchIndexer;
+
+    @RabbitListener(queues = "#{packageChangesQueue.name}")
+    public void onPackageChange(PackageChangeEvent change) {
+        log.debug("Mudança recebida - Pacote: {}, Tipo: {}, Sequência: {}", change.packageId(), change.type(), change.sequence());
+
+        evictCache(change.packageId());
+        trackingEventJsonCache.evict(change.packageId());
+        packageStreamService.publish(change);
+        packageSearchIndexer.ifAvailable(indexer -> reindex(indexer, change));
+    }
+
+    private void reindex(PackageSearchIndexer indexer, PackageChangeEvent change) {
+        try {
+            indexer.onPackageChange(change);
+        } catch (Exception e) {
+            // A varredura incremental do índice reprocessa o pacote
+            log.warn("Erro ao reindexar pacote {} na busca: {}", change.packageId(), e.getMessage());
+        }
+    }
+
+    private void evictCache(String packageId) {
+        try {
+            Cache cache = cacheManager.getCache(PACKAGES_CACHE);
+            if (cache != null) {
+                cache.evict(packageId + "-true");
+                cache.evict(packageId + "-false");
+            }
+        } catch (Exception e) {
+            // O TTL do cache continua como rede de segurança se o Redis estiver indisponível
+            log.warn("Erro ao invalidar cache do pacote {}: {}", packageId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.packagetracking.query.service;
+
+import com.packagetracking.query.config.DatabaseRoutingConfig;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Métricas do caminho de leitura por requisição: tempo de banco por rota (slave/master), linhas e eventos retornados,
+ * tempo de serialização e bytes da resposta. Os acertos de cache vêm do próprio cache
+ * (cache.gets para o Redis, package.events.json.cache para os fragmentos em memória)
+ */
+@Component
+public class PackageQueryMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary events;
+
+    public PackageQueryMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.events = DistributionSummary.builder("package.query.events")
+            .description("Eventos de rastreamento retornados por consulta de pacote")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Executa a consulta medindo o tempo de banco, com a rota que atendeu a conexão usada pela consulta.
+     * Com o LazyConnectionDataSourceProxy a conexão só é obtida no primeiro comando da transação,
+     * então a rota é lida depois da consulta
+     */
+    public <T> T timeDatabase(String operation, Supplier<T> query) {
+        long start = System.nanoTime();
+        try {
+            return query.get();
+        } finally {
+            Timer.builder("package.query.db")
+                .description("Tempo das consultas ao banco por operação e rota")
+                .tag("operation", operation)
+                .tag("route", currentRoute())
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordRows(String operation, int rows) {
+        DistributionSummary.builder("package.query.rows")
+            .description("Pacotes retornados por consulta de lista")
+            .tag("operation", operation)
+            .register(meterRegistry)
+            .record(rows);
+    }
+
+    public void recordEvents(int count) {
+        events.record(count);
+    }
+
+    /**
+     * Tempo de escrita do JSON da resposta e bytes gerados, pelo padrão de URI da requisição (baixa cardinalidade)
+     */
+    public void recordSerialization(String uri, long nanos, long bytes) {
+        Timer.builder("package.query.serialization")
+            .description("Tempo de serialização e escrita do corpo JSON da resposta")
+            .tag("uri", uri)
+            .register(meterRegistry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("package.query.response.bytes")
+            .description("Tamanho do corpo JSON da resposta")
+            .baseUnit("bytes")
+            .tag("uri", uri)
+            .register(meterRegistry)
+            .record(bytes);
+    }
+
+    private static String currentRoute() {
+        return DatabaseRoutingConfig.DatabaseRoutingDataSource.takeResolvedRoute().name().toLowerCase(Locale.ROOT);
+    }
+}
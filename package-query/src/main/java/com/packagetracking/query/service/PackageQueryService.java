@@ -1,23 +1,22 @@
 package com.packagetracking.query.service;
 
+import com.packagetracking.query.dto.PackageEventView;
 import com.packagetracking.query.dto.PackageResponse;
-import com.packagetracking.query.entity.Package;
+import com.packagetracking.query.dto.PackageView;
 import com.packagetracking.query.entity.PackageStatus;
-import com.packagetracking.query.entity.TrackingEvent;
 import com.packagetracking.query.repository.PackageRepository;
-import com.packagetracking.query.repository.TrackingEventRepository;
+import com.packagetracking.query.util.LookupHash;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -26,7 +25,7 @@ import java.util.stream.Collectors;
 public class PackageQueryService {
     
     private final PackageRepository packageRepository;
-    private final TrackingEventRepository trackingEventRepository;
+    private final PackageQueryMetrics packageQueryMetrics;
     
     /**
      * Busca pacote por ID com opção de incluir eventos
@@ -37,13 +36,10 @@ public class PackageQueryService {
         try {
             log.info("Buscando pacote: {} (incluir eventos: {})", id, includeEvents);
             
-            Package packageEntity = packageRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Pacote não encontrado: " + id));
-            
-            PackageResponse response = buildPackageResponse(packageEntity, includeEvents);
+            PackageResponse response = loadPackageResponse(id, includeEvents);
             
             // Cache apenas para pacotes IN_TRANSIT
-            if (packageEntity.getStatus() == PackageStatus.IN_TRANSIT) {
+            if (PackageStatus.IN_TRANSIT.name().equals(response.getStatus())) {
                 log.debug("Pacote {} com status IN_TRANSIT será cacheado", id);
             }
             
@@ -73,10 +69,7 @@ public class PackageQueryService {
         
         // Tenta buscar do banco sem cache
         try {
-            Package packageEntity = packageRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Pacote não encontrado: " + id));
-            
-            return buildPackageResponse(packageEntity, includeEvents);
+            return loadPackageResponse(id, includeEvents);
         } catch (Exception fallbackException) {
             log.error("Erro no fallback para pacote {}: {}", id, fallbackException.getMessage());
             throw new RuntimeException("Erro interno do sistema", fallbackException);
@@ -87,26 +80,27 @@ public class PackageQueryService {
     
     /**
      * Busca lista de pacotes com filtros
-     * Sem cache para listas
+     * Sem cache para listas. Remetente e destinatário são comparados pela chave normalizada
+     * (sem diferenciar maiúsculas nem espaços extras)
      */
     public List<PackageResponse> getPackages(String sender, String recipient) {
         try {
             log.info("Buscando pacotes - sender: {}, recipient: {}", sender, recipient);
             
-            List<Package> packages;
-            
-            if (sender != null && recipient != null) {
-                packages = packageRepository.findBySenderAndRecipient(sender, recipient);
-            } else if (sender != null) {
-                packages = packageRepository.findBySender(sender);
-            } else if (recipient != null) {
-                packages = packageRepository.findByRecipient(recipient);
-            } else {
-                packages = packageRepository.findAll();
-            }
+            List<PackageView> packages = packageQueryMetrics.timeDatabase("list", () -> {
+                if (sender != null && recipient != null) {
+                    return packageRepository.findViewsBySenderAndRecipient(LookupHash.of(sender), LookupHash.of(recipient));
+                } else if (sender != null) {
+                    return packageRepository.findViewsBySender(LookupHash.of(sender));
+                } else if (recipient != null) {
+                    return packageRepository.findViewsByRecipient(LookupHash.of(recipient));
+                }
+                return packageRepository.findAllViews();
+            });
+            packageQueryMetrics.recordRows("list", packages.size());
             
             return packages.stream()
-                .map(packageEntity -> buildPackageResponse(packageEntity, false))
+                .map(packageView -> packageView.toResponse(null))
                 .toList();
                 
         } catch (Exception e) {
@@ -118,31 +112,26 @@ public class PackageQueryService {
 
     
     /**
-     * Busca lista de pacotes paginada usando Spring Data JPA padrão
+     * Busca lista de pacotes paginada; os filtros vão para a consulta, então página e total refletem só os pacotes filtrados
      */
     public Page<PackageResponse> getPackagesPaginated(String sender, String recipient, Pageable pageable) {
         try {
             log.info("Buscando pacotes paginados - sender: {}, recipient: {}, page: {}, size: {}", 
                      sender, recipient, pageable.getPageNumber(), pageable.getPageSize());
             
-            // Usa a paginação padrão do Spring Data JPA
-            Page<Package> packages = packageRepository.findAll(pageable);
+            Page<PackageView> packages = packageQueryMetrics.timeDatabase("page", () -> {
+                if (sender != null && recipient != null) {
+                    return packageRepository.findViewPageBySenderAndRecipient(LookupHash.of(sender), LookupHash.of(recipient), pageable);
+                } else if (sender != null) {
+                    return packageRepository.findViewPageBySender(LookupHash.of(sender), pageable);
+                } else if (recipient != null) {
+                    return packageRepository.findViewPageByRecipient(LookupHash.of(recipient), pageable);
+                }
+                return packageRepository.findViewPage(pageable);
+            });
+            packageQueryMetrics.recordRows("page", packages.getNumberOfElements());
             
-            // Filtra os resultados se necessário
-            if (sender != null || recipient != null) {
-                List<Package> filteredPackages = packages.getContent().stream()
-                    .filter(pkg -> 
-                        (sender == null || pkg.getSender().equals(sender)) &&
-                        (recipient == null || pkg.getRecipient().equals(recipient))
-                    )
-                    .collect(Collectors.toList());
-                
-                // Reconstrói a página com os resultados filtrados
-                Page<Package> filteredPage = new PageImpl<>(filteredPackages, pageable, filteredPackages.size());
-                return filteredPage.map(packageEntity -> buildPackageResponse(packageEntity, false));
-            }
-            
-            Page<PackageResponse> responsePage = packages.map(packageEntity -> buildPackageResponse(packageEntity, false));
+            Page<PackageResponse> responsePage = packages.map(packageView -> packageView.toResponse(null));
             
             log.debug("Pacotes paginados encontrados: {} registros", responsePage.getContent().size());
             return responsePage;
@@ -156,36 +145,32 @@ public class PackageQueryService {
 
     
     /**
-     * Método auxiliar para construir PackageResponse
+     * Com eventos, pacote e eventos vêm de uma única consulta (LEFT JOIN): uma ida ao banco em vez de duas sequenciais.
+     * As linhas são projetadas direto em records, sem entidades no contexto de persistência
      */
-    private PackageResponse buildPackageResponse(Package packageEntity, boolean includeEvents) {
-        PackageResponse.PackageResponseBuilder responseBuilder = PackageResponse.builder()
-            .id(packageEntity.getId())
-            .description(packageEntity.getDescription())
-            .sender(packageEntity.getSender())
-            .recipient(packageEntity.getRecipient())
-            .status(packageEntity.getStatus() != null ? packageEntity.getStatus().name() : "UNKNOWN")
-            .createdAt(packageEntity.getCreatedAt())
-            .updatedAt(packageEntity.getUpdatedAt())
-            .deliveredAt(packageEntity.getDeliveredAt());
+    private PackageResponse loadPackageResponse(String id, boolean includeEvents) {
+        if (!includeEvents) {
+            PackageView packageView = packageQueryMetrics.timeDatabase("package", () -> packageRepository.findViewById(id))
+                .orElseThrow(() -> new RuntimeException("Pacote não encontrado: " + id));
+            log.debug("Pacote {} encontrado sem eventos", id);
+            return packageView.toResponse(null);
+        }
         
-        if (includeEvents) {
-            List<TrackingEvent> events = trackingEventRepository.findByPackageIdOrderByDateTimeDesc(packageEntity.getId());
-            List<PackageResponse.TrackingEventResponse> eventResponses = events.stream()
-                .map(event -> PackageResponse.TrackingEventResponse.builder()
-                    .pacoteId(event.getPackageId())
-                    .localizacao(event.getLocation())
-                    .descricao(event.getDescription())
-                    .dataHora(event.getDate())
-                    .build())
-                .collect(Collectors.toList());
-            
-            responseBuilder.events(eventResponses);
-            log.debug("Pacote {} encontrado com {} eventos", packageEntity.getId(), eventResponses.size());
-        } else {
-            log.debug("Pacote {} encontrado sem eventos", packageEntity.getId());
+        List<PackageEventView> rows = packageQueryMetrics.timeDatabase("package-with-events",
+            () -> packageRepository.findViewWithEventsById(id));
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Pacote não encontrado: " + id);
+        }
+        
+        List<PackageResponse.TrackingEventResponse> events = new ArrayList<>(rows.size());
+        for (PackageEventView row : rows) {
+            if (row.hasEvent()) {
+                events.add(row.event());
+            }
         }
         
-        return responseBuilder.build();
+        packageQueryMetrics.recordEvents(events.size());
+        log.debug("Pacote {} encontrado com {} eventos", id, events.size());
+        return rows.get(0).packageView().toResponse(events);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,285 @@
+package com.packagetracking.query.service;
+
+import com.packagetracking.query.config.PackageSearchProperties;
+import com.packagetracking.query.dto.PackageView;
+import com.packagetracking.query.entity.PackageStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.QueryTimeoutImpl;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Índice invertido (Lucene) sobre descrição, remetente e destinatário.
+ * Texto sem acentos e em minúsculas; cada termo da consulta casa por termo exato, prefixo ou distância de edição,
+ * com o status como filtro. Guarda só ID e status: o resultado é montado a partir do banco
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.enabled", havingValue = "true")
+@Slf4j
+public class PackageSearchIndex {
+
+    static final String ID = "id";
+    static final String STATUS = "status";
+    static final String DESCRIPTION = "description";
+    static final String SENDER = "sender";
+    static final String RECIPIENT = "recipient";
+
+    private static final String CHECKPOINT_UPDATED_AT = "checkpoint.updatedAt";
+    private static final String CHECKPOINT_ID = "checkpoint.id";
+
+    /** Remetente e destinatário são curtos e mais específicos que a descrição */
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(DESCRIPTION, 1.0f, SENDER, 2.0f, RECIPIENT, 2.0f);
+
+    private final PackageSearchProperties properties;
+    private final Analyzer analyzer;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    /**
+     * Posição da varredura incremental persistida junto com o commit do índice
+     */
+    public record Checkpoint(Instant updatedAt, String id) {}
+
+    public PackageSearchIndex(Directory packageSearchDirectory, PackageSearchProperties properties) throws IOException {
+        this.properties = properties;
+        this.analyzer = new FoldingAnalyzer();
+        this.writer = new IndexWriter(packageSearchDirectory,
+            new IndexWriterConfig(analyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    public void index(Collection<PackageView> packages) {
+        try {
+            for (PackageView packageView : packages) {
+                writer.updateDocument(new Term(ID, packageView.id()), toDocument(packageView));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao indexar pacotes", e);
+        }
+    }
+
+    public void delete(Collection<String> ids) {
+        try {
+            writer.deleteDocuments(ids.stream().map(id -> new Term(ID, id)).toArray(Term[]::new));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao remover pacotes do índice", e);
+        }
+    }
+
+    /**
+     * Grava as alterações pendentes em disco junto com o checkpoint da varredura
+     */
+    public void commit(Checkpoint checkpoint) {
+        try {
+            writer.setLiveCommitData(Map.of(
+                CHECKPOINT_UPDATED_AT, checkpoint.updatedAt().toString(),
+                CHECKPOINT_ID, checkpoint.id()).entrySet());
+            writer.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao gravar o índice de busca", e);
+        }
+    }
+
+    public Optional<Checkpoint> checkpoint() {
+        try {
+            if (!DirectoryReader.indexExists(writer.getDirectory())) {
+                return Optional.empty();
+            }
+            Map<String, String> data = SegmentInfos.readLatestCommit(writer.getDirectory()).getUserData();
+            if (!data.containsKey(CHECKPOINT_UPDATED_AT)) {
+                return Optional.empty();
+            }
+            return Optional.of(new Checkpoint(Instant.parse(data.get(CHECKPOINT_UPDATED_AT)), data.get(CHECKPOINT_ID)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler o checkpoint do índice de busca", e);
+        }
+    }
+
+    /**
+     * Torna visíveis às buscas os documentos indexados desde a última abertura (near real-time, sem commit)
+     */
+    @Scheduled(fixedDelayString = "${app.search.refresh-interval-ms:1000}")
+    public void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.warn("Erro ao atualizar o leitor do índice de busca: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * IDs dos pacotes em ordem de relevância
+     */
+    public List<String> search(String text, PackageStatus status, int limit) {
+        Query query = buildQuery(text, status);
+        IndexSearcher shared = acquire();
+        try {
+            // Searcher próprio da requisição: o timeout é estado do searcher e o do SearcherManager é compartilhado
+            IndexSearcher searcher = new IndexSearcher(shared.getIndexReader());
+            searcher.setTimeout(new QueryTimeoutImpl(properties.getTimeout().toMillis()));
+            TopDocs topDocs = searcher.search(query, limit);
+            if (searcher.timedOut()) {
+                log.warn("Busca excedeu {} ms, retornando resultados parciais - Consulta: {}", properties.getTimeout().toMillis(), text);
+            }
+
+            List<String> ids = new ArrayList<>(topDocs.scoreDocs.length);
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                ids.add(searcher.storedFields().document(scoreDoc.doc).get(ID));
+            }
+            return ids;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao consultar o índice de busca", e);
+        } finally {
+            release(shared);
+        }
+    }
+
+    /**
+     * Todos os termos precisam casar (AND), cada um em qualquer dos campos.
+     * Termo exato pesa mais que prefixo, que pesa mais que a correspondência aproximada
+     */
+    Query buildQuery(String text, PackageStatus status) {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Consulta de busca sem termos");
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms.subList(0, Math.min(terms.size(), properties.getMaxTerms()))) {
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+            FIELD_BOOSTS.forEach((field, boost) -> {
+                Term fieldTerm = new Term(field, term);
+                anyField.add(new BoostQuery(new TermQuery(fieldTerm), 3.0f * boost), BooleanClause.Occur.SHOULD);
+                if (term.length() >= properties.getMinPrefixLength()) {
+                    anyField.add(new BoostQuery(new PrefixQuery(fieldTerm), 2.0f * boost), BooleanClause.Occur.SHOULD);
+                }
+                if (term.length() >= 4) {
+                    // Prefixo de 1 caractere exato e no máximo 50 expansões limitam o custo da busca aproximada
+                    int maxEdits = term.length() >= 8 ? 2 : 1;
+                    anyField.add(new BoostQuery(new FuzzyQuery(fieldTerm, maxEdits, 1, 50, true), boost), BooleanClause.Occur.SHOULD);
+                }
+            });
+            query.add(anyField.build(), BooleanClause.Occur.MUST);
+        }
+        if (status != null) {
+            query.add(new TermQuery(new Term(STATUS, status.name())), BooleanClause.Occur.FILTER);
+        }
+        return query.build();
+    }
+
+    List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        try (TokenStream stream = analyzer.tokenStream(DESCRIPTION, text)) {
+            CharTermAttribute termAttribute = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(termAttribute.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao analisar a consulta de busca", e);
+        }
+        return terms;
+    }
+
+    private static Document toDocument(PackageView packageView) {
+        Document document = new Document();
+        document.add(new StringField(ID, packageView.id(), Field.Store.YES));
+        if (packageView.status() != null) {
+            document.add(new StringField(STATUS, packageView.status().name(), Field.Store.NO));
+        }
+        addText(document, DESCRIPTION, packageView.description());
+        addText(document, SENDER, packageView.sender());
+        addText(document, RECIPIENT, packageView.recipient());
+        return document;
+    }
+
+    private static void addText(Document document, String field, String value) {
+        if (value != null) {
+            document.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    private IndexSearcher acquire() {
+        try {
+            return searcherManager.acquire();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao abrir o índice de busca", e);
+        }
+    }
+
+    private void release(IndexSearcher searcher) {
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            log.warn("Erro ao liberar o leitor do índice de busca: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        analyzer.close();
+    }
+
+    /**
+     * Tokenização padrão, minúsculas e remoção de acentos: "João" e "joao" geram o mesmo termo
+     */
+    private static final class FoldingAnalyzer extends Analyzer {
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer tokenizer = new StandardTokenizer();
+            TokenStream stream = new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer));
+            return new TokenStreamComponents(tokenizer, stream);
+        }
+
+        @Override
+        protected TokenStream normalize(String fieldName, TokenStream in) {
+            return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+        }
+    }
+}
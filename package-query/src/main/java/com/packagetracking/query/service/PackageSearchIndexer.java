@@ -0,0 +1,78 @@
+package com.packagetracking.query.service;
+
+import com.packagetracking.query.config.PackageSearchProperties;
+import com.packagetracking.query.dto.PackageChangeEvent;
+import com.packagetracking.query.dto.PackageView;
+import com.packagetracking.query.repository.PackageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Mantém o PackageSearchIndex em dia com o banco.
+ * As notificações de mudança reindexam o pacote na hora; a varredura incremental por (updatedAt, id)
+ * constrói o índice na primeira subida e cobre mudanças perdidas (instância fora do ar, atraso da réplica)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "app.search.enabled", havingValue = "true")
+public class PackageSearchIndexer {
+
+    private final PackageRepository packageRepository;
+    private final PackageSearchIndex packageSearchIndex;
+    private final PackageSearchProperties properties;
+
+    /**
+     * Eventos de rastreamento não alteram campos indexados
+     */
+    public void onPackageChange(PackageChangeEvent change) {
+        if ("TRACKING_EVENT_ADDED".equals(change.type())) {
+            return;
+        }
+        // Pacote ainda ausente na réplica entra na próxima varredura
+        packageRepository.findViewById(change.packageId())
+            .ifPresent(packageView -> packageSearchIndex.index(List.of(packageView)));
+    }
+
+    /**
+     * Indexa em lotes os pacotes alterados desde o checkpoint (recuado pela margem configurada),
+     * gravando o índice e o novo checkpoint a cada lote
+     */
+    @Scheduled(fixedDelayString = "${app.search.catch-up-interval-ms:30000}")
+    public void catchUp() {
+        try {
+            PackageSearchIndex.Checkpoint checkpoint = packageSearchIndex.checkpoint()
+                .map(last -> new PackageSearchIndex.Checkpoint(last.updatedAt().minus(properties.getCatchUpOverlap()), ""))
+                .orElse(new PackageSearchIndex.Checkpoint(Instant.EPOCH, ""));
+
+            int indexed = 0;
+            List<PackageView> batch;
+            do {
+                batch = packageRepository.findViewsUpdatedAfter(checkpoint.updatedAt(), checkpoint.id(),
+                                                                 PageRequest.of(0, properties.getCatchUpBatchSize()));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                packageSearchIndex.index(batch);
+                PackageView last = batch.get(batch.size() - 1);
+                checkpoint = new PackageSearchIndex.Checkpoint(last.updatedAt(), last.id());
+                packageSearchIndex.commit(checkpoint);
+                indexed += batch.size();
+            } while (batch.size() == properties.getCatchUpBatchSize());
+
+            if (indexed > 0) {
+                packageSearchIndex.refresh();
+                log.info("Índice de busca atualizado - Pacotes: {}, Checkpoint: {}", indexed, checkpoint.updatedAt());
+            }
+        } catch (Exception e) {
+            log.error("Erro na varredura incremental do índice de busca: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.packagetracking.query.service;
+
+import com.packagetracking.query.config.PackageSearchProperties;
+import com.packagetracking.query.dto.PackageResponse;
+import com.packagetracking.query.dto.PackageView;
+import com.packagetracking.query.entity.PackageStatus;
+import com.packagetracking.query.repository.PackageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Busca textual: o índice devolve os IDs por relevância e o banco, os dados atuais dos pacotes (consulta pela PK)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+@ConditionalOnProperty(name = "app.search.enabled", havingValue = "true")
+public class PackageSearchService {
+
+    private final PackageSearchIndex packageSearchIndex;
+    private final PackageRepository packageRepository;
+    private final PackageSearchProperties properties;
+
+    public List<PackageResponse> search(String text, String status, Integer limit) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("O parâmetro 'q' é obrigatório");
+        }
+        PackageStatus statusFilter = parseStatus(status);
+        int maxResults = limit == null ? properties.getDefaultLimit() : Math.max(1, Math.min(limit, properties.getMaxLimit()));
+
+        log.info("Buscando pacotes - q: {}, status: {}, limite: {}", text, statusFilter, maxResults);
+        List<String> ids = packageSearchIndex.search(text, statusFilter, maxResults);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, PackageView> views = packageRepository.findViewsByIds(ids).stream()
+            .collect(Collectors.toMap(PackageView::id, Function.identity()));
+
+        List<PackageResponse> results = new ArrayList<>(ids.size());
+        List<String> purged = new ArrayList<>();
+        for (String id : ids) {
+            PackageView view = views.get(id);
+            if (view == null) {
+                purged.add(id);
+            } else if (statusFilter == null || view.status() == statusFilter) {
+                // Status já alterado no banco e ainda não reindexado fica de fora
+                results.add(view.toResponse(null));
+            }
+        }
+        // Remoções da limpeza de dados não geram notificação; saem do índice quando aparecem numa busca
+        if (!purged.isEmpty()) {
+            packageSearchIndex.delete(purged);
+        }
+        return results;
+    }
+
+    private static PackageStatus parseStatus(String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        try {
+            return PackageStatus.valueOf(status.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Status inválido: " + status);
+        }
+    }
+}
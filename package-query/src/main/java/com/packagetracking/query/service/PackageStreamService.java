@@ -0,0 +1,176 @@
+package com.packagetracking.query.service;
+
+import com.packagetracking.query.config.DatabaseRoutingConfig.DatabaseRoutingDataSource;
+import com.packagetracking.query.config.DatabaseRoutingConfig.DatabaseType;
+import com.packagetracking.query.dto.PackageChangeEvent;
+import com.packagetracking.query.dto.PackageResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assinaturas SSE por pacote. Cada conexão guarda apenas o SseEmitter, sem thread dedicada:
+ * a cada notificação de mudança o pacote é lido uma única vez e o envio para cada assinante
+ * roda em uma Virtual Thread, para que um cliente lento não atrase os demais.
+ */
+@Service
+@Slf4j
+public class PackageStreamService {
+
+    public static final String SNAPSHOT_EVENT = "snapshot";
+
+    private final PackageQueryService packageQueryService;
+    private final Executor sendExecutor;
+    private final long timeoutMs;
+    private final long heartbeatIntervalMs;
+    private final int maxSubscribers;
+
+    private final Map<String, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private ScheduledExecutorService heartbeatScheduler;
+
+    @Autowired
+    public PackageStreamService(PackageQueryService packageQueryService,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.stream.timeout-ms:1800000}") long timeoutMs,
+                                @Value("${app.stream.heartbeat-interval-ms:25000}") long heartbeatIntervalMs,
+                                @Value("${app.stream.max-subscribers:10000}") int maxSubscribers) {
+        this(packageQueryService, meterRegistry, Executors.newVirtualThreadPerTaskExecutor(),
+             timeoutMs, heartbeatIntervalMs, maxSubscribers);
+    }
+
+    PackageStreamService(PackageQueryService packageQueryService, MeterRegistry meterRegistry, Executor sendExecutor,
+                         long timeoutMs, long heartbeatIntervalMs, int maxSubscribers) {
+        this.packageQueryService = packageQueryService;
+        this.sendExecutor = sendExecutor;
+        this.timeoutMs = timeoutMs;
+        this.heartbeatIntervalMs = heartbeatIntervalMs;
+        this.maxSubscribers = maxSubscribers;
+
+        Gauge.builder("package.stream.subscribers", subscriberCount, AtomicInteger::get)
+            .description("Conexões SSE abertas acompanhando pacotes")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void startHeartbeat() {
+        if (heartbeatIntervalMs <= 0) {
+            return;
+        }
+        heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("package-stream-heartbeat").factory());
+        heartbeatScheduler.scheduleWithFixedDelay(this::sendHeartbeat, heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (heartbeatScheduler != null) {
+            heartbeatScheduler.shutdownNow();
+        }
+        if (sendExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+    }
+
+    /**
+     * Abre a assinatura e envia o estado atual do pacote como primeiro evento.
+     * Lança exceção se o pacote não existir ou se o limite de conexões da instância foi atingido.
+     */
+    public SseEmitter subscribe(String packageId) {
+        PackageResponse snapshot = packageQueryService.getPackageWithCache(packageId, true);
+
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new IllegalStateException("Limite de " + maxSubscribers + " assinaturas de pacotes atingido");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        subscribers.computeIfAbsent(packageId, id -> ConcurrentHashMap.newKeySet()).add(emitter);
+        emitter.onCompletion(() -> unsubscribe(packageId, emitter));
+        emitter.onTimeout(() -> unsubscribe(packageId, emitter));
+        emitter.onError(error -> unsubscribe(packageId, emitter));
+
+        send(packageId, emitter, SseEmitter.event().name(SNAPSHOT_EVENT).data(snapshot));
+        log.debug("Nova assinatura do pacote {} ({} conexões abertas)", packageId, subscriberCount.get());
+        return emitter;
+    }
+
+    /**
+     * Repassa uma mudança aos assinantes do pacote. Sem assinantes, não há leitura no banco.
+     * A notificação sai do command logo após o commit e a réplica pode ainda não ter a mudança,
+     * por isso o pacote é lido do master. Falhas na leitura não chegam ao listener: os assinantes
+     * recebem o estado na próxima mudança.
+     */
+    public void publish(PackageChangeEvent change) {
+        Set<SseEmitter> emitters = subscribers.get(change.packageId());
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+
+        PackageResponse current;
+        DatabaseRoutingDataSource.useForCurrentThread(DatabaseType.MASTER);
+        try {
+            current = packageQueryService.getPackage(change.packageId(), true);
+        } catch (Exception e) {
+            log.warn("Erro ao ler o pacote {} para os assinantes do stream: {}", change.packageId(), e.getMessage());
+            return;
+        } finally {
+            DatabaseRoutingDataSource.clearDatabaseType();
+        }
+
+        SseEmitter.SseEventBuilder event = SseEmitter.event()
+            .id(String.valueOf(change.sequence()))
+            .name(change.type())
+            .data(current);
+
+        for (SseEmitter emitter : emitters) {
+            sendExecutor.execute(() -> send(change.packageId(), emitter, event));
+        }
+    }
+
+    int subscriberCount(String packageId) {
+        Set<SseEmitter> emitters = subscribers.get(packageId);
+        return emitters != null ? emitters.size() : 0;
+    }
+
+    private void sendHeartbeat() {
+        subscribers.forEach((packageId, emitters) -> emitters.forEach(emitter ->
+            sendExecutor.execute(() -> send(packageId, emitter, SseEmitter.event().comment("keep-alive")))));
+    }
+
+    private void send(String packageId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (Exception e) {
+            // Conexão encerrada pelo cliente: remove já, sem esperar pelo callback do container
+            log.debug("Falha ao enviar para assinante do pacote {}: {}", packageId, e.getMessage());
+            unsubscribe(packageId, emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void unsubscribe(String packageId, SseEmitter emitter) {
+        subscribers.computeIfPresent(packageId, (id, emitters) -> {
+            if (emitters.remove(emitter)) {
+                subscriberCount.decrementAndGet();
+            }
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
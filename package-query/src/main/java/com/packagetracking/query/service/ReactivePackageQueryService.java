@@ -0,0 +1,87 @@
+package com.packagetracking.query.service;
+
+import com.packagetracking.query.dto.PackageResponse;
+import com.packagetracking.query.entity.PackageStatus;
+import com.packagetracking.query.repository.ReactivePackageQueryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Versão reativa do PackageQueryService. Pacote e eventos são consultados em paralelo (conexões distintas do pool)
+ * e o cache de pacotes IN_TRANSIT é o mesmo do modo servlet, inclusive a invalidação feita pelo PackageChangeListener.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePackageQueryService {
+
+    static final String CACHE_KEY_PREFIX = PackageChangeListener.PACKAGES_CACHE + "::";
+    private static final Duration CACHE_TTL = Duration.ofHours(1);
+
+    private final ReactivePackageQueryRepository packageQueryRepository;
+    private final ReactiveRedisTemplate<String, Object> reactivePackageCacheTemplate;
+
+    /**
+     * Busca pacote por ID com opção de incluir eventos
+     */
+    public Mono<PackageResponse> getPackage(String id, boolean includeEvents) {
+        log.info("Buscando pacote: {} (incluir eventos: {})", id, includeEvents);
+
+        Mono<PackageResponse> response = includeEvents
+            ? Mono.zip(packageQueryRepository.findById(id),
+                       packageQueryRepository.findByPackageIdOrderByDateTimeDesc(id).collectList(),
+                       PackageResponse::from)
+            : packageQueryRepository.findById(id).map(packageEntity -> PackageResponse.from(packageEntity, null));
+
+        // Mono.zip completa vazio quando o pacote não existe, mesmo que a consulta de eventos retorne linhas
+        return response
+            .switchIfEmpty(Mono.error(() -> new RuntimeException("Pacote não encontrado: " + id)))
+            .doOnError(e -> log.error("Erro ao buscar pacote {}: {}", id, e.getMessage()));
+    }
+
+    /**
+     * Método com cache para pacotes IN_TRANSIT. Falhas do Redis não impedem a consulta ao banco
+     */
+    public Mono<PackageResponse> getPackageWithCache(String id, boolean includeEvents) {
+        String key = CACHE_KEY_PREFIX + id + "-" + includeEvents;
+
+        Mono<PackageResponse> cached = reactivePackageCacheTemplate.opsForValue().get(key)
+            .ofType(PackageResponse.class)
+            .onErrorResume(e -> {
+                log.warn("Erro ao ler cache do pacote {}: {}", id, e.getMessage());
+                return Mono.empty();
+            });
+
+        return cached.switchIfEmpty(Mono.defer(() -> getPackage(id, includeEvents)
+            .flatMap(response -> cacheIfInTransit(key, response))));
+    }
+
+    /**
+     * Busca lista de pacotes com filtros, sem cache
+     */
+    public Flux<PackageResponse> getPackages(String sender, String recipient) {
+        log.info("Buscando pacotes - sender: {}, recipient: {}", sender, recipient);
+        return packageQueryRepository.findBySenderAndRecipient(sender, recipient)
+            .map(packageEntity -> PackageResponse.from(packageEntity, null));
+    }
+
+    private Mono<PackageResponse> cacheIfInTransit(String key, PackageResponse response) {
+        if (!PackageStatus.IN_TRANSIT.name().equals(response.getStatus())) {
+            return Mono.just(response);
+        }
+        return reactivePackageCacheTemplate.opsForValue().set(key, response, CACHE_TTL)
+            .onErrorResume(e -> {
+                log.warn("Erro ao gravar cache do pacote {}: {}", response.getId(), e.getMessage());
+                return Mono.just(false);
+            })
+            .thenReturn(response);
+    }
+}
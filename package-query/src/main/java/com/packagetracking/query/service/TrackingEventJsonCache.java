@@ -0,0 +1,100 @@
+package com.packagetracking.query.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.packagetracking.query.dto.PackageResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cache LRU da lista de eventos de um pacote já codificada em JSON (UTF-8), uma entrada por pacote.
+ * A entrada guarda a quantidade de eventos e um hash do conteúdo de todos eles: a lista muda por eventos novos
+ * e também pela limpeza de eventos antigos (DataCleanupService), então só a contagem não a identifica.
+ * Com fingerprint diferente o fragmento é refeito; o PackageChangeListener remove a entrada a cada mudança do pacote.
+ */
+@Component
+@Slf4j
+public class TrackingEventJsonCache {
+
+    private final ObjectWriter eventsWriter;
+    private final Map<String, Entry> fragments;
+    private final Counter hits;
+    private final Counter misses;
+
+    public TrackingEventJsonCache(ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.cache.event-json.max-entries:10000}") int maxEntries) {
+        this.eventsWriter = objectMapper.writerFor(new TypeReference<List<PackageResponse.TrackingEventResponse>>() {});
+        this.fragments = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+        this.hits = Counter.builder("package.events.json.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("package.events.json.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * Fragmento JSON da lista de eventos; nulo se a serialização falhar, caso em que a resposta segue o caminho padrão
+     */
+    public SerializableString fragmentFor(String packageId, List<PackageResponse.TrackingEventResponse> events) {
+        int eventCount = events.size();
+        long contentHash = contentHash(events);
+        Entry cached = fragments.get(packageId);
+        if (cached != null && cached.eventCount() == eventCount && cached.contentHash() == contentHash) {
+            hits.increment();
+            return cached.fragment();
+        }
+
+        misses.increment();
+        try {
+            SerializableString fragment = new SerializedString(eventsWriter.writeValueAsString(events));
+            // Codifica os bytes UTF-8 uma única vez, antes de compartilhar o fragmento entre requisições
+            fragment.asUnquotedUTF8();
+            fragments.put(packageId, new Entry(eventCount, contentHash, fragment));
+            return fragment;
+        } catch (JsonProcessingException e) {
+            log.warn("Erro ao pré-serializar eventos do pacote {}: {}", packageId, e.getMessage());
+            return null;
+        }
+    }
+
+    public void evict(String packageId) {
+        fragments.remove(packageId);
+    }
+
+    int size() {
+        return fragments.size();
+    }
+
+    /**
+     * Hash de 64 bits de todos os campos serializados, na ordem da lista; bem mais barato que a serialização que evita
+     */
+    private static long contentHash(List<PackageResponse.TrackingEventResponse> events) {
+        long hash = 1125899906842597L;
+        for (PackageResponse.TrackingEventResponse event : events) {
+            hash = 31 * hash + Objects.hashCode(event.getPacoteId());
+            hash = 31 * hash + Objects.hashCode(event.getLocalizacao());
+            hash = 31 * hash + Objects.hashCode(event.getDescricao());
+            hash = 31 * hash + Objects.hashCode(event.getDataHora());
+        }
+        return hash;
+    }
+
+    private record Entry(int eventCount, long contentHash, SerializableString fragment) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.packagetracking.query.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Utilitário para gerar a chave de busca de remetente e destinatário
+ */
+public class LookupHash {
+
+    public static final int LENGTH = 16;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /**
+     * Primeiros 16 bytes do SHA-256 do valor normalizado (espaços colapsados, NFC, minúsculas).
+     * Precisa gerar o mesmo resultado do backfill R__BackfillPackageLookupHashes do package-migration e do LookupHash do package-command.
+     */
+    public static byte[] of(String value) {
+        if (value == null) {
+            return null;
+        }
+        String collapsed = WHITESPACE.matcher(value.strip()).replaceAll(" ");
+        String normalized = Normalizer.normalize(collapsed, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+            return Arrays.copyOf(digest, LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
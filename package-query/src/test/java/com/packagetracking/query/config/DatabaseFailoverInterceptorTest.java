@@ -0,0 +1,70 @@
+package com.packagetracking.query.config;
+
+import com.packagetracking.query.config.DatabaseRoutingConfig.DatabaseRoutingDataSource;
+import com.packagetracking.query.config.DatabaseRoutingConfig.DatabaseType;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseFailoverInterceptorTest {
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    private final DatabaseFailoverInterceptor interceptor = new DatabaseFailoverInterceptor();
+
+    @AfterEach
+    void tearDown() {
+        DatabaseRoutingDataSource.clearDatabaseType();
+        DatabaseRoutingDataSource.setDatabaseType(DatabaseType.SLAVE);
+    }
+
+    @Test
+    void handleDatabaseFailover_ShouldRetryOnMasterOnlyForCurrentCall() throws Throwable {
+        AtomicReference<DatabaseType> typeOnRetry = new AtomicReference<>();
+        when(joinPoint.proceed())
+            .thenThrow(new DataAccessResourceFailureException("Slave indisponível"))
+            .thenAnswer(invocation -> {
+                typeOnRetry.set(DatabaseRoutingDataSource.getDatabaseType());
+                return "resultado";
+            });
+
+        Object result = interceptor.handleDatabaseFailover(joinPoint);
+
+        assertEquals("resultado", result);
+        assertEquals(DatabaseType.MASTER, typeOnRetry.get());
+        assertEquals(DatabaseType.SLAVE, DatabaseRoutingDataSource.getDatabaseType());
+    }
+
+    @Test
+    void handleDatabaseFailover_RetryFails_ShouldStillClearThreadRouting() throws Throwable {
+        when(joinPoint.proceed())
+            .thenThrow(new DataAccessResourceFailureException("Slave indisponível"))
+            .thenThrow(new DataAccessResourceFailureException("Master indisponível"));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> interceptor.handleDatabaseFailover(joinPoint));
+        assertEquals(DatabaseType.SLAVE, DatabaseRoutingDataSource.getDatabaseType());
+    }
+
+    @Test
+    void setDatabaseType_ShouldApplyToAllThreads() throws Exception {
+        DatabaseRoutingDataSource.setDatabaseType(DatabaseType.MASTER);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<DatabaseType> other = executor.submit(DatabaseRoutingDataSource::getDatabaseType);
+            assertEquals(DatabaseType.MASTER, other.get());
+        }
+    }
+}
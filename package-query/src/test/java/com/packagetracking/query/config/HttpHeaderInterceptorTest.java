@@ -0,0 +1,68 @@
+package com.packagetracking.query.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpHeaderInterceptorTest {
+
+    private static final long NOW = 1_790_000_000_123L;
+
+    private final HttpHeaderInterceptor interceptor = new HttpHeaderInterceptor(new RequestContext("query-7f9c2a", () -> NOW));
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    void preHandle_WithIncomingIds_ShouldReuseThemInMdcAndResponse() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/packages/pacote-12345");
+        request.addHeader(HttpHeaderInterceptor.REQUEST_ID_HEADER, "req-abc-123");
+        request.addHeader(HttpHeaderInterceptor.CORRELATION_ID_HEADER, "pedido-42");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(request, response, new Object()));
+
+        assertEquals("req-abc-123", MDC.get(RequestContext.REQUEST_ID_MDC));
+        assertEquals("pedido-42", MDC.get(RequestContext.CORRELATION_ID_MDC));
+        assertEquals("req-abc-123", response.getHeader(HttpHeaderInterceptor.REQUEST_ID_HEADER));
+        assertEquals("pedido-42", response.getHeader(HttpHeaderInterceptor.CORRELATION_ID_HEADER));
+
+        interceptor.afterCompletion(request, response, new Object(), null);
+        assertNull(MDC.get(RequestContext.REQUEST_ID_MDC));
+        assertNull(MDC.get(RequestContext.CORRELATION_ID_MDC));
+    }
+
+    @Test
+    void preHandle_WithInvalidIncomingId_ShouldGenerateAndCorrelateWithIt() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/packages");
+        request.addHeader(HttpHeaderInterceptor.REQUEST_ID_HEADER, "id\ninjetado no log");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, new Object());
+
+        String requestId = MDC.get(RequestContext.REQUEST_ID_MDC);
+        assertEquals("query7f9c2a-" + Long.toString(NOW / 1000, 36) + "-1", requestId);
+        assertEquals(requestId, MDC.get(RequestContext.CORRELATION_ID_MDC));
+        assertEquals(requestId, response.getHeader(HttpHeaderInterceptor.REQUEST_ID_HEADER));
+    }
+
+    @Test
+    void preHandle_ShouldSetStaticHeadersAndCachedTimestamp() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(new MockHttpServletRequest("GET", "/api/packages"), response, new Object());
+
+        assertEquals("2026-09-21T14:13:20.123Z", response.getHeader(HttpHeaderInterceptor.TIMESTAMP_HEADER));
+        assertEquals("package-query", response.getHeader("X-Service-Name"));
+        assertEquals("1.0", response.getHeader("X-API-Version"));
+        assertEquals("nosniff", response.getHeader("X-Content-Type-Options"));
+        assertEquals("DENY", response.getHeader("X-Frame-Options"));
+        assertEquals("1; mode=block", response.getHeader("X-XSS-Protection"));
+    }
+}
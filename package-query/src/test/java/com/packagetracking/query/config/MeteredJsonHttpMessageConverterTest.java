@@ -0,0 +1,60 @@
+package com.packagetracking.query.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.packagetracking.query.dto.PackageResponse;
+import com.packagetracking.query.service.PackageQueryMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MeteredJsonHttpMessageConverterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MeteredJsonHttpMessageConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        converter = new MeteredJsonHttpMessageConverter(new ObjectMapper(), new PackageQueryMetrics(meterRegistry));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void write_ShouldRecordSerializationTimeAndBytesByUriPattern() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/packages/pacote-12345");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/packages/{id}");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        converter.write(PackageResponse.builder().id("pacote-12345").status("IN_TRANSIT").build(),
+                        MediaType.APPLICATION_JSON, outputMessage);
+
+        int bodyLength = outputMessage.getBodyAsBytes().length;
+        assertTrue(bodyLength > 0);
+        assertEquals(1, meterRegistry.get("package.query.serialization").tag("uri", "/api/packages/{id}").timer().count());
+        assertEquals(bodyLength, meterRegistry.get("package.query.response.bytes").tag("uri", "/api/packages/{id}")
+            .summary().totalAmount());
+    }
+
+    @Test
+    void write_OutsideRequest_ShouldTagUnknownUri() throws IOException {
+        converter.write(PackageResponse.builder().id("pacote-12345").build(), MediaType.APPLICATION_JSON, new MockHttpOutputMessage());
+
+        assertEquals(1, meterRegistry.get("package.query.serialization").tag("uri", "UNKNOWN").timer().count());
+    }
+}
@@ -2,6 +2,8 @@ package com.packagetracking.query.controller;
 
 import com.packagetracking.query.dto.PackageResponse;
 import com.packagetracking.query.service.PackageQueryService;
+import com.packagetracking.query.service.PackageStreamService;
+import com.packagetracking.query.service.TrackingEventJsonCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,6 +16,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -31,6 +34,12 @@ class PackageQueryControllerTest {
     @Mock
     private PackageQueryService packageQueryService;
 
+    @Mock
+    private PackageStreamService packageStreamService;
+
+    @Mock
+    private TrackingEventJsonCache trackingEventJsonCache;
+
     @InjectMocks
     private PackageQueryController packageQueryController;
 
@@ -147,6 +156,37 @@ class PackageQueryControllerTest {
         verify(packageQueryService).getPackageWithCache("pacote-inexistente", true);
     }
 
+    @Test
+    void streamPackage_Success() {
+        SseEmitter emitter = new SseEmitter();
+        when(packageStreamService.subscribe("pacote-12345")).thenReturn(emitter);
+
+        ResponseEntity<SseEmitter> response = packageQueryController.streamPackage("pacote-12345");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(emitter, response.getBody());
+        assertEquals("no-store", response.getHeaders().getFirst("Cache-Control"));
+    }
+
+    @Test
+    void streamPackage_PackageNotFound_ReturnsNotFound() {
+        when(packageStreamService.subscribe("pacote-inexistente"))
+            .thenThrow(new RuntimeException("Erro ao buscar pacote", new RuntimeException("Pacote não encontrado: pacote-inexistente")));
+
+        ResponseEntity<SseEmitter> response = packageQueryController.streamPackage("pacote-inexistente");
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void streamPackage_SubscriberLimitReached_ReturnsServiceUnavailable() {
+        when(packageStreamService.subscribe("pacote-12345")).thenThrow(new IllegalStateException("Limite atingido"));
+
+        ResponseEntity<SseEmitter> response = packageQueryController.streamPackage("pacote-12345");
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    }
+
     @Test
     void getPackages_WithSenderFilter_Success() {
         // Given
@@ -183,6 +183,18 @@ class PackageQueryIntegrationTest {
             .andExpect(jsonPath("$[0].id").value("pacote-test-123"));
     }
 
+    @Test
+    void getPackages_WithDifferentCaseAndSpacing_MatchesNormalizedKey() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/packages")
+                .param("sender", "  LOJA   teste ")
+                .param("recipient", "cliente teste")
+                .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].sender").value("Loja Teste"));
+    }
+
     @Test
     void getPackages_WithoutFilters_Success() throws Exception {
         // When & Then
@@ -0,0 +1,45 @@
+package com.packagetracking.query.integration;
+
+import com.packagetracking.query.controller.PackageQueryController;
+import com.packagetracking.query.controller.ReactivePackageQueryController;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles("test")
+class ReactivePackageQueryContextTest {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    /**
+     * O pool R2DBC faz o DataSourceAutoConfiguration recuar; em produção os DataSources vêm do DatabaseRoutingConfig
+     */
+    @TestConfiguration
+    @EnableConfigurationProperties(DataSourceProperties.class)
+    static class H2DataSourceConfig {
+
+        @Bean
+        DataSource dataSource(DataSourceProperties properties) {
+            return properties.initializeDataSourceBuilder().build();
+        }
+    }
+
+    @Test
+    void reactiveStack_ShouldReplaceMvcController() {
+        assertEquals(1, applicationContext.getBeanNamesForType(ReactivePackageQueryController.class).length);
+        assertEquals(0, applicationContext.getBeanNamesForType(PackageQueryController.class).length);
+    }
+}
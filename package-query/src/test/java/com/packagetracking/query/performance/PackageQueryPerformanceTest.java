@@ -1,19 +1,34 @@
 package com.packagetracking.query.performance;
 
+import com.packagetracking.query.dto.PackageEventView;
 import com.packagetracking.query.dto.PackageResponse;
+import com.packagetracking.query.entity.Package;
+import com.packagetracking.query.entity.PackageStatus;
+import com.packagetracking.query.entity.TrackingEvent;
+import com.packagetracking.query.repository.PackageRepository;
+import com.packagetracking.query.repository.TrackingEventRepository;
 import com.packagetracking.query.service.PackageQueryService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -25,6 +40,108 @@ class PackageQueryPerformanceTest {
     @Autowired
     private PackageQueryService packageQueryService;
 
+    @Autowired
+    private PackageRepository packageRepository;
+
+    @Autowired
+    private TrackingEventRepository trackingEventRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void getPackage_EventHeavy_ProjectionAllocationBenchmark() {
+        // Given
+        String packageId = "pacote-benchmark-alocacao";
+        int eventCount = 500;
+        int iterations = 200;
+        seedPackageWithEvents(packageId, eventCount);
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        // When - mesmo LEFT JOIN hidratando entidades JPA que depois são copiadas para o DTO
+        long entityBytes = 0;
+        for (int i = 0; i < iterations; i++) {
+            entityManager.clear();
+            long before = threadMXBean.getThreadAllocatedBytes(threadId);
+            List<Object[]> rows = entityManager.createQuery(
+                    "SELECT p, te FROM Package p LEFT JOIN TrackingEvent te ON te.packageId = p.id WHERE p.id = :id ORDER BY te.date DESC",
+                    Object[].class)
+                .setParameter("id", packageId)
+                .getResultList();
+            PackageResponse result = PackageResponse.from((Package) rows.get(0)[0], rows.stream().map(row -> (TrackingEvent) row[1]).toList());
+            entityBytes += threadMXBean.getThreadAllocatedBytes(threadId) - before;
+            assertEquals(eventCount, result.getEvents().size());
+        }
+
+        // When - projeção em records
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        long projectionBytes = 0;
+        for (int i = 0; i < iterations; i++) {
+            entityManager.clear();
+            long before = threadMXBean.getThreadAllocatedBytes(threadId);
+            List<PackageEventView> rows = packageRepository.findViewWithEventsById(packageId);
+            PackageResponse result = rows.get(0).packageView().toResponse(rows.stream().map(PackageEventView::event).toList());
+            projectionBytes += threadMXBean.getThreadAllocatedBytes(threadId) - before;
+            assertEquals(eventCount, result.getEvents().size());
+        }
+
+        // Then
+        System.out.println("Benchmark - alocação por requisição (" + eventCount + " eventos):");
+        System.out.println("Entidades: " + entityBytes / iterations / 1024 + " KB");
+        System.out.println("Projeção: " + projectionBytes / iterations / 1024 + " KB");
+
+        long entitiesLoaded = statistics.getEntityLoadCount();
+        statistics.setStatisticsEnabled(false);
+
+        // H2 roda no mesmo processo: as duas medições incluem o custo do próprio banco para a mesma consulta
+        assertEquals(0, entitiesLoaded, "Projeção não deve hidratar entidades");
+        assertTrue(projectionBytes < entityBytes, "Projeção deveria alocar menos que a hidratação de entidades");
+    }
+
+    @Test
+    void getPackage_WithEvents_SingleRoundTripBenchmark() {
+        // Given
+        String packageId = "pacote-benchmark-detalhe";
+        int eventCount = 20;
+        int iterations = 500;
+        seedPackageWithEvents(packageId, eventCount);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        for (int i = 0; i < 50; i++) {
+            packageQueryService.getPackage(packageId, true);
+        }
+
+        // When
+        statistics.clear();
+        long[] latencies = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            PackageResponse result = packageQueryService.getPackage(packageId, true);
+            latencies[i] = System.nanoTime() - start;
+            assertEquals(eventCount, result.getEvents().size());
+        }
+        long statements = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+
+        // Then
+        Arrays.sort(latencies);
+        System.out.println("Benchmark - getPackage com eventos (" + eventCount + " eventos):");
+        System.out.println("p50: " + latencies[iterations / 2] / 1000 + "us");
+        System.out.println("p99: " + latencies[(int) (iterations * 0.99)] / 1000 + "us");
+        System.out.println("Consultas por requisição: " + (double) statements / iterations);
+
+        // Pacote e eventos chegam na mesma consulta: uma ida ao banco por detalhe
+        assertEquals(iterations, statements, "Detalhe do pacote deve executar uma única consulta");
+    }
+
     @Test
     void getPackage_WithEvents_PerformanceTest() {
         // Given
@@ -130,4 +247,27 @@ class PackageQueryPerformanceTest {
         
         executor.shutdown();
     }
+
+    private void seedPackageWithEvents(String packageId, int eventCount) {
+        packageRepository.save(Package.builder()
+            .id(packageId)
+            .description("Pacote de benchmark")
+            .sender("Loja Benchmark")
+            .recipient("Cliente Benchmark")
+            .status(PackageStatus.IN_TRANSIT)
+            .createdAt(Instant.parse("2025-01-20T10:00:00Z"))
+            .updatedAt(Instant.parse("2025-01-20T10:00:00Z"))
+            .build());
+
+        for (int i = 0; i < eventCount; i++) {
+            trackingEventRepository.save(TrackingEvent.builder()
+                .id(String.format("%032d", i))
+                .packageId(packageId)
+                .location("Centro de Distribuição " + i)
+                .description("Pacote em trânsito")
+                .date(LocalDateTime.parse("2025-01-20T11:00:00").plusMinutes(i))
+                .build());
+        }
+        packageRepository.flush();
+    }
 }
@@ -0,0 +1,187 @@
+package com.packagetracking.query.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.reflect.Method;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Aplica as migrações do package-migration em um H2 no modo MySQL, executa cada método declarado nos repositórios
+ * e confere, via EXPLAIN do SQL gerado pelo Hibernate, que ele usa o índice previsto.
+ * Método novo sem índice mapeado aqui falha o teste.
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:query-explain;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.flyway.enabled=true",
+    "spring.flyway.locations=filesystem:../package-migration/src/main/resources/db/migration",
+    "spring.flyway.placeholders.online_ddl=",
+    "spring.flyway.placeholders.instant_ddl=",
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.packagetracking.query.repository.QueryIndexUsageTest$RecordingStatementInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class QueryIndexUsageTest {
+
+    private static final Map<String, String> EXPECTED_INDEX = Map.ofEntries(
+        Map.entry("PackageRepository.findById/1", "primary_key"),
+        Map.entry("PackageRepository.findViewById/1", "primary_key"),
+        Map.entry("PackageRepository.findViewWithEventsById/1", "idx_tracking_package_date"),
+        Map.entry("PackageRepository.findViewsBySender/1", "idx_package_sender_lookup"),
+        Map.entry("PackageRepository.findViewsByRecipient/1", "idx_package_recipient_lookup"),
+        Map.entry("PackageRepository.findViewsBySenderAndRecipient/2", "idx_package_sender_lookup"),
+        Map.entry("PackageRepository.findViewPageBySender/2", "idx_package_sender_lookup"),
+        Map.entry("PackageRepository.findViewPageByRecipient/2", "idx_package_recipient_lookup"),
+        Map.entry("PackageRepository.findViewPageBySenderAndRecipient/3", "idx_package_sender_lookup"),
+        Map.entry("PackageRepository.findViewsByIds/1", "primary_key"),
+        Map.entry("PackageRepository.findViewsUpdatedAfter/3", "idx_package_updated"),
+        Map.entry("PackageRepository.findBySenderHash/1", "idx_package_sender_lookup"),
+        Map.entry("PackageRepository.findBySender/2", "idx_package_sender_lookup"),
+        Map.entry("PackageRepository.findByRecipientHash/1", "idx_package_recipient_lookup"),
+        Map.entry("PackageRepository.findByRecipient/2", "idx_package_recipient_lookup"),
+        Map.entry("PackageRepository.findBySenderHashAndRecipientHash/2", "idx_package_sender_lookup"),
+        Map.entry("PackageRepository.findByStatus/2", "idx_package_status_updated"),
+        Map.entry("PackageRepository.findOldPackagesByStatus/3", "idx_package_status_created"),
+        Map.entry("PackageRepository.countByStatus/1", "idx_package_status_"),
+        Map.entry("PackageRepository.findByEstimatedDeliveryDateRange/3", "idx_package_estimated_delivery"),
+        Map.entry("PackageRepository.findBySenderAndStatus/3", "idx_package_(sender_lookup|status_)"),
+        Map.entry("PackageRepository.findByRecipientAndStatus/3", "idx_package_(recipient_lookup|status_)"),
+        Map.entry("TrackingEventRepository.findByPackageIdOrderByDateTimeDesc/1", "idx_tracking_package_date"),
+        Map.entry("TrackingEventRepository.findByPackageIdOrderByDateTimeAsc/1", "idx_tracking_package_date"),
+        Map.entry("TrackingEventRepository.findByPackageIdWithPagination/2", "idx_tracking_package_date"),
+        Map.entry("TrackingEventRepository.findRecentEventsByPackageId/2", "idx_tracking_package_date"),
+        Map.entry("TrackingEventRepository.countByPackageId/1", "idx_tracking_package_date"),
+        Map.entry("TrackingEventRepository.findByDateRange/3", "idx_tracking_date"),
+        Map.entry("TrackingEventRepository.findOldEventsForCleanup/2", "idx_tracking_date")
+    );
+
+    /**
+     * Listagens completas leem a tabela inteira por definição. O filtro opcional via IS NULL do
+     * findBySenderAndRecipient paginado também impede o uso de índice; o serviço não o utiliza
+     */
+    private static final Set<String> FULL_SCAN_BY_DESIGN = Set.of(
+        "PackageRepository.findAllViews/0",
+        "PackageRepository.findViewPage/1",
+        "PackageRepository.findBySenderAndRecipient/3"
+    );
+
+    @Autowired
+    private PackageRepository packageRepository;
+
+    @Autowired
+    private TrackingEventRepository trackingEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        RecordingStatementInspector.STATEMENTS.clear();
+    }
+
+    static Stream<Method> repositoryMethods() {
+        return Stream.of(PackageRepository.class, TrackingEventRepository.class)
+            .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods()))
+            .filter(method -> !method.isDefault() && !method.isSynthetic());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryMethods")
+    void repositoryQuery_ShouldUseExpectedIndex(Method method) throws Exception {
+        String queryName = method.getDeclaringClass().getSimpleName() + "." + method.getName() + "/" + method.getParameterCount();
+        Object repository = method.getDeclaringClass() == PackageRepository.class ? packageRepository : trackingEventRepository;
+
+        method.invoke(repository, sampleArguments(method));
+        assertFalse(RecordingStatementInspector.STATEMENTS.isEmpty(), queryName + " não executou SQL");
+        String plan = explain(RecordingStatementInspector.STATEMENTS.get(0)).toLowerCase();
+
+        if (FULL_SCAN_BY_DESIGN.contains(queryName)) {
+            return;
+        }
+        String expectedIndex = EXPECTED_INDEX.get(queryName);
+        assertNotNull(expectedIndex, "Consulta sem índice mapeado: " + queryName);
+        assertTrue(Pattern.compile("/\\* public\\." + expectedIndex).matcher(plan).find(),
+                   queryName + " deveria usar " + expectedIndex + ", plano: " + plan);
+        assertFalse(plan.contains("tablescan"), queryName + " faz varredura completa, plano: " + plan);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((java.sql.Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                ParameterMetaData metaData = statement.getParameterMetaData();
+                for (int i = 1; i <= metaData.getParameterCount(); i++) {
+                    statement.setObject(i, sampleValue(metaData.getParameterType(i)));
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+
+    private static Object sampleValue(int sqlType) {
+        return switch (sqlType) {
+            case Types.INTEGER, Types.BIGINT, Types.SMALLINT, Types.TINYINT -> 10;
+            case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE, Types.DATE -> Timestamp.from(Instant.parse("2025-01-20T10:00:00Z"));
+            case Types.BINARY, Types.VARBINARY -> new byte[16];
+            default -> "IN_TRANSIT";
+        };
+    }
+
+    private static Object[] sampleArguments(Method method) {
+        return Arrays.stream(method.getParameterTypes())
+            .map(type -> {
+                if (type == Pageable.class) {
+                    return PageRequest.of(0, 10);
+                }
+                if (type == Instant.class) {
+                    return Instant.parse("2025-01-20T10:00:00Z");
+                }
+                if (type == byte[].class) {
+                    return new byte[16];
+                }
+                if (type == Collection.class) {
+                    return List.of("IN_TRANSIT");
+                }
+                return "IN_TRANSIT";
+            })
+            .toArray();
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.packagetracking.query.service;
+
+import com.packagetracking.query.config.DatabaseRoutingConfig.DatabaseRoutingDataSource;
+import com.packagetracking.query.config.DatabaseRoutingConfig.DatabaseType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PackageQueryMetricsTest {
+
+    @Mock
+    private DataSource slave;
+
+    @Mock
+    private DataSource master;
+
+    @Mock
+    private Connection connection;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PackageQueryMetrics packageQueryMetrics = new PackageQueryMetrics(meterRegistry);
+
+    @Test
+    void timeDatabase_SlaveUnavailable_ShouldTagRouteThatServedTheConnection() throws SQLException {
+        when(slave.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(master.getConnection()).thenReturn(connection);
+        DatabaseRoutingDataSource routingDataSource = new DatabaseRoutingDataSource();
+        routingDataSource.setTargetDataSources(Map.of(DatabaseType.SLAVE, slave, DatabaseType.MASTER, master));
+        routingDataSource.setDefaultTargetDataSource(slave);
+        routingDataSource.afterPropertiesSet();
+
+        packageQueryMetrics.timeDatabase("package", () -> {
+            try (Connection ignored = routingDataSource.getConnection()) {
+                return null;
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // O roteamento global continua no slave; só a conexão foi desviada
+        assertEquals(DatabaseType.SLAVE, DatabaseRoutingDataSource.getDatabaseType());
+        assertEquals(1, meterRegistry.get("package.query.db").tag("operation", "package").tag("route", "master").timer().count());
+    }
+}
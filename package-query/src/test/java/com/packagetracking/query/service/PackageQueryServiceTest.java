@@ -1,17 +1,22 @@
 package com.packagetracking.query.service;
 
+import com.packagetracking.query.dto.PackageEventView;
 import com.packagetracking.query.dto.PackageResponse;
-import com.packagetracking.query.entity.Package;
+import com.packagetracking.query.dto.PackageView;
 import com.packagetracking.query.entity.PackageStatus;
-import com.packagetracking.query.entity.TrackingEvent;
 import com.packagetracking.query.repository.PackageRepository;
-import com.packagetracking.query.repository.TrackingEventRepository;
+import com.packagetracking.query.util.LookupHash;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -20,7 +25,9 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,40 +36,33 @@ class PackageQueryServiceTest {
     @Mock
     private PackageRepository packageRepository;
 
-    @Mock
-    private TrackingEventRepository trackingEventRepository;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private PackageQueryMetrics packageQueryMetrics = new PackageQueryMetrics(meterRegistry);
 
     @InjectMocks
     private PackageQueryService packageQueryService;
 
-    private Package packageEntity;
-    private TrackingEvent trackingEvent;
+    private PackageView packageView;
+    private PackageEventView eventRow;
 
     @BeforeEach
     void setUp() {
-        packageEntity = Package.builder()
-            .id("pacote-12345")
-            .description("Livros para entrega")
-            .sender("Loja ABC")
-            .recipient("João Silva")
-            .status(PackageStatus.CREATED)
-            .createdAt(Instant.parse("2025-01-20T10:00:00Z"))
-            .updatedAt(Instant.parse("2025-01-20T10:00:00Z"))
-            .build();
-
-        trackingEvent = new TrackingEvent();
-        trackingEvent.setPackageId("pacote-12345");
-        trackingEvent.setLocation("Centro de Distribuição São Paulo");
-        trackingEvent.setDescription("Pacote chegou ao centro de distribuição");
-        trackingEvent.setDate(LocalDateTime.parse("2025-01-20T11:00:00"));
+        packageView = new PackageView("pacote-12345", "Livros para entrega", "Loja ABC", "João Silva", PackageStatus.CREATED,
+                                      Instant.parse("2025-01-20T10:00:00Z"), Instant.parse("2025-01-20T10:00:00Z"), null);
+
+        eventRow = new PackageEventView("pacote-12345", "Livros para entrega", "Loja ABC", "João Silva", PackageStatus.CREATED,
+                                        Instant.parse("2025-01-20T10:00:00Z"), Instant.parse("2025-01-20T10:00:00Z"), null,
+                                        "Centro de Distribuição São Paulo", "Pacote chegou ao centro de distribuição",
+                                        LocalDateTime.parse("2025-01-20T11:00:00"));
     }
 
     @Test
     void getPackage_WithEvents_Success() {
         // Given
-        when(packageRepository.findById("pacote-12345")).thenReturn(Optional.of(packageEntity));
-        when(trackingEventRepository.findByPackageIdOrderByDateTimeDesc("pacote-12345"))
-            .thenReturn(Collections.singletonList(trackingEvent));
+        when(packageRepository.findViewWithEventsById("pacote-12345"))
+            .thenReturn(Collections.singletonList(eventRow));
 
         // When
         PackageResponse result = packageQueryService.getPackage("pacote-12345", true);
@@ -79,14 +79,32 @@ class PackageQueryServiceTest {
         assertEquals("pacote-12345", result.getEvents().getFirst().getPacoteId());
         assertEquals("Centro de Distribuição São Paulo", result.getEvents().getFirst().getLocalizacao());
 
-        verify(packageRepository).findById("pacote-12345");
-        verify(trackingEventRepository).findByPackageIdOrderByDateTimeDesc("pacote-12345");
+        verify(packageRepository).findViewWithEventsById("pacote-12345");
+        verify(packageRepository, never()).findViewById(anyString());
+        assertEquals(1, meterRegistry.get("package.query.db").tag("operation", "package-with-events").tag("route", "slave").timer().count());
+        assertEquals(1.0, meterRegistry.get("package.query.events").summary().totalAmount());
+    }
+
+    @Test
+    void getPackage_WithEventsButNoneRecorded_ReturnsEmptyEventList() {
+        // Given
+        when(packageRepository.findViewWithEventsById("pacote-12345"))
+            .thenReturn(Collections.singletonList(new PackageEventView("pacote-12345", "Livros para entrega", "Loja ABC", "João Silva",
+                PackageStatus.CREATED, Instant.parse("2025-01-20T10:00:00Z"), Instant.parse("2025-01-20T10:00:00Z"), null, null, null, null)));
+
+        // When
+        PackageResponse result = packageQueryService.getPackage("pacote-12345", true);
+
+        // Then
+        assertEquals("pacote-12345", result.getId());
+        assertNotNull(result.getEvents());
+        assertTrue(result.getEvents().isEmpty());
     }
 
     @Test
     void getPackage_WithoutEvents_Success() {
         // Given
-        when(packageRepository.findById("pacote-12345")).thenReturn(Optional.of(packageEntity));
+        when(packageRepository.findViewById("pacote-12345")).thenReturn(Optional.of(packageView));
 
         // When
         PackageResponse result = packageQueryService.getPackage("pacote-12345", false);
@@ -100,27 +118,27 @@ class PackageQueryServiceTest {
         assertEquals("CREATED", result.getStatus());
         assertNull(result.getEvents());
 
-        verify(packageRepository).findById("pacote-12345");
-        verify(trackingEventRepository, never()).findByPackageIdOrderByDateTimeDesc(anyString());
+        verify(packageRepository).findViewById("pacote-12345");
+        verify(packageRepository, never()).findViewWithEventsById(anyString());
     }
 
     @Test
     void getPackage_PackageNotFound_ThrowsException() {
         // Given
-        when(packageRepository.findById("pacote-inexistente")).thenReturn(Optional.empty());
+        when(packageRepository.findViewWithEventsById("pacote-inexistente")).thenReturn(Collections.emptyList());
 
         // When & Then
         RuntimeException exception = assertThrows(RuntimeException.class, () -> packageQueryService.getPackage("pacote-inexistente", true));
 
         assertEquals("Erro ao buscar pacote", exception.getMessage());
-        verify(packageRepository).findById("pacote-inexistente");
+        verify(packageRepository).findViewWithEventsById("pacote-inexistente");
     }
 
     @Test
     void getPackages_WithSenderFilter_Success() {
         // Given
-        List<Package> packages = Collections.singletonList(packageEntity);
-        when(packageRepository.findBySender("Loja ABC")).thenReturn(packages);
+        List<PackageView> packages = Collections.singletonList(packageView);
+        when(packageRepository.findViewsBySender(aryEq(LookupHash.of("Loja ABC")))).thenReturn(packages);
 
         // When
         List<PackageResponse> result = packageQueryService.getPackages("Loja ABC", null);
@@ -131,17 +149,18 @@ class PackageQueryServiceTest {
         assertEquals("pacote-12345", result.getFirst().getId());
         assertEquals("Loja ABC", result.getFirst().getSender());
 
-        verify(packageRepository).findBySender("Loja ABC");
-        verify(packageRepository, never()).findByRecipient(anyString());
-        verify(packageRepository, never()).findBySenderAndRecipient(anyString(), anyString());
-        verify(packageRepository, never()).findAll();
+        verify(packageRepository).findViewsBySender(aryEq(LookupHash.of("Loja ABC")));
+        verify(packageRepository, never()).findViewsByRecipient(any(byte[].class));
+        verify(packageRepository, never()).findViewsBySenderAndRecipient(any(byte[].class), any(byte[].class));
+        verify(packageRepository, never()).findAllViews();
+        assertEquals(1.0, meterRegistry.get("package.query.rows").tag("operation", "list").summary().totalAmount());
     }
 
     @Test
     void getPackages_WithRecipientFilter_Success() {
         // Given
-        List<Package> packages = Collections.singletonList(packageEntity);
-        when(packageRepository.findByRecipient("João Silva")).thenReturn(packages);
+        List<PackageView> packages = Collections.singletonList(packageView);
+        when(packageRepository.findViewsByRecipient(aryEq(LookupHash.of("João Silva")))).thenReturn(packages);
 
         // When
         List<PackageResponse> result = packageQueryService.getPackages(null, "João Silva");
@@ -152,17 +171,17 @@ class PackageQueryServiceTest {
         assertEquals("pacote-12345", result.getFirst().getId());
         assertEquals("João Silva", result.getFirst().getRecipient());
 
-        verify(packageRepository).findByRecipient("João Silva");
-        verify(packageRepository, never()).findBySender(anyString());
-        verify(packageRepository, never()).findBySenderAndRecipient(anyString(), anyString());
-        verify(packageRepository, never()).findAll();
+        verify(packageRepository).findViewsByRecipient(aryEq(LookupHash.of("João Silva")));
+        verify(packageRepository, never()).findViewsBySender(any(byte[].class));
+        verify(packageRepository, never()).findViewsBySenderAndRecipient(any(byte[].class), any(byte[].class));
+        verify(packageRepository, never()).findAllViews();
     }
 
     @Test
     void getPackages_WithBothFilters_Success() {
         // Given
-        List<Package> packages = Collections.singletonList(packageEntity);
-        when(packageRepository.findBySenderAndRecipient("Loja ABC", "João Silva")).thenReturn(packages);
+        List<PackageView> packages = Collections.singletonList(packageView);
+        when(packageRepository.findViewsBySenderAndRecipient(aryEq(LookupHash.of("Loja ABC")), aryEq(LookupHash.of("João Silva")))).thenReturn(packages);
 
         // When
         List<PackageResponse> result = packageQueryService.getPackages("Loja ABC", "João Silva");
@@ -172,17 +191,17 @@ class PackageQueryServiceTest {
         assertEquals(1, result.size());
         assertEquals("pacote-12345", result.getFirst().getId());
 
-        verify(packageRepository).findBySenderAndRecipient("Loja ABC", "João Silva");
-        verify(packageRepository, never()).findBySender(anyString());
-        verify(packageRepository, never()).findByRecipient(anyString());
-        verify(packageRepository, never()).findAll();
+        verify(packageRepository).findViewsBySenderAndRecipient(aryEq(LookupHash.of("Loja ABC")), aryEq(LookupHash.of("João Silva")));
+        verify(packageRepository, never()).findViewsBySender(any(byte[].class));
+        verify(packageRepository, never()).findViewsByRecipient(any(byte[].class));
+        verify(packageRepository, never()).findAllViews();
     }
 
     @Test
     void getPackages_WithoutFilters_Success() {
         // Given
-        List<Package> packages = Collections.singletonList(packageEntity);
-        when(packageRepository.findAll()).thenReturn(packages);
+        List<PackageView> packages = Collections.singletonList(packageView);
+        when(packageRepository.findAllViews()).thenReturn(packages);
 
         // When
         List<PackageResponse> result = packageQueryService.getPackages(null, null);
@@ -192,26 +211,35 @@ class PackageQueryServiceTest {
         assertEquals(1, result.size());
         assertEquals("pacote-12345", result.getFirst().getId());
 
-        verify(packageRepository).findAll();
-        verify(packageRepository, never()).findBySender(anyString());
-        verify(packageRepository, never()).findByRecipient(anyString());
-        verify(packageRepository, never()).findBySenderAndRecipient(anyString(), anyString());
+        verify(packageRepository).findAllViews();
+        verify(packageRepository, never()).findViewsBySender(any(byte[].class));
+        verify(packageRepository, never()).findViewsByRecipient(any(byte[].class));
+        verify(packageRepository, never()).findViewsBySenderAndRecipient(any(byte[].class), any(byte[].class));
+    }
+
+    @Test
+    void getPackagesPaginated_WithSenderFilter_PagesInQuery() {
+        // Given
+        PageRequest pageable = PageRequest.of(0, 10);
+        when(packageRepository.findViewPageBySender(aryEq(LookupHash.of("Loja ABC")), eq(pageable)))
+            .thenReturn(new PageImpl<>(List.of(packageView), pageable, 25));
+
+        // When
+        Page<PackageResponse> result = packageQueryService.getPackagesPaginated("  loja   abc", null, pageable);
+
+        // Then
+        assertEquals(1, result.getContent().size());
+        assertEquals(25, result.getTotalElements());
+        verify(packageRepository, never()).findViewPage(any());
     }
 
     @Test
     void getPackage_WithNullStatus_ReturnsUnknown() {
         // Given
-        Package packageWithNullStatus = Package.builder()
-            .id("pacote-12345")
-            .description("Livros para entrega")
-            .sender("Loja ABC")
-            .recipient("João Silva")
-            .status(null)
-            .createdAt(Instant.parse("2025-01-20T10:00:00Z"))
-            .updatedAt(Instant.parse("2025-01-20T10:00:00Z"))
-            .build();
-
-        when(packageRepository.findById("pacote-12345")).thenReturn(Optional.of(packageWithNullStatus));
+        PackageView packageWithNullStatus = new PackageView("pacote-12345", "Livros para entrega", "Loja ABC", "João Silva", null,
+                                                            Instant.parse("2025-01-20T10:00:00Z"), Instant.parse("2025-01-20T10:00:00Z"), null);
+
+        when(packageRepository.findViewById("pacote-12345")).thenReturn(Optional.of(packageWithNullStatus));
 
         // When
         PackageResponse result = packageQueryService.getPackage("pacote-12345", false);
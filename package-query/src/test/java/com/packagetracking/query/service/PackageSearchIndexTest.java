@@ -0,0 +1,110 @@
+package com.packagetracking.query.service;
+
+import com.packagetracking.query.config.PackageSearchProperties;
+import com.packagetracking.query.dto.PackageView;
+import com.packagetracking.query.entity.PackageStatus;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackageSearchIndexTest {
+
+    private ByteBuffersDirectory directory;
+    private PackageSearchIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        directory = new ByteBuffersDirectory();
+        index = new PackageSearchIndex(directory, properties());
+        index.index(List.of(
+            view("pacote-1", "Eletrônicos frágeis", "Loja ABC", "João da Silva", PackageStatus.IN_TRANSIT),
+            view("pacote-2", "Livros didáticos", "Editora Saber", "Maria Souza", PackageStatus.CREATED),
+            view("pacote-3", "Livros usados", "Sebo Central", "João Pereira", PackageStatus.DELIVERED)));
+        index.refresh();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        index.close();
+        directory.close();
+    }
+
+    @Test
+    void search_ShouldIgnoreAccentsAndCase() {
+        assertEquals(List.of("pacote-1"), index.search("ELETRONICOS", null, 10));
+    }
+
+    @Test
+    void search_ShouldMatchPrefix() {
+        assertEquals(List.of("pacote-2"), index.search("edit", null, 10));
+    }
+
+    @Test
+    void search_ShouldTolerateTypos() {
+        assertEquals(List.of("pacote-1"), index.search("eletronicso", null, 10));
+        assertEquals(List.of("pacote-2"), index.search("marai", null, 10));
+    }
+
+    @Test
+    void search_ShouldRequireAllTermsAndApplyStatusFilter() {
+        assertEquals(List.of("pacote-3"), index.search("livros joao", null, 10));
+        assertEquals(List.of("pacote-2"), index.search("livros", PackageStatus.CREATED, 10));
+    }
+
+    @Test
+    void search_ShouldRankExactMatchesFirst() {
+        index.index(List.of(view("pacote-4", "Livro", "Loja Livre", "Ana Lima", PackageStatus.CREATED)));
+        index.refresh();
+
+        List<String> ids = index.search("livros", null, 10);
+
+        assertEquals(3, ids.size());
+        assertEquals("pacote-4", ids.get(2));
+    }
+
+    @Test
+    void search_WithoutTerms_ShouldRejectQuery() {
+        assertThrows(IllegalArgumentException.class, () -> index.search("  -- ", null, 10));
+    }
+
+    @Test
+    void reindexAndDelete_ShouldReplaceDocuments() {
+        index.index(List.of(view("pacote-1", "Eletrônicos frágeis", "Loja ABC", "João da Silva", PackageStatus.DELIVERED)));
+        index.delete(List.of("pacote-3"));
+        index.refresh();
+
+        assertEquals(List.of("pacote-1"), index.search("eletronicos", PackageStatus.DELIVERED, 10));
+        assertTrue(index.search("sebo", null, 10).isEmpty());
+    }
+
+    @Test
+    void commit_ShouldPersistCheckpointAcrossReopen() throws Exception {
+        assertTrue(index.checkpoint().isEmpty());
+        index.commit(new PackageSearchIndex.Checkpoint(Instant.parse("2025-01-20T10:00:00Z"), "pacote-3"));
+        index.close();
+
+        index = new PackageSearchIndex(directory, properties());
+
+        assertEquals(new PackageSearchIndex.Checkpoint(Instant.parse("2025-01-20T10:00:00Z"), "pacote-3"), index.checkpoint().orElseThrow());
+        assertEquals(List.of("pacote-2"), index.search("editora", null, 10));
+    }
+
+    private static PackageSearchProperties properties() {
+        // JVM fria nos testes: o timeout padrão cortaria a primeira busca
+        PackageSearchProperties properties = new PackageSearchProperties();
+        properties.setTimeout(Duration.ofSeconds(10));
+        return properties;
+    }
+
+    static PackageView view(String id, String description, String sender, String recipient, PackageStatus status) {
+        Instant now = Instant.parse("2025-01-20T10:00:00Z");
+        return new PackageView(id, description, sender, recipient, status, now, now, null);
+    }
+}
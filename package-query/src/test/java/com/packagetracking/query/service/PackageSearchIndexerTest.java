@@ -0,0 +1,90 @@
+package com.packagetracking.query.service;
+
+import com.packagetracking.query.config.PackageSearchProperties;
+import com.packagetracking.query.dto.PackageChangeEvent;
+import com.packagetracking.query.dto.PackageView;
+import com.packagetracking.query.entity.PackageStatus;
+import com.packagetracking.query.repository.PackageRepository;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PackageSearchIndexerTest {
+
+    @Mock
+    private PackageRepository packageRepository;
+
+    private PackageSearchIndex index;
+    private PackageSearchIndexer indexer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        PackageSearchProperties properties = new PackageSearchProperties();
+        properties.setCatchUpBatchSize(2);
+        properties.setCatchUpOverlap(Duration.ofMinutes(1));
+        properties.setTimeout(Duration.ofSeconds(10));
+        index = new PackageSearchIndex(new ByteBuffersDirectory(), properties);
+        indexer = new PackageSearchIndexer(packageRepository, index, properties);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        index.close();
+    }
+
+    @Test
+    void catchUp_ShouldIndexInBatchesAndCommitCheckpoint() {
+        PackageView first = view("pacote-1", "Livros", "2025-01-20T10:00:00Z");
+        PackageView second = view("pacote-2", "Roupas", "2025-01-20T10:00:00Z");
+        PackageView third = view("pacote-3", "Brinquedos", "2025-01-20T11:00:00Z");
+        when(packageRepository.findViewsUpdatedAfter(eq(Instant.EPOCH), eq(""), any(Pageable.class))).thenReturn(List.of(first, second));
+        when(packageRepository.findViewsUpdatedAfter(eq(second.updatedAt()), eq("pacote-2"), any(Pageable.class))).thenReturn(List.of(third));
+
+        indexer.catchUp();
+
+        assertEquals(new PackageSearchIndex.Checkpoint(third.updatedAt(), "pacote-3"), index.checkpoint().orElseThrow());
+        assertEquals(List.of("pacote-3"), index.search("brinquedos", null, 10));
+        verify(packageRepository, times(2)).findViewsUpdatedAfter(any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void catchUp_ShouldResumeFromCheckpointMinusOverlap() {
+        index.commit(new PackageSearchIndex.Checkpoint(Instant.parse("2025-01-20T11:00:00Z"), "pacote-3"));
+
+        indexer.catchUp();
+
+        verify(packageRepository).findViewsUpdatedAfter(eq(Instant.parse("2025-01-20T10:59:00Z")), eq(""), any(Pageable.class));
+    }
+
+    @Test
+    void onPackageChange_ShouldReindexPackageButSkipTrackingEvents() {
+        when(packageRepository.findViewById("pacote-1")).thenReturn(Optional.of(view("pacote-1", "Livros", "2025-01-20T10:00:00Z")));
+
+        indexer.onPackageChange(new PackageChangeEvent(1, "PACKAGE_CREATED", "pacote-1", "CREATED", Instant.now()));
+        indexer.onPackageChange(new PackageChangeEvent(2, "TRACKING_EVENT_ADDED", "pacote-1", null, Instant.now()));
+        index.refresh();
+
+        assertEquals(List.of("pacote-1"), index.search("livros", null, 10));
+        verify(packageRepository, times(1)).findViewById("pacote-1");
+    }
+
+    private static PackageView view(String id, String description, String updatedAt) {
+        Instant instant = Instant.parse(updatedAt);
+        return new PackageView(id, description, "Loja ABC", "João Silva", PackageStatus.CREATED, instant, instant, null);
+    }
+}
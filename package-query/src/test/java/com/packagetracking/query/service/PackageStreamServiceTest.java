@@ -0,0 +1,121 @@
+package com.packagetracking.query.service;
+
+import com.packagetracking.query.config.DatabaseRoutingConfig.DatabaseRoutingDataSource;
+import com.packagetracking.query.config.DatabaseRoutingConfig.DatabaseType;
+import com.packagetracking.query.dto.PackageChangeEvent;
+import com.packagetracking.query.dto.PackageResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PackageStreamServiceTest {
+
+    @Mock
+    private PackageQueryService packageQueryService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PackageStreamService packageStreamService;
+    private PackageResponse packageResponse;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        packageStreamService = new PackageStreamService(packageQueryService, meterRegistry, Runnable::run, 60000, 0, 2);
+        packageResponse = PackageResponse.builder()
+            .id("pacote-12345")
+            .status("IN_TRANSIT")
+            .build();
+    }
+
+    @Test
+    void publish_ShouldReadPackageOnceForAllSubscribers() {
+        when(packageQueryService.getPackageWithCache("pacote-12345", true)).thenReturn(packageResponse);
+        when(packageQueryService.getPackage("pacote-12345", true)).thenReturn(packageResponse);
+
+        packageStreamService.subscribe("pacote-12345");
+        packageStreamService.subscribe("pacote-12345");
+        assertEquals(2, packageStreamService.subscriberCount("pacote-12345"));
+        assertEquals(2.0, meterRegistry.get("package.stream.subscribers").gauge().value());
+
+        packageStreamService.publish(change("pacote-12345"));
+
+        verify(packageQueryService, times(1)).getPackage("pacote-12345", true);
+    }
+
+    @Test
+    void publish_ShouldReadSnapshotFromMasterAndRestoreRoute() {
+        when(packageQueryService.getPackageWithCache("pacote-12345", true)).thenReturn(packageResponse);
+        DatabaseType defaultRoute = DatabaseRoutingDataSource.getDatabaseType();
+        AtomicReference<DatabaseType> route = new AtomicReference<>();
+        when(packageQueryService.getPackage("pacote-12345", true)).thenAnswer(invocation -> {
+            route.set(DatabaseRoutingDataSource.getDatabaseType());
+            return packageResponse;
+        });
+
+        packageStreamService.subscribe("pacote-12345");
+        packageStreamService.publish(change("pacote-12345"));
+
+        assertEquals(DatabaseType.MASTER, route.get());
+        assertEquals(defaultRoute, DatabaseRoutingDataSource.getDatabaseType());
+    }
+
+    @Test
+    void publish_ReadFails_ShouldKeepSubscribersWithoutThrowing() {
+        when(packageQueryService.getPackageWithCache("pacote-12345", true)).thenReturn(packageResponse);
+        when(packageQueryService.getPackage("pacote-12345", true)).thenThrow(new RuntimeException("Connection refused"));
+        DatabaseType defaultRoute = DatabaseRoutingDataSource.getDatabaseType();
+
+        packageStreamService.subscribe("pacote-12345");
+
+        assertDoesNotThrow(() -> packageStreamService.publish(change("pacote-12345")));
+        assertEquals(1, packageStreamService.subscriberCount("pacote-12345"));
+        assertEquals(defaultRoute, DatabaseRoutingDataSource.getDatabaseType());
+    }
+
+    @Test
+    void publish_WithoutSubscribers_ShouldNotQueryDatabase() {
+        packageStreamService.publish(change("pacote-sem-assinantes"));
+
+        verifyNoInteractions(packageQueryService);
+    }
+
+    @Test
+    void publish_ClosedConnection_ShouldRemoveSubscriber() {
+        when(packageQueryService.getPackageWithCache("pacote-12345", true)).thenReturn(packageResponse);
+        when(packageQueryService.getPackage("pacote-12345", true)).thenReturn(packageResponse);
+
+        SseEmitter emitter = packageStreamService.subscribe("pacote-12345");
+        emitter.complete();
+
+        packageStreamService.publish(change("pacote-12345"));
+
+        assertEquals(0, packageStreamService.subscriberCount("pacote-12345"));
+        assertEquals(0.0, meterRegistry.get("package.stream.subscribers").gauge().value());
+    }
+
+    @Test
+    void subscribe_AboveLimit_ShouldBeRejected() {
+        when(packageQueryService.getPackageWithCache("pacote-12345", true)).thenReturn(packageResponse);
+
+        packageStreamService.subscribe("pacote-12345");
+        packageStreamService.subscribe("pacote-12345");
+
+        assertThrows(IllegalStateException.class, () -> packageStreamService.subscribe("pacote-12345"));
+        assertEquals(2, packageStreamService.subscriberCount("pacote-12345"));
+    }
+
+    private PackageChangeEvent change(String packageId) {
+        return new PackageChangeEvent(1L, "TRACKING_EVENT_ADDED", packageId, null, Instant.parse("2025-01-20T11:00:00Z"));
+    }
+}
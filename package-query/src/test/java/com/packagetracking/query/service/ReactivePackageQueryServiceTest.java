@@ -0,0 +1,127 @@
+package com.packagetracking.query.service;
+
+import com.packagetracking.query.dto.PackageResponse;
+import com.packagetracking.query.entity.Package;
+import com.packagetracking.query.entity.PackageStatus;
+import com.packagetracking.query.entity.TrackingEvent;
+import com.packagetracking.query.repository.ReactivePackageQueryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactivePackageQueryServiceTest {
+
+    @Mock
+    private ReactivePackageQueryRepository packageQueryRepository;
+
+    @Mock
+    private ReactiveRedisTemplate<String, Object> reactivePackageCacheTemplate;
+
+    @Mock
+    private ReactiveValueOperations<String, Object> valueOperations;
+
+    private ReactivePackageQueryService packageQueryService;
+    private Package testPackage;
+    private TrackingEvent testEvent;
+
+    @BeforeEach
+    void setUp() {
+        packageQueryService = new ReactivePackageQueryService(packageQueryRepository, reactivePackageCacheTemplate);
+
+        testPackage = Package.builder()
+            .id("pacote-12345")
+            .description("Livros para entrega")
+            .sender("Loja ABC")
+            .recipient("João Silva")
+            .status(PackageStatus.IN_TRANSIT)
+            .createdAt(Instant.parse("2025-01-20T10:00:00Z"))
+            .updatedAt(Instant.parse("2025-01-20T10:00:00Z"))
+            .build();
+
+        testEvent = TrackingEvent.builder()
+            .id("e1")
+            .packageId("pacote-12345")
+            .location("Centro de Distribuição São Paulo")
+            .description("Pacote chegou ao centro de distribuição")
+            .date(LocalDateTime.parse("2025-01-20T11:00:00"))
+            .build();
+    }
+
+    @Test
+    void getPackage_WithEvents_ShouldQueryPackageAndEventsConcurrently() {
+        AtomicBoolean eventsSubscribed = new AtomicBoolean();
+        // O pacote só é emitido depois que a consulta de eventos já foi disparada
+        when(packageQueryRepository.findById("pacote-12345"))
+            .thenReturn(Mono.delay(Duration.ofMillis(50)).map(tick -> {
+                assertTrue(eventsSubscribed.get());
+                return testPackage;
+            }));
+        when(packageQueryRepository.findByPackageIdOrderByDateTimeDesc("pacote-12345"))
+            .thenReturn(Flux.just(testEvent).doOnSubscribe(subscription -> eventsSubscribed.set(true)));
+
+        StepVerifier.create(packageQueryService.getPackage("pacote-12345", true))
+            .assertNext(response -> {
+                assertEquals("pacote-12345", response.getId());
+                assertEquals("IN_TRANSIT", response.getStatus());
+                assertEquals(1, response.getEvents().size());
+                assertEquals("Centro de Distribuição São Paulo", response.getEvents().get(0).getLocalizacao());
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void getPackage_NotFound_ShouldFail() {
+        when(packageQueryRepository.findById("pacote-inexistente")).thenReturn(Mono.empty());
+        when(packageQueryRepository.findByPackageIdOrderByDateTimeDesc("pacote-inexistente")).thenReturn(Flux.empty());
+
+        StepVerifier.create(packageQueryService.getPackage("pacote-inexistente", true))
+            .expectErrorMatches(e -> e.getMessage().contains("não encontrado"))
+            .verify();
+    }
+
+    @Test
+    void getPackageWithCache_CacheHit_ShouldNotQueryDatabase() {
+        PackageResponse cached = PackageResponse.from(testPackage, null);
+        when(reactivePackageCacheTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("packages-in-transit::pacote-12345-false")).thenReturn(Mono.just(cached));
+
+        StepVerifier.create(packageQueryService.getPackageWithCache("pacote-12345", false))
+            .expectNext(cached)
+            .verifyComplete();
+
+        verifyNoInteractions(packageQueryRepository);
+    }
+
+    @Test
+    void getPackageWithCache_RedisUnavailable_ShouldReadDatabaseAndCacheInTransit() {
+        when(reactivePackageCacheTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString())).thenReturn(Mono.error(new IllegalStateException("Redis indisponível")));
+        when(valueOperations.set(anyString(), any(), any(Duration.class))).thenReturn(Mono.just(true));
+        when(packageQueryRepository.findById("pacote-12345")).thenReturn(Mono.just(testPackage));
+
+        StepVerifier.create(packageQueryService.getPackageWithCache("pacote-12345", false))
+            .assertNext(response -> assertEquals("pacote-12345", response.getId()))
+            .verifyComplete();
+
+        verify(valueOperations).set(eq("packages-in-transit::pacote-12345-false"), any(PackageResponse.class), eq(Duration.ofHours(1)));
+    }
+}
@@ -0,0 +1,123 @@
+package com.packagetracking.query.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.packagetracking.query.dto.PackageResponse;
+import com.packagetracking.query.dto.PreSerializedPackageResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackingEventJsonCacheTest {
+
+    private ObjectMapper objectMapper;
+    private SimpleMeterRegistry meterRegistry;
+    private TrackingEventJsonCache trackingEventJsonCache;
+    private PackageResponse packageResponse;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        meterRegistry = new SimpleMeterRegistry();
+        trackingEventJsonCache = new TrackingEventJsonCache(objectMapper, meterRegistry, 2);
+
+        packageResponse = PackageResponse.builder()
+            .id("pacote-12345")
+            .description("Livros para entrega")
+            .sender("Loja ABC")
+            .recipient("João Silva")
+            .status("IN_TRANSIT")
+            .createdAt(Instant.parse("2025-01-20T10:00:00Z"))
+            .updatedAt(Instant.parse("2025-01-20T10:00:00Z"))
+            .events(List.of(event("Centro de Distribuição São Paulo", "2025-01-20T11:00:00"),
+                            event("Agência Campinas", "2025-01-20T09:00:00")))
+            .build();
+    }
+
+    @Test
+    void preSerializedResponse_ShouldProduceSameJsonAsRegularSerialization() throws Exception {
+        SerializableString fragment = trackingEventJsonCache.fragmentFor("pacote-12345", packageResponse.getEvents());
+
+        PackageResponse spliced = PreSerializedPackageResponse.of(packageResponse, fragment);
+
+        assertInstanceOf(PreSerializedPackageResponse.class, spliced);
+        assertEquals(objectMapper.writeValueAsString(packageResponse), objectMapper.writeValueAsString(spliced));
+        assertEquals(2, spliced.getEvents().size());
+    }
+
+    @Test
+    void fragmentFor_SameEventCount_ShouldReuseEncodedFragment() {
+        SerializableString first = trackingEventJsonCache.fragmentFor("pacote-12345", packageResponse.getEvents());
+        SerializableString second = trackingEventJsonCache.fragmentFor("pacote-12345", packageResponse.getEvents());
+
+        assertSame(first, second);
+        assertEquals(1.0, meterRegistry.get("package.events.json.cache").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("package.events.json.cache").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void fragmentFor_NewEvent_ShouldEncodeNewListAndEvictLeastRecentlyUsed() {
+        List<PackageResponse.TrackingEventResponse> events = new ArrayList<>(packageResponse.getEvents());
+        SerializableString before = trackingEventJsonCache.fragmentFor("pacote-12345", events);
+
+        events.addFirst(event("Centro de Distribuição Rio de Janeiro", "2025-01-21T08:00:00"));
+        SerializableString after = trackingEventJsonCache.fragmentFor("pacote-12345", events);
+        trackingEventJsonCache.fragmentFor("pacote-67890", List.of(event("Agência Recife", "2025-01-21T08:00:00")));
+
+        assertNotSame(before, after);
+        assertTrue(after.getValue().contains("Rio de Janeiro"));
+        assertEquals(2, trackingEventJsonCache.size());
+    }
+
+    @Test
+    void fragmentFor_OldEventPurgedAndNewOneAdded_ShouldNotServeStaleListWithSameCount() {
+        SerializableString before = trackingEventJsonCache.fragmentFor("pacote-12345", packageResponse.getEvents());
+
+        // DataCleanupService remove o evento mais antigo e um novo chega: mesma quantidade, lista diferente
+        List<PackageResponse.TrackingEventResponse> afterCleanup = List.of(
+            event("Centro de Distribuição Rio de Janeiro", "2025-01-21T08:00:00"),
+            packageResponse.getEvents().get(0));
+        SerializableString after = trackingEventJsonCache.fragmentFor("pacote-12345", afterCleanup);
+
+        assertNotSame(before, after);
+        assertTrue(after.getValue().contains("Rio de Janeiro"));
+        assertFalse(after.getValue().contains("Agência Campinas"));
+        assertEquals(1, trackingEventJsonCache.size());
+    }
+
+    @Test
+    void evict_ShouldDropPackageFragment() {
+        SerializableString before = trackingEventJsonCache.fragmentFor("pacote-12345", packageResponse.getEvents());
+
+        trackingEventJsonCache.evict("pacote-12345");
+
+        assertEquals(0, trackingEventJsonCache.size());
+        assertNotSame(before, trackingEventJsonCache.fragmentFor("pacote-12345", packageResponse.getEvents()));
+        assertEquals(2.0, meterRegistry.get("package.events.json.cache").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void of_WithoutFragment_ShouldKeepRegularResponse() {
+        assertSame(packageResponse, PreSerializedPackageResponse.of(packageResponse, null));
+    }
+
+    private PackageResponse.TrackingEventResponse event(String location, String date) {
+        return PackageResponse.TrackingEventResponse.builder()
+            .pacoteId("pacote-12345")
+            .localizacao(location)
+            .descricao("Pacote em trânsito")
+            .dataHora(LocalDateTime.parse(date))
+            .build();
+    }
+}
@@ -0,0 +1,82 @@
+#!/bin/bash
+
+# Comparativo de throughput e p99 do package-query: threads virtuais x threads de plataforma
+# Sistema de Rastreamento de Pacotes
+#
+# Reinicia o package-query em cada modo (SPRING_THREADS_VIRTUAL_ENABLED) e executa o mesmo perfil Locust headless.
+# Uso: ./compare_thread_modes.sh [usuarios] [spawn_rate] [duracao]
+
+set -e
+
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+BLUE='\033[0;34m'
+RED='\033[0;31m'
+NC='\033[0m'
+
+USERS=${1:-50}
+SPAWN_RATE=${2:-20}
+RUN_TIME=${3:-2m}
+LOCUSTFILE="locustfile.py"
+RESULTS_DIR="locust-results"
+HOST="http://localhost:8083"
+TIMESTAMP=$(date +"%Y%m%d_%H%M%S")
+COMPOSE_FILE="../docker-compose.yml"
+
+source locust-env/bin/activate
+mkdir -p "$RESULTS_DIR"
+
+wait_for_query() {
+    for _ in $(seq 1 60); do
+        if curl -s "$HOST/actuator/health" > /dev/null; then
+            return 0
+        fi
+        sleep 2
+    done
+    echo -e "${RED}❌ Package Query (8083) não respondeu após reinício${NC}"
+    exit 1
+}
+
+# Extrai Requests/s e p99 da linha Aggregated do CSV do Locust
+summarize() {
+    python3 - "$1" <<'PY'
+import csv, sys
+with open(sys.argv[1]) as f:
+    for row in csv.DictReader(f):
+        if row["Name"] == "Aggregated":
+            print(f'{float(row["Requests/s"]):.1f} {row["99%"]} {row["Failure Count"]}')
+PY
+}
+
+declare -A SUMMARY
+
+for MODE in true false; do
+    LABEL=$([ "$MODE" = "true" ] && echo "virtual" || echo "plataforma")
+    echo -e "${YELLOW}🔄 Reiniciando package-query com threads ${LABEL}...${NC}"
+    SPRING_THREADS_VIRTUAL_ENABLED=$MODE docker compose -f "$COMPOSE_FILE" up -d --no-deps --force-recreate package-query
+    wait_for_query
+
+    CSV_PREFIX="$RESULTS_DIR/threads-${LABEL}-${TIMESTAMP}"
+    echo -e "${BLUE}⚡ Executando Locust (${USERS} usuários, ${RUN_TIME})...${NC}"
+    locust \
+        --headless \
+        --host="$HOST" \
+        --users="$USERS" \
+        --spawn-rate="$SPAWN_RATE" \
+        --run-time="$RUN_TIME" \
+        --csv="$CSV_PREFIX" \
+        --loglevel=WARNING \
+        --locustfile="$LOCUSTFILE"
+
+    SUMMARY[$LABEL]=$(summarize "${CSV_PREFIX}_stats.csv")
+done
+
+# Deixa o serviço no modo padrão
+SPRING_THREADS_VIRTUAL_ENABLED=true docker compose -f "$COMPOSE_FILE" up -d --no-deps --force-recreate package-query
+
+echo -e "${GREEN}📈 Resultado (perfil Locust idêntico nos dois modos):${NC}"
+printf "   %-12s %12s %10s %8s\n" "Modo" "Req/s" "p99 (ms)" "Falhas"
+for LABEL in virtual plataforma; do
+    read -r RPS P99 FAILURES <<< "${SUMMARY[$LABEL]}"
+    printf "   %-12s %12s %10s %8s\n" "$LABEL" "$RPS" "$P99" "$FAILURES"
+done